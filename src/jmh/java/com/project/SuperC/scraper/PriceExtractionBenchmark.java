@@ -0,0 +1,74 @@
+package com.project.SuperC.scraper;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks whole-page price extraction on saved Super C search pages of 3, 24 and 120 product tiles,
+ * with both extractors, and the Jsoup DOM build on its own. {@link PriceStepsBenchmark} covers the
+ * per-tile steps. Run with {@code -prof gc} (the {@code jmh} profile does) to get bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceExtractionBenchmark {
+
+	private static final String URL = "https://www.superc.ca/en/search?filter=fixture";
+
+	@Param({"small", "medium", "large"})
+	public String fixture;
+
+	private byte[] body;
+	private final JsoupPriceExtractor jsoupExtractor = new JsoupPriceExtractor();
+	private final StreamingPriceExtractor streamingExtractor = new StreamingPriceExtractor();
+
+	@Setup
+	public void loadFixture() throws IOException {
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream("fixtures/" + fixture + ".html")) {
+			if (in == null) {
+				throw new IOException("Fixture not found: " + fixture);
+			}
+			body = in.readAllBytes();
+		}
+	}
+
+	@Benchmark
+	public List<ScrapedProduct> jsoupExtract() {
+		return jsoupExtractor.extract(body, "UTF-8", URL);
+	}
+
+	@Benchmark
+	public List<ScrapedProduct> streamingExtract() {
+		return streamingExtractor.extract(body, "UTF-8", URL);
+	}
+
+	/**
+	 * The DOM build and {@code .pt__content} selection alone, without reading titles and prices.
+	 */
+	@Benchmark
+	public Elements jsoupParseAndSelect() throws IOException {
+		Document document = Jsoup.parse(new ByteArrayInputStream(body), "UTF-8", URL);
+		return document.select(".pt__content");
+	}
+}
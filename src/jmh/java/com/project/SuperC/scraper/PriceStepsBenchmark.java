@@ -0,0 +1,66 @@
+package com.project.SuperC.scraper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks the per-tile steps of price extraction as the Jsoup extractor and the alert email perform them:
+ * matching the {@code (\d+\.\d{2})} regex in the sale price text, {@link Double#parseDouble} on the match,
+ * and the {@link String#format} call that builds an alert line. The streaming extractor's single-pass
+ * price parser is measured on the same text for comparison.
+ * Inputs are held in non-final fields so the JIT cannot constant-fold them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceStepsBenchmark {
+
+	private static final Pattern PRICE_PATTERN = Pattern.compile("(\\d+\\.\\d{2})");
+
+	private String priceText = "$16.28 ea.";
+	private String priceString = "16.28";
+	private String productName = "Compliments Large Eggs";
+	private double currentPrice = 16.28;
+	private double maxPrice = 17.00;
+
+	@Benchmark
+	public String priceRegex() {
+		Matcher matcher = PRICE_PATTERN.matcher(priceText);
+		return matcher.find() ? matcher.group(1) : null;
+	}
+
+	@Benchmark
+	public double parseDouble() {
+		return Double.parseDouble(priceString);
+	}
+
+	@Benchmark
+	public double regexThenParseDouble() {
+		Matcher matcher = PRICE_PATTERN.matcher(priceText);
+		return matcher.find() ? Double.parseDouble(matcher.group(1)) : 0.0;
+	}
+
+	@Benchmark
+	public double streamingParsePrice() {
+		return StreamingPriceExtractor.parsePrice(priceText);
+	}
+
+	@Benchmark
+	public String formatAlertLine() {
+		return String.format("- %s: Current price $%.2f (Desired: $%.2f)", productName, currentPrice, maxPrice);
+	}
+}
@@ -0,0 +1,75 @@
+package com.project.SuperC.service;
+
+import com.project.SuperC.dto.ProductSuggestion;
+import com.project.SuperC.dto.ProductSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency distribution of {@link FuzzyProductMatcher} searches over the 200,000-product catalog of
+ * {@link ProductSearchBenchmark}, for misspelled, unaccented terms and one that matches nothing. Each name also
+ * gets a made-up product-line word, such as "Velorami", which grows the dictionary to well over a hundred
+ * thousand distinct words, more than a real grocery catalog has, so the dictionary walk is not flattered.
+ * Runs in sample-time mode, so the JSON results carry p50, p99 and p99.9 per term.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class FuzzyProductSearchBenchmark {
+
+	private static final String[] SYLLABLES = {"ba", "be", "bi", "bo", "ca", "co", "da", "de", "di", "fa", "fe", "fi",
+			"ga", "go", "la", "le", "li", "lo", "ma", "me", "mi", "mo", "na", "ne", "ni", "no", "pa", "pe", "po",
+			"ra", "re", "ri", "ro", "sa", "se", "si", "ta", "te", "to", "va", "ve", "vi", "za", "zo"};
+
+	@Param({"yougourt", "fromagr", "chocolat cremeux", "beure d'arachide", "sauce tomatoe", "xylophone"})
+	public String term;
+
+	private FuzzyProductMatcher matcher;
+
+	@Setup
+	public void loadCatalog() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		matcher = new FuzzyProductMatcher(null, registry, 15);
+		Random random = new Random(11);
+		List<ProductSuggestion> products = new ArrayList<>(ProductSearchBenchmark.PRODUCTS);
+		for (ProductSummary product : ProductSearchBenchmark.catalog(ProductSearchBenchmark.PRODUCTS, 42)) {
+			StringBuilder line = new StringBuilder();
+			for (int syllables = 2 + random.nextInt(3); syllables > 0; syllables--) {
+				line.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+			}
+			products.add(new ProductSuggestion(product.getProductNumber(), product.getName() + " " + line,
+					(long) (Math.pow(random.nextDouble(), 4) * 1000)));
+		}
+		matcher.load(products);
+		System.out.printf("%nFuzzy dictionary: %.0f products, %.0f words, %.1f MB of postings%n",
+				registry.get("product.search.fuzzy.products").gauge().value(),
+				registry.get("product.search.fuzzy.words").gauge().value(),
+				registry.get("product.search.fuzzy.postings").gauge().value() / 1e6);
+	}
+
+	/**
+	 * One search page: the first 10 product numbers plus the one that tells whether another page follows.
+	 */
+	@Benchmark
+	public List<String> firstPage() {
+		return matcher.search(term, 500, 0, 11);
+	}
+}
@@ -0,0 +1,130 @@
+package com.project.SuperC.service;
+
+import com.project.SuperC.dto.ProductSuggestion;
+import com.project.SuperC.dto.ProductSummary;
+import com.project.SuperC.dto.ProductSummaryRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency distribution of {@link ProductSearchIndex} queries over a synthetic catalog of
+ * 200,000 bilingual product names, for a one-page typeahead request. Terms range from two letters, served
+ * by a single bigram list, to a phrase that matches nothing. Runs in sample-time mode, so the JSON results carry
+ * p50, p99 and p99.9 per term; the index's size is printed once the catalog is loaded.
+ * The same terms are also looked up as typeahead prefixes in the {@link ProductSuggester} trie, with
+ * tracker counts drawn from a skewed distribution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ProductSearchBenchmark {
+
+	static final int PRODUCTS = 200_000;
+
+	private static final String[] BRANDS = {"Natrel", "Québon", "Lactantia", "Oasis", "Compliments", "Selection",
+			"Kraft", "Heinz", "Kellogg's", "Christie", "Dare", "Old Dutch", "Lay's", "Maple Leaf", "Olymel",
+			"Président's Choice", "Liberté", "Oikos", "Danone", "Yoplait", "Black Diamond", "Saputo", "Tostitos",
+			"Nestlé", "Lindt", "Cadbury", "Catelli", "Barilla", "Clover Leaf", "Del Monte", "Campbell's",
+			"Knorr", "Tim Hortons", "Van Houtte", "Maxwell House", "Tropicana", "Sealtest", "Gay Lea", "Becel",
+			"St-Hubert", "Vachon", "Dempster's", "Pom", "Villaggio", "McCain", "Cavendish", "Irresistibles"};
+	private static final String[] DESCRIPTORS = {"Organic", "Biologique", "Light", "Allégé", "Original", "Classic",
+			"Extra Creamy", "Crémeux", "Unsweetened", "Non sucré", "Whole Grain", "Grains entiers", "Spicy",
+			"Épicé", "Smoked", "Fumé", "Frozen", "Surgelé", "Fresh", "Frais", "Lactose Free", "Sans lactose",
+			"Low Sodium", "Faible en sodium", "Greek", "Grec", "Vanilla", "Vanille", "Strawberry", "Fraise",
+			"Chocolate", "Chocolat", "Maple", "Érable", "Garlic", "Ail", "Honey", "Miel", "Plain", "Nature"};
+	private static final String[] NOUNS = {"Milk", "Lait", "Yogurt", "Yogourt", "Cheese", "Fromage", "Butter",
+			"Beurre", "Bread", "Pain", "Cereal", "Céréales", "Chips", "Croustilles", "Cookies", "Biscuits",
+			"Orange Juice", "Jus d'orange", "Apple Juice", "Jus de pomme", "Coffee", "Café", "Tea", "Thé",
+			"Pasta", "Pâtes", "Tomato Sauce", "Sauce tomate", "Soup", "Soupe", "Ham", "Jambon", "Bacon",
+			"Sausages", "Saucisses", "Chicken Breasts", "Poitrines de poulet", "Ground Beef", "Boeuf haché",
+			"Salmon", "Saumon", "Tuna", "Thon", "Rice", "Riz", "Eggs", "Oeufs", "Ice Cream", "Crème glacée",
+			"Pizza", "Fries", "Frites", "Peanut Butter", "Beurre d'arachide", "Jam", "Confiture", "Cream", "Crème",
+			"Sour Cream", "Crème sure", "Crackers", "Muffins", "Bagels", "Tortillas", "Salsa", "Hummus", "Tofu"};
+	private static final String[] SIZES = {"100 g", "175 g", "250 g", "340 g", "500 g", "750 g", "1 kg", "2 kg",
+			"200 ml", "473 ml", "750 ml", "1 L", "1.89 L", "2 L", "4 L", "6 x 100 g", "12 x 355 ml", "24 un."};
+
+	@Param({"mi", "yog", "chocolate", "lait 2", "beurre d'arachide crémeux"})
+	public String term;
+
+	private ProductSearchIndex index;
+	private ProductSuggester suggester;
+
+	@Setup
+	public void loadCatalog() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		index = new ProductSearchIndex(null, registry, true, 15);
+		List<ProductSummary> catalog = catalog(PRODUCTS, 42);
+		index.load(catalog);
+		System.out.printf("%nIndexed %.0f products: %.0f grams, %.1f MB of postings, %.1f MB of names%n",
+				registry.get("product.search.index.products").gauge().value(),
+				registry.get("product.search.index.grams").gauge().value(),
+				registry.get("product.search.index.postings").gauge().value() / 1e6,
+				registry.get("product.search.index.names").gauge().value() / 1e6);
+
+		suggester = new ProductSuggester(null, registry, 10, 5);
+		Random random = new Random(7);
+		suggester.load(catalog.stream()
+				.map(product -> new ProductSuggestion(product.getProductNumber(), product.getName(), (long) (Math.pow(random.nextDouble(), 4) * 1000)))
+				.toList());
+		System.out.printf("Typeahead trie: %.0f nodes, about %.1f MB%n",
+				registry.get("product.suggest.nodes").gauge().value(),
+				registry.get("product.suggest.size").gauge().value() / 1e6);
+	}
+
+	/**
+	 * One typeahead page: the first 10 results plus the row that tells whether another page follows.
+	 */
+	@Benchmark
+	public List<ProductSummary> firstPage() {
+		return index.search(term, 500, 0, 11);
+	}
+
+	/**
+	 * Ten typeahead suggestions for the term as a prefix.
+	 */
+	@Benchmark
+	public List<ProductSuggestion> suggest() {
+		return suggester.suggest(term, 10);
+	}
+
+	/**
+	 * Generates a reproducible catalog of product names of the form "brand descriptor noun size".
+	 *
+	 * @param products The number of products.
+	 * @param seed The random seed.
+	 * @return The product summaries, numbered from 1.
+	 */
+	static List<ProductSummary> catalog(int products, long seed) {
+		Random random = new Random(seed);
+		List<ProductSummary> catalog = new ArrayList<>(products);
+		for (int i = 1; i <= products; i++) {
+			String name = pick(random, BRANDS) + " " + pick(random, DESCRIPTORS) + " " + pick(random, NOUNS) + " " + pick(random, SIZES);
+			double price = 0.99 + random.nextInt(2000) / 100.0;
+			catalog.add(new ProductSummaryRow(String.valueOf(i), name, "https://www.superc.ca/images/" + i + ".png",
+					null, price, price, null, null));
+		}
+		return catalog;
+	}
+
+	private static String pick(Random random, String[] words) {
+		return words[random.nextInt(words.length)];
+	}
+}
@@ -0,0 +1,42 @@
+package com.project.SuperC;
+
+import com.project.SuperC.repository.PriceHistoryRepository;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Component that prepares the price history schema upon application startup.
+ * The monthly-partitioned {@code price_history} table cannot be generated by Hibernate,
+ * so it is created here, along with the partitions for the current and the next month
+ * so the first writes of a new month never wait on DDL.
+ */
+@Component
+public class PriceHistorySchemaInitializer implements CommandLineRunner {
+
+    private final PriceHistoryRepository priceHistoryRepository;
+
+    /**
+     * Constructs a PriceHistorySchemaInitializer.
+     *
+     * @param priceHistoryRepository The repository owning the price history schema.
+     */
+    public PriceHistorySchemaInitializer(PriceHistoryRepository priceHistoryRepository) {
+        this.priceHistoryRepository = priceHistoryRepository;
+    }
+
+    /**
+     * Creates the price history table and its upcoming partitions if they do not exist.
+     *
+     * @param args Command line arguments (not used in this implementation).
+     */
+    @Override
+    public void run(String... args) {
+        priceHistoryRepository.createSchema();
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        priceHistoryRepository.ensureMonthlyPartition(current);
+        priceHistoryRepository.ensureMonthlyPartition(current.plusMonths(1));
+    }
+}
@@ -0,0 +1,41 @@
+package com.project.SuperC;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Component that prepares the product search index upon application startup.
+ * The trigram GIN index on product names relies on the {@code pg_trgm} extension and an
+ * operator class Hibernate cannot generate, so both are created here once the {@code products}
+ * table exists.
+ */
+@Component
+public class ProductSearchSchemaInitializer implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs a ProductSearchSchemaInitializer.
+     *
+     * @param jdbcTemplate The JDBC template whose data source the schema script runs against.
+     */
+    public ProductSearchSchemaInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the {@code pg_trgm} extension and the product name index if they do not exist.
+     *
+     * @param args Command line arguments (not used in this implementation).
+     */
+    @Override
+    public void run(String... args) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/product_search.sql"))
+                .execute(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+    }
+}
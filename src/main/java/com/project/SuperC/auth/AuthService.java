@@ -11,7 +11,7 @@ import com.project.SuperC.repository.UserRepository;
 import com.project.SuperC.repository.PasswordResetTokenRepository;
 import com.project.SuperC.security.JwtService;
 import com.project.SuperC.security.UserDetailsImpl;
-import com.project.SuperC.service.EmailSenderService;
+import com.project.SuperC.service.EmailOutboxService;
 import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -37,7 +37,7 @@ public class AuthService {
     private final JwtService jwtService;
     private final RoleRepository roleRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
-    private final EmailSenderService emailSenderService;
+    private final EmailOutboxService emailOutboxService;
 
     /**
      * Handles user registration.
@@ -89,7 +89,8 @@ public class AuthService {
     }
 
     /**
-     * Initiates the password reset process by generating a token and sending an email.
+     * Initiates the password reset process by generating a token and queuing the reset email in the outbox.
+     * The email is stored in the same transaction as the token and delivered in the background.
      * @param request ForgotPasswordRequest containing the user's email.
      */
     @Transactional
@@ -128,7 +129,7 @@ public class AuthService {
                     + "Thank you,\n"
                     + "SuperC Price Tracker Team";
 
-            emailSenderService.sendNotificationsEmail(user.getEmail(), subject, body);
+            emailOutboxService.enqueue(user.getEmail(), subject, body);
         }
     }
 
@@ -0,0 +1,15 @@
+/**
+ * Configuration class for Actuator and Micrometer.
+ * Loads the default management settings from {@code management.properties}, which expose the
+ * health and Prometheus endpoints. The defaults have lower precedence than application.properties,
+ * environment variables and command-line arguments, so a deployment can override any of them.
+ */
+package com.project.SuperC.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@PropertySource("classpath:management.properties")
+public class MetricsConfig {
+}
@@ -0,0 +1,156 @@
+/**
+ * Configuration class for Quartz scheduled jobs.
+ * Registers the price-check job with a cron trigger for the regular run and a repeating
+ * trigger that picks up partitions left unfinished by a crash, a redeploy or a dead node,
+ * a repeating job that retries product fetches that failed, and a repeating email-outbox job
+ * that delivers queued emails in the background.
+ * Every instance runs its own in-memory scheduler; the partition leases in the database
+ * decide which node processes which part of a run.
+ * Spring Boot picks up these beans and registers them with the auto-configured scheduler.
+ */
+package com.project.SuperC.config;
+
+import com.project.SuperC.job.EmailOutboxJob;
+import com.project.SuperC.job.PriceCheckJob;
+import com.project.SuperC.job.ProductFetchRetryJob;
+import com.project.SuperC.service.PriceCheckJobService;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Instant;
+import java.util.Date;
+
+@Configuration
+public class QuartzConfig {
+
+    /**
+     * Defines the durable price-check job.
+     *
+     * @return The {@link JobDetail} for {@link PriceCheckJob}.
+     */
+    @Bean
+    public JobDetail priceCheckJobDetail() {
+        return JobBuilder.newJob(PriceCheckJob.class)
+                .withIdentity(PriceCheckJobService.PRICE_CHECK_JOB_KEY)
+                .withDescription("Fetches current prices for all tracked products and sends alerts.")
+                .storeDurably()
+                .build();
+    }
+
+    /**
+     * Fires the price-check job on the configured cron schedule.
+     *
+     * @param priceCheckJobDetail The price-check job.
+     * @param cron The cron expression, hourly by default; each run only fetches the products that are due.
+     * @return The cron {@link Trigger}.
+     */
+    @Bean
+    public Trigger priceCheckCronTrigger(JobDetail priceCheckJobDetail,
+                                         @Value("${application.price-check.cron:0 0 * * * ?}") String cron) {
+        return TriggerBuilder.newTrigger()
+                .forJob(priceCheckJobDetail)
+                .withIdentity("priceCheckCronTrigger", "priceCheck")
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionFireAndProceed())
+                .build();
+    }
+
+    /**
+     * Fires the price-check job shortly after startup and then periodically to claim unfinished partitions,
+     * whether they were abandoned by a previous instance of this node or by a node that has died.
+     *
+     * @param priceCheckJobDetail The price-check job.
+     * @param delaySeconds How long after startup to fire the first time.
+     * @param intervalSeconds How often to look for unfinished partitions afterwards.
+     * @return The repeating {@link Trigger}.
+     */
+    @Bean
+    public Trigger priceCheckResumeTrigger(JobDetail priceCheckJobDetail,
+                                           @Value("${application.price-check.resume-delay-seconds:60}") long delaySeconds,
+                                           @Value("${application.price-check.rebalance-interval-seconds:300}") int intervalSeconds) {
+        return TriggerBuilder.newTrigger()
+                .forJob(priceCheckJobDetail)
+                .withIdentity("priceCheckResumeTrigger", "priceCheck")
+                .usingJobData(PriceCheckJob.RESUME_ONLY, true)
+                .startAt(Date.from(Instant.now().plusSeconds(delaySeconds)))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInSeconds(intervalSeconds)
+                        .repeatForever()
+                        .withMisfireHandlingInstructionNextWithRemainingCount())
+                .build();
+    }
+
+    /**
+     * Defines the durable email-outbox job.
+     *
+     * @return The {@link JobDetail} for {@link EmailOutboxJob}.
+     */
+    @Bean
+    public JobDetail emailOutboxJobDetail() {
+        return JobBuilder.newJob(EmailOutboxJob.class)
+                .withIdentity("emailOutboxJob", "email")
+                .withDescription("Delivers pending emails from the outbox and retries failed deliveries.")
+                .storeDurably()
+                .build();
+    }
+
+    /**
+     * Fires the email-outbox job at a fixed interval.
+     *
+     * @param emailOutboxJobDetail The email-outbox job.
+     * @param intervalSeconds How often to look for due emails.
+     * @return The repeating {@link Trigger}.
+     */
+    @Bean
+    public Trigger emailOutboxTrigger(JobDetail emailOutboxJobDetail,
+                                      @Value("${application.email.outbox.poll-interval-seconds:10}") int intervalSeconds) {
+        return TriggerBuilder.newTrigger()
+                .forJob(emailOutboxJobDetail)
+                .withIdentity("emailOutboxTrigger", "email")
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInSeconds(intervalSeconds)
+                        .repeatForever()
+                        .withMisfireHandlingInstructionNextWithRemainingCount())
+                .build();
+    }
+
+    /**
+     * Defines the durable job that retries failed product fetches.
+     *
+     * @return The {@link JobDetail} for {@link ProductFetchRetryJob}.
+     */
+    @Bean
+    public JobDetail productFetchRetryJobDetail() {
+        return JobBuilder.newJob(ProductFetchRetryJob.class)
+                .withIdentity("productFetchRetryJob", "priceCheck")
+                .withDescription("Fetches again the product pages that failed during a price check, once their backoff has passed.")
+                .storeDurably()
+                .build();
+    }
+
+    /**
+     * Fires the product fetch retry job at a fixed interval.
+     *
+     * @param productFetchRetryJobDetail The product fetch retry job.
+     * @param intervalSeconds How often to look for products due for another attempt.
+     * @return The repeating {@link Trigger}.
+     */
+    @Bean
+    public Trigger productFetchRetryTrigger(JobDetail productFetchRetryJobDetail,
+                                            @Value("${application.price-check.retry.poll-interval-seconds:60}") int intervalSeconds) {
+        return TriggerBuilder.newTrigger()
+                .forJob(productFetchRetryJobDetail)
+                .withIdentity("productFetchRetryTrigger", "priceCheck")
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInSeconds(intervalSeconds)
+                        .repeatForever()
+                        .withMisfireHandlingInstructionNextWithRemainingCount())
+                .build();
+    }
+}
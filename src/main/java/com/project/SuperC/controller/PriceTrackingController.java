@@ -1,22 +1,25 @@
 /**
  * REST controller for managing price tracking requests.
  * This controller handles operations related to adding, viewing, and deleting
- * price tracking requests for authenticated users. It also provides an endpoint
- * for triggering daily price checks.
+ * price tracking requests for authenticated users. It also provides endpoints
+ * for listing tracked products and triggering the scheduled price check on demand.
  * All endpoints are mapped under the "/app" base path.
  */
 package com.project.SuperC.controller;
 
 import com.project.SuperC.dto.PriceTrackingRequestDto;
+import com.project.SuperC.dto.PriceUpdateDto;
 import com.project.SuperC.dto.UserDashboardProductDto;
 import com.project.SuperC.models.PriceTrackingRequest;
 import com.project.SuperC.models.User;
 import com.project.SuperC.repository.UserRepository;
 import com.project.SuperC.security.UserDetailsImpl;
+import com.project.SuperC.service.PriceCheckJobService;
 import com.project.SuperC.service.PriceTrackingService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -25,6 +28,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -36,6 +40,7 @@ import java.util.stream.Collectors;
 public class PriceTrackingController {
 
     private final PriceTrackingService priceTrackingService;
+    private final PriceCheckJobService priceCheckJobService;
     private final UserRepository userRepository;
 
     /**
@@ -114,7 +119,8 @@ public class PriceTrackingController {
     }
 
     /**
-     * Triggers a daily price check for all tracked products.
+     * Lists all tracked products that the daily price check will process.
+     * The check itself runs as a scheduled Quartz job; see {@link #runPriceCheckNow()}.
      * @return A {@link ResponseEntity} containing a list of {@link PriceTrackingRequestDto}
      * representing all active price tracking requests.
      */
@@ -140,6 +146,19 @@ public class PriceTrackingController {
         return ResponseEntity.ok(dtoList);
     }
 
+    /**
+     * Triggers the scheduled price-check job immediately instead of waiting for its next fire time.
+     * Requires ADMIN role.
+     * @return A {@link ResponseEntity} with HTTP 202 (Accepted) once the job has been queued.
+     */
+    @PostMapping("/dailyPriceCheck/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> runPriceCheckNow() {
+        log.info("Manually triggering the price check job.");
+        priceCheckJobService.triggerNow();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body("Price check job triggered.");
+    }
+
     /**
      * Retrieves all price tracking requests associated with the authenticated user.
      * @param userDetails The authenticated user's details, injected by Spring Security.
@@ -187,6 +206,30 @@ public class PriceTrackingController {
         return ResponseEntity.ok(dtoList);
     }
 
+    /**
+     * Opens a Server-Sent Events stream of live price updates for the authenticated user's tracked products.
+     * Every price the price checker records for one of those products is pushed as a {@code price} event
+     * whose data is a {@link PriceUpdateDto}. The stream is authenticated with the same bearer token as the
+     * other endpoints, so clients read it with {@code fetch} rather than {@code EventSource}, and reconnect
+     * when it times out.
+     * @param userDetails The authenticated user's details, injected by Spring Security.
+     * @return The {@link SseEmitter} streaming the updates.
+     * Returns HTTP 401 (Unauthorized) if user details are null or user ID is missing.
+     */
+    @GetMapping(value = "/priceUpdates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<SseEmitter> streamPriceUpdates(@AuthenticationPrincipal UserDetailsImpl userDetails) {
+        if (userDetails == null || userDetails.getId() == null) {
+            log.warn("streamPriceUpdates: No authenticated user ID. Returning UNAUTHORIZED.");
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        log.info("Opening price update stream for user ID: {}", userDetails.getId());
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(priceTrackingService.subscribeToPriceUpdates(userDetails.getId()));
+    }
+
     /**
      * Handles requests to delete a specific price tracking request.
      * @param id The ID of the price tracking request to delete.
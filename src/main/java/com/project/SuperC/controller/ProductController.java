@@ -1,16 +1,22 @@
 package com.project.SuperC.controller;
 
-import com.project.SuperC.models.Product;
+import com.project.SuperC.dto.ProductSuggestion;
+import com.project.SuperC.dto.ProductSummary;
 import com.project.SuperC.service.ProductService;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -23,21 +29,55 @@ public class ProductController {
     private final ProductService productService;
 
     /**
-     * Endpoint to search for products by name.
+     * Endpoint to search for products by name, one page at a time.
+     * The body stays a plain JSON array of products; when more results follow, a {@code Link} header
+     * with {@code rel="next"} points at the next page.
      * @param query The search term for product names.
-     * @return A ResponseEntity containing a list of matching Product objects.
+     * @param fuzzy Whether to fall back to accent-insensitive, typo-tolerant matching when no name contains the query.
+     * @param page The zero-based page number.
+     * @param size The page size, capped by the server.
+     * @return A ResponseEntity containing a list of matching {@link ProductSummary} objects.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam("query") String query) {
+    public ResponseEntity<List<ProductSummary>> searchProducts(@RequestParam("query") String query,
+                                                               @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy,
+                                                               @RequestParam(value = "page", defaultValue = "0") int page,
+                                                               @RequestParam(value = "size", defaultValue = "50") int size) {
         logger.info("Received product search request for query: {}", query);
-        List<Product> products = productService.searchProducts(query);
+        Slice<ProductSummary> products = productService.searchProducts(query, fuzzy, page, size);
 
-        if (products.isEmpty()) {
+        if (!products.hasContent()) {
             logger.info("No products found for query: {}", query);
-            return ResponseEntity.ok(products);
+            return ResponseEntity.ok(products.getContent());
         }
 
-        logger.info("Returning {} products for query: {}", products.size(), query);
-        return ResponseEntity.ok(products);
+        logger.info("Returning {} products for query: {}", products.getNumberOfElements(), query);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (products.hasNext()) {
+            // The request's query string is already encoded, so it is copied as is rather than encoded again.
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", products.getNumber() + 1)
+                    .replaceQueryParam("size", products.getSize())
+                    .build()
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(products.getContent());
+    }
+
+    /**
+     * Endpoint for search-box typeahead: the most tracked products whose name, or a word in it, starts
+     * with the prefix. Served from memory, so it can be called on every keystroke; responses may be
+     * cached by the browser for a minute.
+     * @param prefix What the user has typed so far.
+     * @param limit The number of suggestions wanted, capped by the server.
+     * @return A ResponseEntity containing the suggested products' numbers and names.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(@RequestParam("prefix") String prefix,
+                                                                   @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)))
+                .body(productService.suggestProducts(prefix, limit));
     }
 }
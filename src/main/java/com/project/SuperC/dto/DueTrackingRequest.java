@@ -0,0 +1,13 @@
+/**
+ * Projection of a {@link com.project.SuperC.models.PriceTrackingRequest} read by the daily price check.
+ * The check only needs the request id, to advance its checkpoint, and the product number, to know which
+ * page to fetch, so neither the owning user nor the product entity is loaded.
+ */
+package com.project.SuperC.dto;
+
+public interface DueTrackingRequest {
+
+    Long getId();
+
+    String getProductNumber();
+}
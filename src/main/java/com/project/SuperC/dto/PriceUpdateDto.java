@@ -0,0 +1,25 @@
+/**
+ * Data Transfer Object pushed to dashboard subscribers when the price checker records a new price.
+ * Each update is sent as one {@code price} Server-Sent Event with this object as its JSON data.
+ */
+package com.project.SuperC.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceUpdateDto {
+
+    private String productNumber;
+
+    private String productName;
+
+    private Double currentPrice;
+
+    private Instant observedAt;
+}
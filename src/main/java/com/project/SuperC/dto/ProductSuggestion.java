@@ -0,0 +1,25 @@
+/**
+ * A product offered as the user types in the search box: its number and name, ranked by how many
+ * tracking requests follow it. The tracker count is used for ranking only and is not serialized.
+ */
+package com.project.SuperC.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProductSuggestion {
+
+    @JsonProperty("product_number")
+    private final String productNumber;
+
+    private final String name;
+
+    @JsonIgnore
+    private final long trackers;
+}
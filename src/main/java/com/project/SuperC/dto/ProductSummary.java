@@ -0,0 +1,35 @@
+/**
+ * Projection of a {@link com.project.SuperC.models.Product} returned by product search.
+ * Only the columns the search page displays are selected, so the {@code html_snippet} TEXT column
+ * is never read. JSON property names match those of the Product entity.
+ */
+package com.project.SuperC.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"product_number", "name", "image_url", "unit", "current_price", "average_price", "price_per_unit", "validity_date"})
+public interface ProductSummary {
+
+    @JsonProperty("product_number")
+    String getProductNumber();
+
+    String getName();
+
+    @JsonProperty("image_url")
+    String getImageUrl();
+
+    String getUnit();
+
+    @JsonProperty("current_price")
+    Double getCurrentPrice();
+
+    @JsonProperty("average_price")
+    Double getAveragePrice();
+
+    @JsonProperty("price_per_unit")
+    String getPricePerUnit();
+
+    @JsonProperty("validity_date")
+    String getValidityDate();
+}
@@ -0,0 +1,31 @@
+/**
+ * Immutable {@link ProductSummary} read directly over JDBC, for callers that keep summaries in memory
+ * rather than returning them straight from a Spring Data query.
+ */
+package com.project.SuperC.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProductSummaryRow implements ProductSummary {
+
+    private final String productNumber;
+
+    private final String name;
+
+    private final String imageUrl;
+
+    private final String unit;
+
+    private final Double currentPrice;
+
+    private final Double averagePrice;
+
+    private final String pricePerUnit;
+
+    private final String validityDate;
+}
@@ -0,0 +1,32 @@
+/**
+ * Quartz job that delivers pending emails from the outbox.
+ * Fires repeatedly in the background; concurrent execution is disallowed so fires never overlap on the same node,
+ * while the row locks taken when claiming messages keep several nodes from sending the same email.
+ */
+package com.project.SuperC.job;
+
+import com.project.SuperC.service.EmailOutboxDispatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+@DisallowConcurrentExecution
+@Slf4j
+public class EmailOutboxJob extends QuartzJobBean {
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
+        try {
+            emailOutboxDispatcher.dispatchPending();
+        } catch (Exception e) {
+            log.error("Email outbox job failed: {}", e.getMessage(), e);
+            throw new JobExecutionException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Quartz job that runs the scheduled price check.
+ * Regular fires process the run identified by the trigger's scheduled fire time;
+ * fires flagged as resume-only just pick up partitions left unfinished by this or another node.
+ * Concurrent execution is disallowed so two fires never overlap on the same node.
+ */
+package com.project.SuperC.job;
+
+import com.project.SuperC.service.PriceCheckJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+@DisallowConcurrentExecution
+@Slf4j
+public class PriceCheckJob extends QuartzJobBean {
+
+    /**
+     * Job data key marking a fire that should only resume unfinished runs.
+     */
+    public static final String RESUME_ONLY = "resumeOnly";
+
+    @Autowired
+    private PriceCheckJobService priceCheckJobService;
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
+        try {
+            if (context.getMergedJobDataMap().getBooleanValue(RESUME_ONLY)) {
+                log.debug("Price check job fired to resume unfinished partitions.");
+                priceCheckJobService.resumeUnfinishedRuns();
+                return;
+            }
+
+            log.info("Price check job fired for run scheduled at {}.", context.getScheduledFireTime());
+            priceCheckJobService.runScheduled(context.getScheduledFireTime().toInstant());
+        } catch (Exception e) {
+            log.error("Price check job failed: {}", e.getMessage(), e);
+            throw new JobExecutionException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Quartz job that retries product fetches that failed during a price check.
+ * Fires repeatedly in the background; concurrent execution is disallowed so fires never overlap on the same node,
+ * while the row locks taken when claiming retries keep several nodes from fetching the same product.
+ */
+package com.project.SuperC.job;
+
+import com.project.SuperC.service.DailyPriceChecker;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+@DisallowConcurrentExecution
+@Slf4j
+public class ProductFetchRetryJob extends QuartzJobBean {
+
+    @Autowired
+    private DailyPriceChecker dailyPriceChecker;
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
+        try {
+            dailyPriceChecker.retryFailedFetches();
+        } catch (Exception e) {
+            log.error("Product fetch retry job failed: {}", e.getMessage(), e);
+            throw new JobExecutionException(e);
+        }
+    }
+}
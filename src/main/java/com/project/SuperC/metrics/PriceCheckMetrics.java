@@ -0,0 +1,118 @@
+/**
+ * Micrometer meters for each stage of the price-check pipeline, exposed in Prometheus format
+ * through Actuator's {@code /actuator/prometheus} endpoint.
+ * <ul>
+ *   <li>{@code price_check_run_seconds}: the duration of this node's share of a scheduled run;</li>
+ *   <li>{@code price_check_db_load_seconds}: loading a chunk of tracking requests;</li>
+ *   <li>{@code price_check_fetch_seconds}: fetching one product page, as a histogram, tagged by outcome;</li>
+ *   <li>{@code price_check_fetch_skipped_total}: pages not requested because the site's circuit breaker was open;</li>
+ *   <li>{@code price_check_parse_seconds}: extracting products from a changed page;</li>
+ *   <li>{@code price_check_products_unmatched_total}: fetched pages that yielded no price for their product;</li>
+ *   <li>{@code price_check_alerts_triggered_total}: price alerts triggered, counted once their transaction commits.</li>
+ * </ul>
+ * Email delivery is measured by the outbox itself, as {@code email_outbox_deliveries_total}.
+ * Timers publish a percentile histogram, so quantiles can be aggregated across nodes in Prometheus.
+ */
+package com.project.SuperC.metrics;
+
+import com.project.SuperC.scraper.FetchOutcome;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class PriceCheckMetrics {
+
+    private final Timer runTimer;
+    private final Timer dbLoadTimer;
+    private final Map<FetchOutcome, Timer> fetchTimers = new EnumMap<>(FetchOutcome.class);
+    private final Counter fetchSkipped;
+    private final Timer parseTimer;
+    private final Counter unmatchedProducts;
+    private final Counter alertsTriggered;
+
+    /**
+     * Registers the price-check meters.
+     *
+     * @param registry The registry the meters are published to.
+     */
+    public PriceCheckMetrics(MeterRegistry registry) {
+        this.runTimer = Timer.builder("price.check.run")
+                .description("Duration of this node's share of a scheduled price-check run")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofSeconds(1))
+                .maximumExpectedValue(Duration.ofHours(6))
+                .register(registry);
+        this.dbLoadTimer = Timer.builder("price.check.db.load")
+                .description("Time to load one chunk of tracking requests")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+        for (FetchOutcome outcome : FetchOutcome.values()) {
+            if (outcome == FetchOutcome.SKIPPED) {
+                continue;
+            }
+            fetchTimers.put(outcome, Timer.builder("price.check.fetch")
+                    .description("Time to fetch one product page, including parsing")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(10))
+                    .maximumExpectedValue(Duration.ofSeconds(60))
+                    .register(registry));
+        }
+        this.fetchSkipped = Counter.builder("price.check.fetch.skipped")
+                .description("Product pages not requested because the site's circuit breaker was open")
+                .register(registry);
+        this.parseTimer = Timer.builder("price.check.parse")
+                .description("Time to extract products from a changed page")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry);
+        this.unmatchedProducts = Counter.builder("price.check.products.unmatched")
+                .description("Fetched product pages that yielded no price for their product")
+                .register(registry);
+        this.alertsTriggered = Counter.builder("price.check.alerts.triggered")
+                .description("Price alerts triggered")
+                .register(registry);
+    }
+
+    public void recordRun(long nanos) {
+        runTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDbLoad(long nanos) {
+        dbLoadTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records one product page fetch. Skipped fetches made no request, so they are counted rather than timed.
+     *
+     * @param outcome How the fetch was resolved.
+     * @param nanos How long the fetch took.
+     */
+    public void recordFetch(FetchOutcome outcome, long nanos) {
+        if (outcome == FetchOutcome.SKIPPED) {
+            fetchSkipped.increment();
+        } else {
+            fetchTimers.get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordParse(long nanos) {
+        parseTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void productsUnmatched(int count) {
+        unmatchedProducts.increment(count);
+    }
+
+    public void alertsTriggered(int count) {
+        alertsTriggered.increment(count);
+    }
+}
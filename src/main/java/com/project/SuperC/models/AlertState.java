@@ -0,0 +1,11 @@
+package com.project.SuperC.models;
+
+/**
+ * The notification state of a price tracking request.
+ * A request starts {@code ARMED}; it moves to {@code FIRED} when the user is notified that the price
+ * reached their maximum, and returns to {@code ARMED} once the price goes back above the maximum.
+ */
+public enum AlertState {
+    ARMED,
+    FIRED,
+}
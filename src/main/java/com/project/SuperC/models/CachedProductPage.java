@@ -0,0 +1,68 @@
+/**
+ * Represents the cached state of a fetched Super C product search page.
+ * Stores the HTTP validators and a hash of the last response body, together with the products
+ * parsed from it, so that later runs can send conditional requests and skip parsing entirely
+ * when the page has not changed.
+ */
+package com.project.SuperC.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "product_page_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CachedProductPage {
+
+    /**
+     * The absolute URL of the fetched page.
+     */
+    @Id
+    @Column(name = "url", nullable = false, length = 512)
+    private String url;
+
+    /**
+     * The ETag returned with the last full response, if any.
+     */
+    @Column(name = "etag")
+    private String etag;
+
+    /**
+     * The Last-Modified header returned with the last full response, if any.
+     */
+    @Column(name = "last_modified")
+    private String lastModified;
+
+    /**
+     * The hex-encoded SHA-256 hash of the last full response body.
+     */
+    @Column(name = "body_hash", nullable = false, length = 64)
+    private String bodyHash;
+
+    /**
+     * The products parsed from the last full response body, serialized as JSON.
+     */
+    @Column(name = "products_json", nullable = false, columnDefinition = "TEXT")
+    private String productsJson;
+
+    /**
+     * When the page body was last downloaded and parsed.
+     */
+    @Column(name = "fetched_at", nullable = false)
+    private Instant fetchedAt;
+
+    /**
+     * When the cached content or its validators last changed.
+     * Pages revalidated without any change are not written back, so this is not moved by them.
+     */
+    @Column(name = "validated_at", nullable = false)
+    private Instant validatedAt;
+}
@@ -0,0 +1,70 @@
+/**
+ * Represents an email waiting in, or delivered from, the outbox.
+ * Emails are written here in the same transaction as the change that caused them, such as an alert
+ * firing or a password reset token being issued, so they are never lost if the application stops
+ * or the mail server is unavailable. A background dispatcher delivers pending messages and retries
+ * failed deliveries with backoff until they succeed or run out of attempts.
+ */
+package com.project.SuperC.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "email_outbox",
+        indexes = @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    /**
+     * The number of delivery attempts made so far.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    /**
+     * The earliest time the next delivery attempt may be made. Also pushed forward while a
+     * dispatcher holds the message, so other nodes do not pick it up at the same time.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    /**
+     * The error from the most recent failed attempt.
+     */
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+}
@@ -0,0 +1,7 @@
+package com.project.SuperC.models;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED,
+}
@@ -0,0 +1,81 @@
+/**
+ * Represents the progress of one partition of a scheduled price-check run.
+ * Each run is split into a fixed number of partitions by hashing the product number, and
+ * application instances lease partitions from this table so work is spread across live nodes.
+ * Within a partition, tracking requests are processed in ascending id order, and the id of the
+ * last request in each completed chunk is stored here so an interrupted partition can resume
+ * where it stopped, on this node or any other once the lease expires.
+ */
+package com.project.SuperC.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "price_check_checkpoints",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"scheduled_at", "partition_no"}),
+        indexes = @Index(name = "idx_price_check_checkpoints_status_lease", columnList = "status, lease_expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceCheckCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The time the run was scheduled to fire. Identifies the run across restarts.
+     */
+    @Column(name = "scheduled_at", nullable = false)
+    private Instant scheduledAt;
+
+    /**
+     * The partition of the product-number hash space covered by this checkpoint.
+     */
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+
+    /**
+     * The node currently (or most recently) holding the lease on this partition.
+     */
+    @Column(name = "owner_node")
+    private String ownerNode;
+
+    /**
+     * The time after which the lease is considered abandoned and the partition may be claimed by another node.
+     */
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+
+    /**
+     * The id of the last price tracking request whose chunk was fully processed.
+     */
+    @Column(name = "last_processed_id", nullable = false)
+    @Builder.Default
+    private Long lastProcessedId = 0L;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private PriceCheckStatus status = PriceCheckStatus.IN_PROGRESS;
+
+    @Column(name = "processed_count", nullable = false)
+    @Builder.Default
+    private long processedCount = 0L;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+}
@@ -0,0 +1,6 @@
+package com.project.SuperC.models;
+
+public enum PriceCheckStatus {
+    IN_PROGRESS,
+    COMPLETED,
+}
@@ -0,0 +1,38 @@
+/**
+ * Represents one observed price of a product at a point in time.
+ * Observations are appended to the {@code price_history} table and folded into
+ * the product's running average price.
+ */
+package com.project.SuperC.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceObservation {
+
+    /**
+     * The product number the price was observed for.
+     */
+    private String productNumber;
+
+    /**
+     * The title of the product tile the price was taken from.
+     */
+    private String title;
+
+    /**
+     * The observed sale price.
+     */
+    private double price;
+
+    /**
+     * When the price was observed.
+     */
+    private Instant observedAt;
+}
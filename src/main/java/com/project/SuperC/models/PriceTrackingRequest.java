@@ -2,6 +2,8 @@
  * Represents a price tracking request entity in the database.
  * This entity stores information about a user's request to track the price of a specific product,
  * including the maximum desired price and a link to the user and product entities.
+ * It also carries the request's alert state, so a user is notified when the price crosses
+ * their maximum or drops further, rather than on every price check while it stays low.
  */
 package com.project.SuperC.models;
 
@@ -11,8 +13,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Entity
-@Table(name = "price_tracking_requests")
+@Table(name = "price_tracking_requests",
+        indexes = @Index(name = "idx_price_tracking_requests_product_max_price", columnList = "product_number, max_price"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,6 +36,18 @@ public class PriceTrackingRequest {
     private double maxPrice;
 
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_state", nullable = false, length = 16, columnDefinition = "varchar(16) default 'ARMED'")
+    @Builder.Default
+    private AlertState alertState = AlertState.ARMED;
+
+    @Column(name = "last_notified_price")
+    private Double lastNotifiedPrice;
+
+    @Column(name = "last_notified_at")
+    private Instant lastNotifiedAt;
+
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
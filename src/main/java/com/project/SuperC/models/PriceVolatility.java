@@ -0,0 +1,38 @@
+/**
+ * Summarizes how a product's price has moved over a recent window of its price history.
+ * Used to decide how soon the product should be checked again.
+ */
+package com.project.SuperC.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceVolatility {
+
+    /**
+     * The product number the summary is for.
+     */
+    private String productNumber;
+
+    /**
+     * The earliest observation within the window.
+     */
+    private Instant firstObservedAt;
+
+    /**
+     * The most recent observation whose price differed from the one before it, or null if the price
+     * did not change within the window.
+     */
+    private Instant lastChangedAt;
+
+    /**
+     * The number of observations within the window whose price differed from the one before it.
+     */
+    private int changes;
+}
@@ -2,6 +2,7 @@
  * Represents a product entity in the database.
  * This entity stores  details about a product, including its
  * unique identifiers, name, image, pricing information, and other attributes.
+ * It also records when the product is next due for a price check.
  */
 package com.project.SuperC.models;
 
@@ -10,9 +11,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.hibernate.annotations.GenericGenerator;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
 
 @Entity
@@ -20,7 +23,7 @@ import java.time.OffsetDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Product {
 
 
@@ -66,4 +69,11 @@ public class Product {
     @Column(name = "validity_date")
     @JsonProperty("validity_date")
     private String validityDate;
+
+    /**
+     * When the product is next due for a price check, or null if it should be checked on the next run.
+     */
+    @Column(name = "next_check_at")
+    @JsonIgnore
+    private Instant nextCheckAt;
 }
@@ -0,0 +1,45 @@
+/**
+ * Represents a product whose page could not be fetched and is waiting for another attempt.
+ * When the Super C site errors or the fetch circuit breaker is open, the affected products are
+ * recorded here instead of being dropped until the next daily run, and a background job retries
+ * them with jittered exponential backoff. The row is removed once the page is fetched.
+ */
+package com.project.SuperC.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "product_fetch_retries",
+        indexes = @Index(name = "idx_product_fetch_retries_next_attempt", columnList = "next_attempt_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFetchRetry {
+
+    @Id
+    @Column(name = "product_number", nullable = false)
+    private String productNumber;
+
+    /**
+     * The number of failed fetches since the product was last fetched successfully.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,29 @@
+/**
+ * Represents a price tracking request whose product's current price is at or below the requested maximum.
+ * Rows are produced by the set-based alert query, already joined with the user and product they refer to.
+ */
+package com.project.SuperC.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TriggeredAlert {
+
+    private Long requestId;
+
+    private Long userId;
+
+    private String email;
+
+    private String productNumber;
+
+    private String productName;
+
+    private double currentPrice;
+
+    private double maxPrice;
+}
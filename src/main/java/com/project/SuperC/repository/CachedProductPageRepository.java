@@ -0,0 +1,15 @@
+/**
+ * Repository interface for managing {@link CachedProductPage} entities.
+ * This interface extends {@link JpaRepository} to provide standard CRUD operations
+ * for cached product search pages, keyed by URL, and {@link CachedProductPageRepositoryCustom}
+ * for writing a fetch run's pages back in bulk.
+ */
+package com.project.SuperC.repository;
+
+import com.project.SuperC.models.CachedProductPage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CachedProductPageRepository extends JpaRepository<CachedProductPage, String>, CachedProductPageRepositoryCustom {
+}
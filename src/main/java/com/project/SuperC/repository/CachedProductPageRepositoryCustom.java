@@ -0,0 +1,24 @@
+/**
+ * Custom bulk operations for {@link com.project.SuperC.models.CachedProductPage} rows,
+ * written once per fetch run for every page fetched.
+ * Implemented by {@link CachedProductPageRepositoryImpl} and exposed through {@link CachedProductPageRepository}.
+ */
+package com.project.SuperC.repository;
+
+import com.project.SuperC.models.CachedProductPage;
+
+import java.util.Collection;
+
+public interface CachedProductPageRepositoryCustom {
+
+    /**
+     * Writes fetched pages to the page cache with multi-row
+     * {@code INSERT ... ON CONFLICT (url) DO UPDATE} statements.
+     * A cached page whose body hash and validators all match the written one is left untouched,
+     * so pages that came back unchanged cost no row write.
+     *
+     * @param pages The pages to write; at most one per URL is applied.
+     * @return The number of pages inserted or updated.
+     */
+    int upsertPages(Collection<CachedProductPage> pages);
+}
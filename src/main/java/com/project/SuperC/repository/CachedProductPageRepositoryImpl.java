@@ -0,0 +1,90 @@
+/**
+ * JDBC implementation of {@link CachedProductPageRepositoryCustom}.
+ * A JPA {@code saveAll()} merges each page on its own, selecting it and then inserting or updating it;
+ * here each statement carries a whole batch of pages.
+ */
+package com.project.SuperC.repository;
+
+import com.project.SuperC.models.CachedProductPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CachedProductPageRepositoryImpl implements CachedProductPageRepositoryCustom {
+
+    /**
+     * Postgres caps a statement at 65535 bind parameters.
+     */
+    private static final int MAX_BIND_PARAMETERS = 65535;
+    private static final int PARAMETERS_PER_ROW = 7;
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO product_page_cache (url, etag, last_modified, body_hash, products_json, fetched_at, validated_at) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ON_CONFLICT =
+            " ON CONFLICT (url) DO UPDATE SET etag = EXCLUDED.etag, last_modified = EXCLUDED.last_modified, "
+                    + "body_hash = EXCLUDED.body_hash, products_json = EXCLUDED.products_json, "
+                    + "fetched_at = EXCLUDED.fetched_at, validated_at = EXCLUDED.validated_at"
+                    // A page answered 304 is written back with the validators it was requested with, so it matches here.
+                    // Comparing the validators too, not only the ETag, still rewrites a changed page served without one.
+                    + " WHERE (product_page_cache.etag, product_page_cache.last_modified, product_page_cache.body_hash)"
+                    + " IS DISTINCT FROM (EXCLUDED.etag, EXCLUDED.last_modified, EXCLUDED.body_hash)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final String fullBatchSql;
+
+    /**
+     * Constructs a CachedProductPageRepositoryImpl.
+     *
+     * @param jdbcTemplate The JDBC template used for the upsert statements.
+     * @param batchSize The number of rows written per statement.
+     */
+    public CachedProductPageRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                           @Value("${application.price-check.upsert.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BIND_PARAMETERS / PARAMETERS_PER_ROW));
+        this.fullBatchSql = upsertSql(this.batchSize);
+    }
+
+    @Override
+    public int upsertPages(Collection<CachedProductPage> pages) {
+        // A single statement may not update the same row twice, so keep the last page per URL.
+        Map<String, CachedProductPage> byUrl = new LinkedHashMap<>();
+        for (CachedProductPage page : pages) {
+            byUrl.put(page.getUrl(), page);
+        }
+        List<CachedProductPage> rows = new ArrayList<>(byUrl.values());
+
+        int written = 0;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<CachedProductPage> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            Object[] parameters = new Object[batch.size() * PARAMETERS_PER_ROW];
+            int p = 0;
+            for (CachedProductPage page : batch) {
+                parameters[p++] = page.getUrl();
+                parameters[p++] = page.getEtag();
+                parameters[p++] = page.getLastModified();
+                parameters[p++] = page.getBodyHash();
+                parameters[p++] = page.getProductsJson();
+                parameters[p++] = Timestamp.from(page.getFetchedAt());
+                parameters[p++] = Timestamp.from(page.getValidatedAt());
+            }
+            String sql = batch.size() == batchSize ? fullBatchSql : upsertSql(batch.size());
+            written += jdbcTemplate.update(sql, parameters);
+        }
+        return written;
+    }
+
+    private static String upsertSql(int rows) {
+        return INSERT_PREFIX + String.join(", ", Collections.nCopies(rows, ROW)) + ON_CONFLICT;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Repository interface for managing {@link EmailOutboxMessage} entities.
+ * This interface extends {@link JpaRepository} to provide standard CRUD operations
+ * and the queries used by the outbox dispatcher to claim and retire messages.
+ */
+package com.project.SuperC.repository;
+
+import com.project.SuperC.models.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+    /**
+     * Locks the oldest pending messages that are due for a delivery attempt.
+     * Rows locked by another node's concurrent claim are skipped rather than waited on.
+     * Must be called within a transaction.
+     *
+     * @param now The current time; messages whose next attempt is due before it are returned.
+     * @param limit The maximum number of messages to return.
+     * @return The due messages, oldest first.
+     */
+    @Query(value = "SELECT * FROM email_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutboxMessage> findDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Marks the given messages as delivered.
+     *
+     * @param ids The ids of the delivered messages.
+     * @param sentAt The delivery time.
+     * @return The number of messages updated.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.project.SuperC.models.EmailOutboxStatus.SENT, "
+            + "m.sentAt = :sentAt, m.attempts = m.attempts + 1, m.lastError = null WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    /**
+     * Deletes delivered messages sent before the given time.
+     *
+     * @param before The cutoff time.
+     * @return The number of messages deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = com.project.SuperC.models.EmailOutboxStatus.SENT AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
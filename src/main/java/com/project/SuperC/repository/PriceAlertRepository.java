@@ -0,0 +1,103 @@
+/**
+ * Repository that evaluates price alerts in the database.
+ * Instead of comparing each tracking request against the scraped price in Java, a single
+ * set-based statement joins the freshly written product prices with the tracking requests, using
+ * the {@code (product_number, max_price)} index, and streams back only the triggered rows.
+ * The same statement advances each request's {@link com.project.SuperC.models.AlertState}, so
+ * a request fires once when the price crosses its maximum and again only if the price drops further.
+ */
+package com.project.SuperC.repository;
+
+import com.project.SuperC.models.TriggeredAlert;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+@Repository
+public class PriceAlertRepository {
+
+    /**
+     * Re-arms fired requests whose product is priced above their maximum again.
+     */
+    private static final String REARM_SQL =
+            "UPDATE price_tracking_requests r SET alert_state = 'ARMED' "
+                    + "FROM products p "
+                    + "WHERE p.product_number = r.product_number AND p.product_number = ANY (?) "
+                    + "AND r.alert_state = 'FIRED' AND p.current_price > r.max_price";
+
+    /**
+     * Fires armed requests whose product reached their maximum, and fired requests whose product dropped below
+     * the last notified price, returning the fired rows grouped by user.
+     */
+    private static final String FIRE_SQL =
+            "WITH fired AS ("
+                    + "UPDATE price_tracking_requests r "
+                    + "SET alert_state = 'FIRED', last_notified_price = p.current_price, last_notified_at = ? "
+                    + "FROM products p "
+                    + "WHERE p.product_number = r.product_number AND p.product_number = ANY (?) "
+                    + "AND p.current_price > 0 AND r.max_price >= p.current_price "
+                    + "AND (r.alert_state = 'ARMED' OR r.last_notified_price IS NULL OR p.current_price < r.last_notified_price) "
+                    + "RETURNING r.id, r.user_id, r.product_number, p.name, p.current_price, r.max_price) "
+                    + "SELECT f.id, f.user_id, u.email, f.product_number, f.name, f.current_price, f.max_price "
+                    + "FROM fired f JOIN users u ON u.id = f.user_id "
+                    + "ORDER BY f.user_id, f.product_number, f.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    /**
+     * Constructs a PriceAlertRepository.
+     *
+     * @param jdbcTemplate The JDBC template used to run the alert query.
+     * @param fetchSize The number of rows fetched from the server at a time while streaming.
+     */
+    public PriceAlertRepository(JdbcTemplate jdbcTemplate,
+                                @Value("${application.price-check.alerts.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Advances the alert state of every tracking request whose product is one of the given products, and
+     * streams the requests that fire: those that were armed and are now priced at or below their maximum,
+     * and those already fired whose price dropped below the last notified price.
+     * Fired requests that are priced above their maximum again are re-armed.
+     * Runs in one transaction, so the state change and the notifications built from it commit together.
+     *
+     * @param productNumbers The products whose prices were just refreshed.
+     * @param now The notification time recorded on fired requests.
+     * @param consumer Receives each fired alert, ordered by user id and then product number.
+     * @return The number of requests re-armed.
+     */
+    @Transactional
+    public int evaluate(Collection<String> productNumbers, Instant now, Consumer<TriggeredAlert> consumer) {
+        int rearmed = jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(REARM_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", productNumbers.toArray()));
+            return statement;
+        });
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FIRE_SQL);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, Timestamp.from(now));
+            statement.setArray(2, connection.createArrayOf("varchar", productNumbers.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(new TriggeredAlert(
+                rs.getLong("id"),
+                rs.getLong("user_id"),
+                rs.getString("email"),
+                rs.getString("product_number"),
+                rs.getString("name"),
+                rs.getDouble("current_price"),
+                rs.getDouble("max_price"))));
+        return rearmed;
+    }
+}
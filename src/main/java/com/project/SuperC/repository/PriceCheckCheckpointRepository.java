@@ -0,0 +1,109 @@
+/**
+ * Repository interface for managing {@link PriceCheckCheckpoint} entities.
+ * This interface extends {@link JpaRepository} to provide standard CRUD operations
+ * and the lease queries used to spread price-check partitions across application instances.
+ */
+package com.project.SuperC.repository;
+
+import com.project.SuperC.models.PriceCheckCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface PriceCheckCheckpointRepository extends JpaRepository<PriceCheckCheckpoint, Long> {
+    /**
+     * Creates one checkpoint row per partition for the run scheduled at the given time.
+     * Partitions that already exist are left untouched, so every node may call this safely.
+     *
+     * @param scheduledAt The scheduled fire time identifying the run.
+     * @param partitions The number of partitions to create.
+     * @param now The current time, used for the start and update timestamps.
+     * @return The number of partition rows actually inserted.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO price_check_checkpoints (scheduled_at, partition_no, last_processed_id, processed_count, status, started_at, updated_at) "
+            + "SELECT :scheduledAt, p, 0, 0, 'IN_PROGRESS', :now, :now FROM generate_series(0, :partitions - 1) AS p "
+            + "ON CONFLICT (scheduled_at, partition_no) DO NOTHING", nativeQuery = true)
+    int createPartitions(@Param("scheduledAt") Instant scheduledAt, @Param("partitions") int partitions, @Param("now") Instant now);
+
+    /**
+     * Locks the oldest unfinished partition whose lease is free or expired.
+     * Rows locked by another node's concurrent claim are skipped rather than waited on.
+     * Must be called within a transaction.
+     *
+     * @param now The current time; leases expiring before it are considered abandoned.
+     * @return An {@link Optional} containing the claimable {@link PriceCheckCheckpoint}, or empty if none is available.
+     */
+    @Query(value = "SELECT * FROM price_check_checkpoints WHERE status = 'IN_PROGRESS' "
+            + "AND (lease_expires_at IS NULL OR lease_expires_at < :now) "
+            + "ORDER BY scheduled_at, partition_no LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<PriceCheckCheckpoint> findClaimable(@Param("now") Instant now);
+
+    /**
+     * Records progress on a leased partition and extends the lease, provided the node still owns it.
+     *
+     * @param id The checkpoint id.
+     * @param ownerNode The node expected to hold the lease.
+     * @param lastProcessedId The id of the last request processed.
+     * @param processedCount The total number of requests processed in this partition.
+     * @param leaseExpiresAt The new lease expiry.
+     * @param now The current time.
+     * @return 1 if the checkpoint was updated, 0 if the lease has been lost to another node.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PriceCheckCheckpoint c SET c.lastProcessedId = :lastProcessedId, c.processedCount = :processedCount, "
+            + "c.leaseExpiresAt = :leaseExpiresAt, c.updatedAt = :now WHERE c.id = :id AND c.ownerNode = :ownerNode")
+    int advance(@Param("id") Long id, @Param("ownerNode") String ownerNode, @Param("lastProcessedId") Long lastProcessedId,
+                @Param("processedCount") long processedCount, @Param("leaseExpiresAt") Instant leaseExpiresAt, @Param("now") Instant now);
+
+    /**
+     * Extends the lease on a partition without recording progress, provided the node still owns it.
+     *
+     * @param id The checkpoint id.
+     * @param ownerNode The node expected to hold the lease.
+     * @param leaseExpiresAt The new lease expiry.
+     * @param now The current time.
+     * @return 1 if the lease was extended, 0 if it has been lost to another node.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PriceCheckCheckpoint c SET c.leaseExpiresAt = :leaseExpiresAt, c.updatedAt = :now "
+            + "WHERE c.id = :id AND c.ownerNode = :ownerNode")
+    int renew(@Param("id") Long id, @Param("ownerNode") String ownerNode,
+              @Param("leaseExpiresAt") Instant leaseExpiresAt, @Param("now") Instant now);
+
+    /**
+     * Marks a leased partition as completed, provided the node still owns it.
+     *
+     * @param id The checkpoint id.
+     * @param ownerNode The node expected to hold the lease.
+     * @param now The completion time.
+     * @return 1 if the checkpoint was completed, 0 if the lease has been lost to another node.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PriceCheckCheckpoint c SET c.status = com.project.SuperC.models.PriceCheckStatus.COMPLETED, "
+            + "c.completedAt = :now, c.updatedAt = :now, c.leaseExpiresAt = NULL WHERE c.id = :id AND c.ownerNode = :ownerNode")
+    int complete(@Param("id") Long id, @Param("ownerNode") String ownerNode, @Param("now") Instant now);
+
+    /**
+     * Deletes the completed partitions of runs scheduled before the given time.
+     *
+     * @param before The cutoff time.
+     * @return The number of partitions deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PriceCheckCheckpoint c WHERE c.status = com.project.SuperC.models.PriceCheckStatus.COMPLETED "
+            + "AND c.scheduledAt < :before")
+    int deleteCompletedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,143 @@
+/**
+ * Repository for the append-only {@code price_history} table.
+ * The table is range-partitioned by month, which Hibernate cannot manage, so it is created from
+ * {@code db/price_history.sql} and written through plain JDBC batches.
+ */
+package com.project.SuperC.repository;
+
+import com.project.SuperC.models.PriceObservation;
+import com.project.SuperC.models.PriceVolatility;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+@Slf4j
+public class PriceHistoryRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO price_history (product_number, price, observed_at) VALUES (?, ?, ?)";
+
+    /**
+     * Compares every observation in the window with the previous one of the same product. The lower bound
+     * on observed_at lets Postgres prune the monthly partitions that lie entirely before the window.
+     */
+    private static final String VOLATILITY_SQL =
+            "SELECT product_number, min(observed_at) AS first_observed_at, "
+                    + "max(observed_at) FILTER (WHERE price <> previous_price) AS last_changed_at, "
+                    + "count(*) FILTER (WHERE price <> previous_price) AS changes "
+                    + "FROM (SELECT product_number, price, observed_at, "
+                    + "lag(price) OVER (PARTITION BY product_number ORDER BY observed_at) AS previous_price "
+                    + "FROM price_history WHERE product_number = ANY (?) AND observed_at >= ?) h "
+                    + "GROUP BY product_number";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Set<YearMonth> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a PriceHistoryRepository.
+     *
+     * @param jdbcTemplate The JDBC template used for all statements.
+     * @param batchSize The maximum number of rows sent to the database in one JDBC batch.
+     */
+    public PriceHistoryRepository(JdbcTemplate jdbcTemplate,
+                                  @Value("${application.price-check.history.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates the partitioned {@code price_history} table, its index and the sample count column
+     * on {@code products} if they do not exist yet.
+     */
+    public void createSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/price_history.sql"))
+                .execute(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+    }
+
+    /**
+     * Ensures the partition holding the given month exists. Months already seen by this instance
+     * are skipped without a round trip. Safe to call concurrently from several nodes.
+     *
+     * @param month The month, in UTC, whose partition is needed.
+     */
+    public void ensureMonthlyPartition(YearMonth month) {
+        if (knownPartitions.contains(month)) {
+            return;
+        }
+        String partition = String.format("price_history_%d_%02d", month.getYear(), month.getMonthValue());
+        String sql = String.format("CREATE TABLE IF NOT EXISTS %s PARTITION OF price_history FOR VALUES FROM ('%s') TO ('%s')",
+                partition, month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC), month.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC));
+        try {
+            jdbcTemplate.execute(sql);
+            log.debug("Ensured price history partition {}.", partition);
+        } catch (DataAccessException e) {
+            // IF NOT EXISTS is not race-free: a concurrent create on another node can still fail this one.
+            if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition) != Boolean.TRUE) {
+                throw e;
+            }
+        }
+        knownPartitions.add(month);
+    }
+
+    /**
+     * Appends the observations to {@code price_history} in JDBC batches.
+     * The partitions for the observation months must already exist.
+     *
+     * @param observations The observations to record.
+     */
+    public void appendAll(List<PriceObservation> observations) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, observations, batchSize, (ps, observation) -> {
+            ps.setString(1, observation.getProductNumber());
+            ps.setDouble(2, observation.getPrice());
+            ps.setTimestamp(3, Timestamp.from(observation.getObservedAt()));
+        });
+    }
+
+    /**
+     * Summarizes the price movements of the given products since the given time with a single query.
+     *
+     * @param productNumbers The products to summarize.
+     * @param since The start of the window.
+     * @return A map of product number to its summary; products without observations in the window are absent.
+     */
+    public Map<String, PriceVolatility> findVolatility(Collection<String> productNumbers, Instant since) {
+        Map<String, PriceVolatility> volatility = new HashMap<>();
+        if (productNumbers.isEmpty()) {
+            return volatility;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(VOLATILITY_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", productNumbers.toArray()));
+            statement.setTimestamp(2, Timestamp.from(since));
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            Timestamp lastChangedAt = rs.getTimestamp("last_changed_at");
+            volatility.put(rs.getString("product_number"), new PriceVolatility(
+                    rs.getString("product_number"),
+                    rs.getTimestamp("first_observed_at").toInstant(),
+                    lastChangedAt != null ? lastChangedAt.toInstant() : null,
+                    rs.getInt("changes")));
+        });
+        return volatility;
+    }
+}
@@ -5,11 +5,16 @@
  */
 package com.project.SuperC.repository;
 
+import com.project.SuperC.dto.DueTrackingRequest;
 import com.project.SuperC.models.PriceTrackingRequest;
 import com.project.SuperC.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,4 +35,36 @@ public interface PriceTrackingRequestRepository extends JpaRepository<PriceTrack
      * @return A {@link List} of {@link PriceTrackingRequest} entities associated with the specified user ID.
      */
     List<PriceTrackingRequest> findByUserId(Long userId);
+
+    /**
+     * Finds the product numbers a user is tracking.
+     *
+     * @param userId The ID of the user.
+     * @return The user's tracked product numbers.
+     */
+    @Query("SELECT r.productNumber FROM PriceTrackingRequest r WHERE r.user.id = :userId")
+    List<String> findProductNumbersByUserId(@Param("userId") Long userId);
+
+    /**
+     * Finds the next chunk of price tracking requests in one partition after the given id, in ascending id order,
+     * keeping only requests whose product is due for a check.
+     * Requests are assigned to partitions by hashing their product number, so every request for a given
+     * product falls in the same partition. Only the id and product number are selected, so no user or
+     * product entity is loaded for the chunk.
+     *
+     * @param lastId The id of the last request already processed; only requests with a greater id are returned.
+     * @param partition The partition to read, between 0 and {@code partitions - 1}.
+     * @param partitions The total number of partitions.
+     * @param now The current time; only requests whose product has no next check time or one before it are returned.
+     * @param pageable The chunk size; only the page size is used.
+     * @return A {@link List} of at most {@code pageable.getPageSize()} {@link DueTrackingRequest} rows.
+     */
+    @Query("SELECT r.id AS id, r.productNumber AS productNumber FROM PriceTrackingRequest r JOIN r.product p "
+            + "WHERE r.id > :lastId "
+            + "AND MOD(MOD(FUNCTION('hashtext', r.productNumber), :partitions) + :partitions, :partitions) = :partition "
+            + "AND (p.nextCheckAt IS NULL OR p.nextCheckAt <= :now) "
+            + "ORDER BY r.id")
+    List<DueTrackingRequest> findDuePartitionChunkAfter(@Param("lastId") Long lastId, @Param("partition") int partition,
+                                                        @Param("partitions") int partitions, @Param("now") Instant now,
+                                                        Pageable pageable);
 }
@@ -0,0 +1,45 @@
+/**
+ * Repository interface for managing {@link ProductFetchRetry} entities.
+ * This interface extends {@link JpaRepository} to provide standard CRUD operations
+ * and the queries used by the retry job to claim and clear failed fetches.
+ */
+package com.project.SuperC.repository;
+
+import com.project.SuperC.models.ProductFetchRetry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductFetchRetryRepository extends JpaRepository<ProductFetchRetry, String> {
+    /**
+     * Locks the products whose next fetch attempt is due, earliest first.
+     * Rows locked by another node's concurrent claim are skipped rather than waited on.
+     * Must be called within a transaction.
+     *
+     * @param now The current time; products whose next attempt is due before it are returned.
+     * @param limit The maximum number of products to return.
+     * @return The due retries.
+     */
+    @Query(value = "SELECT * FROM product_fetch_retries WHERE next_attempt_at <= :now "
+            + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ProductFetchRetry> findDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Deletes the retries of products that have now been fetched.
+     *
+     * @param productNumbers The product numbers fetched successfully.
+     * @return The number of retries deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProductFetchRetry r WHERE r.productNumber IN :productNumbers")
+    int deleteByProductNumberIn(@Param("productNumbers") Collection<String> productNumbers);
+}
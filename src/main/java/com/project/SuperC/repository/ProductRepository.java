@@ -1,19 +1,31 @@
 /**
  * Repository interface for managing {@link Product} entities.
  * This interface extends {@link JpaRepository} to provide standard CRUD operations
- * and custom query methods for product data.
+ * and custom query methods for product data. Bulk price writes come from {@link ProductRepositoryCustom}.
  */
 package com.project.SuperC.repository;
 
+import com.project.SuperC.dto.ProductSummary;
 import com.project.SuperC.models.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, String> {
+public interface ProductRepository extends JpaRepository<Product, String>, ProductRepositoryCustom {
+
+    /**
+     * The columns of {@link ProductSummary}, aliased to its property names.
+     */
+    String SUMMARY_COLUMNS = "product_number AS productNumber, name, image_url AS imageUrl, unit, "
+            + "current_price AS currentPrice, average_price AS averagePrice, price_per_unit AS pricePerUnit, "
+            + "validity_date AS validityDate";
+
     /**
      * Finds a product by its unique product number.
      *
@@ -23,9 +35,39 @@ public interface ProductRepository extends JpaRepository<Product, String> {
     Optional<Product> findByProductNumber(String productNumber);
 
     /**
-     * Finds a list of products whose names contain the given string, ignoring case.
-     * @param name The string to search for within product names.
-     * @return A {@link List} of {@link Product} entities whose names contain the specified string.
+     * Finds the products with the given product numbers in one query.
+     *
+     * @param productNumbers The product numbers to look up.
+     * @return The products that exist, in no particular order.
+     */
+    List<Product> findByProductNumberIn(Collection<String> productNumbers);
+
+    /**
+     * Searches product names through the trigram index created from {@code db/product_search.sql}.
+     * Matches are ranked: names starting with the term first, then by decreasing word similarity to the term,
+     * then by name and product number, so pages are stable. So that the work per query stays bounded however many
+     * products match a broad term, only the {@code candidates} most similar names starting with the term and the
+     * {@code candidates} most similar names containing it are ranked, read nearest first through the GiST trigram
+     * index. Together they always include the top {@code candidates} matches; only among names exactly as similar
+     * as the last one read does the index decide which are ranked.
+     * Only the columns of {@link ProductSummary} are selected, never the page's HTML snippet.
+     *
+     * @param term The lower-cased search term.
+     * @param containsPattern A LIKE pattern matching lower-cased names containing the term, with wildcards escaped by a backslash.
+     * @param prefixPattern A LIKE pattern matching lower-cased names starting with the term, escaped the same way.
+     * @param candidates The number of most similar names ranked, of those starting with the term and of all matches.
+     * @param offset The number of ranked products to skip.
+     * @param limit The maximum number of products to return.
+     * @return The matching products, most relevant first.
      */
-    List<Product> findByNameContainingIgnoreCase(String name);
+    @Query(value = "SELECT * FROM ("
+            + "(SELECT " + SUMMARY_COLUMNS + " FROM products WHERE lower(name) LIKE :prefixPattern ESCAPE '\\' "
+            + "ORDER BY :term <<-> lower(name) LIMIT :candidates) "
+            + "UNION (SELECT " + SUMMARY_COLUMNS + " FROM products WHERE lower(name) LIKE :containsPattern ESCAPE '\\' "
+            + "ORDER BY :term <<-> lower(name) LIMIT :candidates)) p "
+            + "ORDER BY lower(p.name) LIKE :prefixPattern ESCAPE '\\' DESC, word_similarity(:term, lower(p.name)) DESC, p.name, p.productNumber "
+            + "OFFSET :offset LIMIT :limit", nativeQuery = true)
+    List<ProductSummary> searchByName(@Param("term") String term, @Param("containsPattern") String containsPattern,
+                                      @Param("prefixPattern") String prefixPattern, @Param("candidates") int candidates,
+                                      @Param("offset") int offset, @Param("limit") int limit);
 }
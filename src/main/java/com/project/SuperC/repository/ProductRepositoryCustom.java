@@ -0,0 +1,69 @@
+/**
+ * Custom bulk operations for {@link com.project.SuperC.models.Product} rows that are
+ * too hot to go through per-entity {@code save()} calls.
+ * Implemented by {@link ProductRepositoryImpl} and exposed through {@link ProductRepository}.
+ */
+package com.project.SuperC.repository;
+
+import com.project.SuperC.dto.ProductSuggestion;
+import com.project.SuperC.dto.ProductSummary;
+import com.project.SuperC.models.PriceObservation;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Writes observed prices back to the products table with multi-row
+     * {@code UPDATE ... FROM (VALUES ...)} statements.
+     * Each product gets its current price set and the observation folded into its running average price.
+     * Product numbers that are not in the table are left out rather than created.
+     *
+     * @param observations The observations to write; at most one per product number is applied.
+     * @return The product numbers that were updated; every other product observed is unknown.
+     */
+    Set<String> updatePrices(List<PriceObservation> observations);
+
+    /**
+     * Reads the stored flyer validity date of each given product.
+     *
+     * @param productNumbers The products to read.
+     * @return A map of product number to validity date; products without one are absent.
+     */
+    Map<String, String> findValidityDates(Collection<String> productNumbers);
+
+    /**
+     * Sets when each given product is next due for a price check, in JDBC batches.
+     *
+     * @param nextCheckAt A map of product number to its next check time.
+     * @return The number of product rows updated.
+     */
+    int updateNextCheckAt(Map<String, Instant> nextCheckAt);
+
+    /**
+     * Streams the search summary of every product, without materializing the whole table at once.
+     *
+     * @param consumer Receives each product's summary.
+     */
+    void forEachSummary(Consumer<ProductSummary> consumer);
+
+    /**
+     * Reads the search summaries of the given products.
+     *
+     * @param productNumbers The products to read.
+     * @return The summaries of the products that exist, in no particular order.
+     */
+    List<ProductSummary> findSummaries(Collection<String> productNumbers);
+
+    /**
+     * Reads the number and name of every product with the number of tracking requests following it.
+     *
+     * @return One suggestion per product, in no particular order.
+     */
+    List<ProductSuggestion> findSuggestions();
+}
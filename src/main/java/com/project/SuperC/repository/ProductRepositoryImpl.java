@@ -0,0 +1,198 @@
+/**
+ * JDBC implementation of {@link ProductRepositoryCustom}.
+ * Each statement carries a whole batch of rows, so refreshing N products costs
+ * N / batch-size round trips rather than one per product.
+ */
+package com.project.SuperC.repository;
+
+import com.project.SuperC.dto.ProductSuggestion;
+import com.project.SuperC.dto.ProductSummary;
+import com.project.SuperC.dto.ProductSummaryRow;
+import com.project.SuperC.models.PriceObservation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    /**
+     * Postgres caps a statement at 65535 bind parameters.
+     */
+    private static final int MAX_BIND_PARAMETERS = 65535;
+    private static final int PARAMETERS_PER_ROW = 2;
+
+    /**
+     * The number of observations already folded into a product's average. Products whose average was
+     * populated before sampling began have a count of zero; their existing average counts as one sample.
+     */
+    private static final String SAMPLES =
+            "GREATEST(products.price_sample_count, CASE WHEN products.average_price IS NULL THEN 0 ELSE 1 END)";
+
+    private static final String UPDATE_PREFIX =
+            "UPDATE products SET current_price = v.price, "
+                    + "average_price = (COALESCE(products.average_price, 0) * " + SAMPLES + " + v.price) / (" + SAMPLES + " + 1), "
+                    + "price_sample_count = " + SAMPLES + " + 1 "
+                    + "FROM (VALUES ";
+    private static final String ROW = "(?, CAST(? AS double precision))";
+
+    /**
+     * Joins the rows on the existing products only, so observations of unknown product numbers update nothing
+     * and are missing from the returned product numbers.
+     */
+    private static final String UPDATE_SUFFIX =
+            ") AS v (product_number, price) WHERE products.product_number = v.product_number RETURNING products.product_number";
+
+    private static final String VALIDITY_DATES_SQL =
+            "SELECT product_number, validity_date FROM products WHERE product_number = ANY (?) AND validity_date IS NOT NULL";
+
+    private static final String NEXT_CHECK_SQL = "UPDATE products SET next_check_at = ? WHERE product_number = ?";
+
+    private static final String SUMMARY_COLUMNS =
+            "SELECT product_number, name, image_url, unit, current_price, average_price, price_per_unit, validity_date FROM products";
+
+    private static final int SUMMARY_FETCH_SIZE = 5000;
+
+    private static final String SUGGESTIONS_SQL =
+            "SELECT p.product_number, p.name, COALESCE(t.trackers, 0) AS trackers FROM products p "
+                    + "LEFT JOIN (SELECT product_number, count(*) AS trackers FROM price_tracking_requests GROUP BY product_number) t "
+                    + "ON t.product_number = p.product_number";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final String fullBatchSql;
+
+    /**
+     * Constructs a ProductRepositoryImpl.
+     *
+     * @param jdbcTemplate The JDBC template used for the bulk statements.
+     * @param batchSize The number of rows written per statement.
+     */
+    public ProductRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                 @Value("${application.price-check.upsert.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BIND_PARAMETERS / PARAMETERS_PER_ROW));
+        this.fullBatchSql = updateSql(this.batchSize);
+    }
+
+    @Override
+    public Set<String> updatePrices(List<PriceObservation> observations) {
+        // A single statement may not update the same row twice, so keep the latest observation per product.
+        Map<String, PriceObservation> latest = new LinkedHashMap<>();
+        for (PriceObservation observation : observations) {
+            latest.merge(observation.getProductNumber(), observation,
+                    (a, b) -> b.getObservedAt().isBefore(a.getObservedAt()) ? a : b);
+        }
+        List<PriceObservation> rows = new ArrayList<>(latest.values());
+
+        Set<String> updated = new HashSet<>();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<PriceObservation> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            Object[] parameters = new Object[batch.size() * PARAMETERS_PER_ROW];
+            int p = 0;
+            for (PriceObservation observation : batch) {
+                parameters[p++] = observation.getProductNumber();
+                parameters[p++] = observation.getPrice();
+            }
+            String sql = batch.size() == batchSize ? fullBatchSql : updateSql(batch.size());
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> updated.add(rs.getString("product_number")), parameters);
+        }
+        return updated;
+    }
+
+    @Override
+    public Map<String, String> findValidityDates(Collection<String> productNumbers) {
+        Map<String, String> validityDates = new HashMap<>();
+        if (productNumbers.isEmpty()) {
+            return validityDates;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(VALIDITY_DATES_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", productNumbers.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> validityDates.put(rs.getString("product_number"), rs.getString("validity_date")));
+        return validityDates;
+    }
+
+    @Override
+    public int updateNextCheckAt(Map<String, Instant> nextCheckAt) {
+        int[][] counts = jdbcTemplate.batchUpdate(NEXT_CHECK_SQL, new ArrayList<>(nextCheckAt.entrySet()), batchSize, (ps, entry) -> {
+            ps.setTimestamp(1, Timestamp.from(entry.getValue()));
+            ps.setString(2, entry.getKey());
+        });
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                updated += Math.max(count, 0);
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public void forEachSummary(Consumer<ProductSummary> consumer) {
+        // A fetch size only streams inside a transaction; autocommit would make the driver read every row first.
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(SUMMARY_COLUMNS)) {
+                statement.setFetchSize(SUMMARY_FETCH_SIZE);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(toSummary(rs));
+                    }
+                }
+                connection.commit();
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<ProductSummary> findSummaries(Collection<String> productNumbers) {
+        List<ProductSummary> summaries = new ArrayList<>();
+        if (productNumbers.isEmpty()) {
+            return summaries;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SUMMARY_COLUMNS + " WHERE product_number = ANY (?)");
+            statement.setArray(1, connection.createArrayOf("varchar", productNumbers.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> summaries.add(toSummary(rs)));
+        return summaries;
+    }
+
+    @Override
+    public List<ProductSuggestion> findSuggestions() {
+        return jdbcTemplate.query(SUGGESTIONS_SQL, (rs, row) ->
+                new ProductSuggestion(rs.getString("product_number"), rs.getString("name"), rs.getLong("trackers")));
+    }
+
+    private static ProductSummary toSummary(ResultSet rs) throws SQLException {
+        return new ProductSummaryRow(rs.getString("product_number"), rs.getString("name"), rs.getString("image_url"),
+                rs.getString("unit"), rs.getObject("current_price", Double.class), rs.getObject("average_price", Double.class),
+                rs.getString("price_per_unit"), rs.getString("validity_date"));
+    }
+
+    private static String updateSql(int rows) {
+        return UPDATE_PREFIX + String.join(", ", Collections.nCopies(rows, ROW)) + UPDATE_SUFFIX;
+    }
+}
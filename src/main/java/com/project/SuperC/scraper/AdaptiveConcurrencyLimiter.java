@@ -0,0 +1,140 @@
+/**
+ * A blocking concurrency limiter whose limit adapts to how the server is coping, using additive
+ * increase / multiplicative decrease (AIMD), the scheme TCP uses for its congestion window.
+ * Every request that completes within the latency threshold raises the limit by {@code 1 / limit},
+ * so the limit grows by about one per round of requests. A slow request, or one the server
+ * dropped or refused, cuts the limit by the backoff ratio. Cuts are spaced at least one latency
+ * threshold apart, so a burst of failures from one overloaded moment only backs off once.
+ * Waiting callers park on a {@link Condition} of a {@link ReentrantLock}, so virtual threads are never pinned.
+ */
+package com.project.SuperC.scraper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    /**
+     * Creates a limiter.
+     *
+     * @param initialLimit The number of concurrent requests allowed before any feedback has been received.
+     * @param minLimit The lowest the limit may fall to.
+     * @param maxLimit The highest the limit may grow to.
+     * @param latencyThresholdMillis The latency above which a request counts as a sign of overload.
+     * @param backoffRatio The factor, between 0 and 1, the limit is multiplied by on overload.
+     * @throws IllegalArgumentException if the limits are inconsistent or the ratio is out of range.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMillis, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit.");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1.");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+        this.lastDecreaseNanos = System.nanoTime() - latencyThresholdNanos;
+    }
+
+    /**
+     * Takes a slot, blocking while the number of requests in flight is at the current limit.
+     * Every successful call must be followed by exactly one call to {@link #onSuccess}, {@link #onOverload} or {@link #onIgnore}.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                slotFreed.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a slot after a request that the server answered, growing the limit if it answered quickly
+     * and shrinking it if the answer was slower than the latency threshold.
+     *
+     * @param latencyNanos How long the request took.
+     */
+    public void onSuccess(long latencyNanos) {
+        if (latencyNanos > latencyThresholdNanos) {
+            onOverload();
+            return;
+        }
+        lock.lock();
+        try {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a slot after a request that timed out or that the server dropped, refused or rejected
+     * as overloaded, shrinking the limit.
+     */
+    public void onOverload() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos >= latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a slot without adjusting the limit, for requests that say nothing about the server's health.
+     */
+    public void onIgnore() {
+        lock.lock();
+        try {
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current limit, rounded down to the number of requests actually allowed in flight.
+     *
+     * @return The current concurrency limit.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        inFlight--;
+        slotFreed.signalAll();
+    }
+}
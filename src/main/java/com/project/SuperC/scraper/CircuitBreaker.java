@@ -0,0 +1,150 @@
+/**
+ * A circuit breaker that stops requests to a server that keeps failing.
+ * While CLOSED, requests flow and consecutive failures are counted; once they reach the threshold the
+ * breaker OPENS and rejects every request for the open duration. After that a single probe request is
+ * let through (HALF_OPEN): if it succeeds the breaker closes, and if it fails the breaker opens again.
+ * Every admitted request carries a {@link Permit} stamped with the breaker's generation, which changes on each
+ * transition; outcomes of requests admitted before the breaker last changed state are ignored, so a slow request
+ * that started while the breaker was closed cannot close it again once it has opened.
+ * Instances are thread-safe so they can be shared by concurrent fetch tasks.
+ */
+package com.project.SuperC.scraper;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+@Slf4j
+public class CircuitBreaker {
+
+    /**
+     * The state of a circuit breaker.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN,
+    }
+
+    /**
+     * Admission to make one request, to be handed back with the request's outcome.
+     *
+     * @param generation The breaker generation the request was admitted in.
+     * @param probe Whether the request is the half-open probe.
+     */
+    public record Permit(long generation, boolean probe) {
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    /**
+     * Creates a circuit breaker.
+     *
+     * @param name The name used in log messages, such as the host it protects.
+     * @param failureThreshold The number of consecutive failures that opens the breaker.
+     * @param openDuration How long the breaker stays open before letting a probe request through.
+     * @throws IllegalArgumentException if the threshold is not positive.
+     */
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold must be positive.");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Asks whether a request may be made now. A caller that is allowed through must hand the permit back
+     * with {@link #onSuccess(Permit)}, {@link #onFailure(Permit)} or {@link #onIgnore(Permit)}.
+     *
+     * @return The permit for the request, or null if the breaker is rejecting requests.
+     */
+    public synchronized Permit tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return new Permit(generation, false);
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos < openNanos) {
+                    return null;
+                }
+                transitionTo(State.HALF_OPEN);
+                log.info("Circuit breaker for {} is half-open; sending a probe request.", name);
+                probeInFlight = true;
+                return new Permit(generation, true);
+            default:
+                if (probeInFlight) {
+                    return null;
+                }
+                probeInFlight = true;
+                return new Permit(generation, true);
+        }
+    }
+
+    /**
+     * Records a successful request. The probe closes the breaker; any other request only resets the failure count,
+     * and only if the breaker has stayed closed since it was admitted.
+     *
+     * @param permit The permit the request was admitted with.
+     */
+    public synchronized void onSuccess(Permit permit) {
+        if (permit.generation() != generation) {
+            return;
+        }
+        if (permit.probe()) {
+            log.info("Circuit breaker for {} closed after a successful probe.", name);
+            transitionTo(State.CLOSED);
+            probeInFlight = false;
+        }
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Records a failed request, opening the breaker if the failure threshold is reached or the probe failed.
+     * Failures of requests admitted before the breaker last changed state are ignored.
+     *
+     * @param permit The permit the request was admitted with.
+     */
+    public synchronized void onFailure(Permit permit) {
+        if (permit.generation() != generation) {
+            return;
+        }
+        consecutiveFailures++;
+        if (permit.probe() || consecutiveFailures >= failureThreshold) {
+            log.warn("Circuit breaker for {} opened after {} consecutive failures; pausing requests for {} s.",
+                    name, consecutiveFailures, Duration.ofNanos(openNanos).toSeconds());
+            transitionTo(State.OPEN);
+            openedAtNanos = System.nanoTime();
+            probeInFlight = false;
+        }
+    }
+
+    /**
+     * Hands back a permit whose request ended without saying anything about the server, such as one cut short by
+     * an unexpected error. Nothing is counted; an ignored probe lets the next request probe instead.
+     *
+     * @param permit The permit the request was admitted with.
+     */
+    public synchronized void onIgnore(Permit permit) {
+        if (permit.probe() && permit.generation() == generation) {
+            probeInFlight = false;
+        }
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        generation++;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
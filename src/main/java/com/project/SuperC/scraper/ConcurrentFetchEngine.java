@@ -0,0 +1,252 @@
+/**
+ * Concurrent, rate-limited fetch engine used by the daily price check.
+ * Each product page is fetched on its own virtual thread. Per host, a token bucket local to this
+ * instance keeps the request rate polite, an {@link AdaptiveConcurrencyLimiter} grows the number of
+ * requests in flight while the site answers quickly and backs off when it slows down or errors, and a
+ * {@link CircuitBreaker} stops requests altogether while the site keeps failing. The limiters and breakers live as long as the
+ * engine, so what was learned about the site carries over from one run to the next.
+ * Cache entries for all pages in a run are loaded and saved in bulk around the fetches, so the
+ * scraper can send conditional requests without a database round trip per product.
+ * Every run logs its throughput, latency percentiles and cache effectiveness, and every fetch is
+ * recorded in the {@link PriceCheckMetrics}.
+ */
+package com.project.SuperC.scraper;
+
+import com.project.SuperC.metrics.PriceCheckMetrics;
+import com.project.SuperC.models.CachedProductPage;
+import com.project.SuperC.repository.CachedProductPageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.HttpStatusException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ConcurrentFetchEngine {
+
+    private final SuperCProductScraper scraper;
+    private final CachedProductPageRepository cachedProductPageRepository;
+    private final PriceCheckMetrics metrics;
+    private final int maxInFlight;
+    private final int initialInFlight;
+    private final long latencyThresholdMillis;
+    private final double backoffRatio;
+    private final double permitsPerSecond;
+    private final int burst;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Map<String, HostControls> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a ConcurrentFetchEngine.
+     *
+     * @param scraper The scraper used to fetch and parse individual pages.
+     * @param cachedProductPageRepository The repository storing validators and parsed results of previously fetched pages.
+     * @param metrics The meters recording every fetch's latency and outcome.
+     * @param maxInFlight The maximum number of requests allowed in flight per host, however well the site is doing.
+     * @param initialInFlight The number of requests allowed in flight per host before the limit has adapted.
+     * @param latencyThresholdMillis The response time above which the site is considered to be slowing down.
+     * @param backoffRatio The factor the concurrency limit is multiplied by when the site slows down or errors.
+     * @param permitsPerSecond The sustained request rate allowed per host by this instance. The limiter is not shared,
+     *                         so N instances running price checks together send up to N times this rate; divide the
+     *                         site's budget by the number of instances when setting it.
+     * @param burst The number of requests allowed back to back per host by this instance before throttling kicks in.
+     * @param failureThreshold The number of consecutive failed requests to a host that opens its circuit breaker.
+     * @param openSeconds How long an open circuit breaker pauses requests before probing the host again.
+     */
+    public ConcurrentFetchEngine(SuperCProductScraper scraper,
+                                 CachedProductPageRepository cachedProductPageRepository,
+                                 PriceCheckMetrics metrics,
+                                 @Value("${application.price-check.fetch.max-in-flight:8}") int maxInFlight,
+                                 @Value("${application.price-check.fetch.adaptive.initial-in-flight:2}") int initialInFlight,
+                                 @Value("${application.price-check.fetch.adaptive.latency-threshold-millis:2000}") long latencyThresholdMillis,
+                                 @Value("${application.price-check.fetch.adaptive.backoff-ratio:0.5}") double backoffRatio,
+                                 @Value("${application.price-check.fetch.rate-limit.permits-per-second:4}") double permitsPerSecond,
+                                 @Value("${application.price-check.fetch.rate-limit.burst:4}") int burst,
+                                 @Value("${application.price-check.fetch.circuit-breaker.failure-threshold:10}") int failureThreshold,
+                                 @Value("${application.price-check.fetch.circuit-breaker.open-seconds:60}") long openSeconds) {
+        this.scraper = scraper;
+        this.cachedProductPageRepository = cachedProductPageRepository;
+        this.metrics = metrics;
+        this.maxInFlight = maxInFlight;
+        this.initialInFlight = Math.min(initialInFlight, maxInFlight);
+        this.latencyThresholdMillis = latencyThresholdMillis;
+        this.backoffRatio = backoffRatio;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = Duration.ofSeconds(openSeconds);
+    }
+
+    /**
+     * Fetches and parses the pages for the given product numbers concurrently.
+     * Products whose fetch fails, or that are skipped because the site's circuit breaker is open,
+     * are reported separately so they can be retried later.
+     *
+     * @param productNumbers The distinct product numbers to fetch.
+     * @param proceed Checked before each request; once false, the pages not yet fetched are skipped without being
+     *                reported as failures, so the caller can stop a batch it no longer owns.
+     * @return The scraped products of the fetched pages, in the iteration order of the input, and the failures.
+     */
+    public FetchBatchResult fetchAll(Collection<String> productNumbers, BooleanSupplier proceed) {
+        FetchRunStats stats = new FetchRunStats();
+        Map<String, CachedProductPage> cachedPages = loadCachedPages(productNumbers);
+        Map<String, String> failures = new ConcurrentHashMap<>();
+        Map<String, Future<PageFetchResult>> futures = new LinkedHashMap<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String productNumber : productNumbers) {
+                CachedProductPage cached = cachedPages.get(scraper.searchUrl(productNumber));
+                futures.put(productNumber, executor.submit(() -> fetchOne(productNumber, cached, proceed, stats, failures)));
+            }
+        }
+
+        Map<String, List<ScrapedProduct>> results = new LinkedHashMap<>();
+        List<CachedProductPage> pagesToSave = new ArrayList<>();
+        futures.forEach((productNumber, future) -> {
+            try {
+                PageFetchResult result = future.get();
+                if (result.getOutcome() != FetchOutcome.FAILED && result.getOutcome() != FetchOutcome.SKIPPED) {
+                    results.put(productNumber, result.getProducts());
+                }
+                if (result.getCachedPage() != null) {
+                    pagesToSave.add(result.getCachedPage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.put(productNumber, "Interrupted");
+            } catch (ExecutionException e) {
+                log.error("Unexpected error fetching product number {}: {}", productNumber, e.getCause().getMessage(), e.getCause());
+                failures.put(productNumber, String.valueOf(e.getCause().getMessage()));
+            }
+        });
+        cachedProductPageRepository.upsertPages(pagesToSave);
+
+        stats.finish();
+        log.info("Fetch run finished: {}", stats.summary());
+        return new FetchBatchResult(results, failures);
+    }
+
+    /**
+     * Loads the cache entries for every page in the run with a single query.
+     *
+     * @param productNumbers The product numbers about to be fetched.
+     * @return A map of page URL to its cache entry; pages never fetched before are absent.
+     */
+    private Map<String, CachedProductPage> loadCachedPages(Collection<String> productNumbers) {
+        List<String> urls = productNumbers.stream().map(scraper::searchUrl).collect(Collectors.toList());
+        return cachedProductPageRepository.findAllById(urls).stream()
+                .collect(Collectors.toMap(CachedProductPage::getUrl, Function.identity()));
+    }
+
+    /**
+     * Fetches a single product page once the host's concurrency limiter, rate limiter and circuit breaker allow it, in that order,
+     * and feeds the outcome back to the breaker and the concurrency limiter.
+     * Timeouts, connection errors, 429 Too Many Requests and 5xx responses count as signs of overload; other
+     * HTTP errors concern the page rather than the site, so they fail the page without backing off.
+     *
+     * @param productNumber The product number to fetch.
+     * @param cached The cache entry from the previous fetch of this page, or null if there is none.
+     * @param proceed Checked once a concurrency slot is free; when false, the page is skipped.
+     * @param stats The statistics collector for this run.
+     * @param failures Collects the reason for every page that could not be fetched.
+     * @return The fetch result; a failed or skipped fetch yields an empty product list and no cache entry.
+     * @throws InterruptedException if the task is interrupted while waiting for a slot or permit.
+     */
+    private PageFetchResult fetchOne(String productNumber, CachedProductPage cached, BooleanSupplier proceed,
+                                     FetchRunStats stats, Map<String, String> failures) throws InterruptedException {
+        String url = scraper.searchUrl(productNumber);
+        HostControls host = controlsFor(url);
+        host.concurrencyLimiter().acquire();
+        if (!proceed.getAsBoolean()) {
+            host.concurrencyLimiter().onIgnore();
+            return new PageFetchResult(new ArrayList<>(), FetchOutcome.SKIPPED, null, 0);
+        }
+        try {
+            // The token is taken once a slot is free, so a permit granted while every slot was busy is not
+            // spent on a request that then waits, and freed slots do not release a burst of stale permits.
+            host.rateLimiter().acquire();
+        } catch (InterruptedException e) {
+            host.concurrencyLimiter().onIgnore();
+            throw e;
+        }
+        // The breaker is consulted last, right before the request, so tasks that queued up while the site
+        // was failing see it open instead of all going ahead.
+        CircuitBreaker.Permit permit = host.circuitBreaker().tryAcquire();
+        if (permit == null) {
+            host.concurrencyLimiter().onIgnore();
+            stats.record(0, FetchOutcome.SKIPPED, 0);
+            metrics.recordFetch(FetchOutcome.SKIPPED, 0);
+            failures.put(productNumber, "Circuit breaker open for " + URI.create(url).getHost());
+            return new PageFetchResult(new ArrayList<>(), FetchOutcome.SKIPPED, null, 0);
+        }
+
+        long start = System.nanoTime();
+        try {
+            PageFetchResult result = scraper.fetch(productNumber, cached);
+            long latency = System.nanoTime() - start;
+            stats.record(latency, result.getOutcome(), result.getBytesDownloaded());
+            metrics.recordFetch(result.getOutcome(), latency);
+            host.concurrencyLimiter().onSuccess(latency);
+            host.circuitBreaker().onSuccess(permit);
+            return result;
+        } catch (IOException e) {
+            long latency = System.nanoTime() - start;
+            stats.record(latency, FetchOutcome.FAILED, 0);
+            metrics.recordFetch(FetchOutcome.FAILED, latency);
+            failures.put(productNumber, String.valueOf(e.getMessage()));
+            if (e instanceof HttpStatusException status && status.getStatusCode() != 429 && status.getStatusCode() < 500) {
+                host.concurrencyLimiter().onSuccess(latency);
+                host.circuitBreaker().onSuccess(permit);
+            } else {
+                host.concurrencyLimiter().onOverload();
+                host.circuitBreaker().onFailure(permit);
+            }
+            log.warn("Error fetching prices for product number {} from URL {}: {}", productNumber, url, e.getMessage());
+            return new PageFetchResult(new ArrayList<>(), FetchOutcome.FAILED, null, 0);
+        } catch (RuntimeException | Error e) {
+            host.concurrencyLimiter().onIgnore();
+            host.circuitBreaker().onIgnore(permit);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the rate limiter, concurrency limiter and circuit breaker for the host of the given URL, creating them on first use.
+     *
+     * @param url The URL about to be fetched.
+     * @return The shared {@link HostControls} for that host.
+     */
+    private HostControls controlsFor(String url) {
+        String host = URI.create(url).getHost();
+        return hosts.computeIfAbsent(host, h -> new HostControls(
+                new TokenBucketRateLimiter(permitsPerSecond, burst),
+                new AdaptiveConcurrencyLimiter(initialInFlight, 1, maxInFlight, latencyThresholdMillis, backoffRatio),
+                new CircuitBreaker(h, failureThreshold, openDuration)));
+    }
+
+    /**
+     * The limiters and circuit breaker shared by all requests to one host.
+     */
+    private record HostControls(TokenBucketRateLimiter rateLimiter,
+                                AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                CircuitBreaker circuitBreaker) {
+    }
+}
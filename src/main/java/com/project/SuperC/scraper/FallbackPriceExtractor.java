@@ -0,0 +1,53 @@
+/**
+ * The {@link PriceExtractor} used by the scraper. It runs the extractor selected by
+ * {@code application.price-check.extractor} ({@code streaming} by default, or {@code jsoup}),
+ * and when the streaming extractor cannot handle a page, for example because it is not UTF-8
+ * encoded, re-extracts the page with the Jsoup DOM so no page is lost to the faster path.
+ */
+package com.project.SuperC.scraper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Primary
+@Slf4j
+public class FallbackPriceExtractor implements PriceExtractor {
+
+    private final StreamingPriceExtractor streamingExtractor;
+    private final JsoupPriceExtractor jsoupExtractor;
+    private final boolean streamingEnabled;
+
+    /**
+     * Constructs a FallbackPriceExtractor.
+     *
+     * @param streamingExtractor The single-pass extractor tried first when enabled.
+     * @param jsoupExtractor The DOM-based extractor used when streaming is disabled or fails.
+     * @param extractor The extractor to use: {@code streaming} or {@code jsoup}.
+     */
+    public FallbackPriceExtractor(StreamingPriceExtractor streamingExtractor,
+                                  JsoupPriceExtractor jsoupExtractor,
+                                  @Value("${application.price-check.extractor:streaming}") String extractor) {
+        this.streamingExtractor = streamingExtractor;
+        this.jsoupExtractor = jsoupExtractor;
+        this.streamingEnabled = !"jsoup".equalsIgnoreCase(extractor);
+        log.info("Price extractor: {}", streamingEnabled ? "streaming with jsoup fallback" : "jsoup");
+    }
+
+    @Override
+    public List<ScrapedProduct> extract(byte[] body, String charset, String url) {
+        if (!streamingEnabled) {
+            return jsoupExtractor.extract(body, charset, url);
+        }
+        try {
+            return streamingExtractor.extract(body, charset, url);
+        } catch (RuntimeException e) {
+            log.warn("Streaming extraction failed for URL {} ({}); falling back to jsoup.", url, e.toString());
+            return jsoupExtractor.extract(body, charset, url);
+        }
+    }
+}
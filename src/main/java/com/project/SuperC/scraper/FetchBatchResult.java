@@ -0,0 +1,28 @@
+/**
+ * The result of fetching a batch of product pages through the {@link ConcurrentFetchEngine}.
+ * Successfully fetched pages and failed ones are kept apart, so callers can record prices for
+ * the former and schedule the latter for another attempt.
+ */
+package com.project.SuperC.scraper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class FetchBatchResult {
+
+    /**
+     * The scraped products of every page that was fetched, keyed by product number. A page with no
+     * results maps to an empty list.
+     */
+    private Map<String, List<ScrapedProduct>> products;
+
+    /**
+     * The reason each failed or skipped page could not be fetched, keyed by product number.
+     */
+    private Map<String, String> failures;
+}
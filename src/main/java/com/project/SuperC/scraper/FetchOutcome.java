@@ -0,0 +1,27 @@
+package com.project.SuperC.scraper;
+
+/**
+ * The outcome of fetching a single product page.
+ */
+public enum FetchOutcome {
+    /**
+     * The page was downloaded and parsed.
+     */
+    PARSED,
+    /**
+     * The server answered 304 Not Modified; the cached products were reused.
+     */
+    NOT_MODIFIED,
+    /**
+     * The page was downloaded but its body was identical to the cached one; parsing was skipped.
+     */
+    UNCHANGED,
+    /**
+     * The page could not be fetched.
+     */
+    FAILED,
+    /**
+     * The page was not requested because the host's circuit breaker was open.
+     */
+    SKIPPED,
+}
@@ -0,0 +1,109 @@
+/**
+ * Collects per-fetch latencies and outcomes for a single scraping run
+ * and summarizes them as throughput, latency percentiles, bytes downloaded
+ * and how many pages were served from the conditional-request cache.
+ * Instances are thread-safe so they can be shared by concurrent fetch tasks.
+ */
+package com.project.SuperC.scraper;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class FetchRunStats {
+
+    private final long startNanos = System.nanoTime();
+    private final Map<FetchOutcome, Integer> outcomes = new EnumMap<>(FetchOutcome.class);
+
+    private long[] latencies = new long[64];
+    private int count;
+    private long bytesDownloaded;
+    private long endNanos;
+
+    /**
+     * Records one completed fetch.
+     *
+     * @param latencyNanos The wall-clock duration of the fetch in nanoseconds.
+     * @param outcome How the fetch was resolved.
+     * @param bytes The number of response body bytes downloaded.
+     */
+    public synchronized void record(long latencyNanos, FetchOutcome outcome, long bytes) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        outcomes.merge(outcome, 1, Integer::sum);
+        bytesDownloaded += bytes;
+    }
+
+    /**
+     * Marks the end of the run. The wall time reported by {@link #summary()} is measured up to this call.
+     */
+    public synchronized void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized int getOutcomeCount(FetchOutcome outcome) {
+        return outcomes.getOrDefault(outcome, 0);
+    }
+
+    public synchronized long getBytesDownloaded() {
+        return bytesDownloaded;
+    }
+
+    /**
+     * Returns the latency at the given percentile using the nearest-rank method.
+     *
+     * @param percentile A value between 0 and 100.
+     * @return The latency in milliseconds, or 0 if nothing has been recorded.
+     */
+    public synchronized double latencyPercentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        int index = Math.min(Math.max(rank, 1), count) - 1;
+        return sorted[index] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Returns the run's wall time in milliseconds.
+     *
+     * @return The elapsed time between construction and {@link #finish()}, or until now if not finished.
+     */
+    public synchronized double wallTimeMillis() {
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        return (end - startNanos) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Returns the number of completed fetches per second of wall time.
+     *
+     * @return The run throughput in requests per second.
+     */
+    public synchronized double throughputPerSecond() {
+        double seconds = wallTimeMillis() / 1000.0;
+        return seconds > 0 ? count / seconds : 0;
+    }
+
+    /**
+     * Builds a one-line, human-readable summary of the run.
+     *
+     * @return The formatted summary.
+     */
+    public synchronized String summary() {
+        return String.format("%d fetches (%d parsed, %d not modified, %d unchanged, %d failed, %d skipped, %d KiB downloaded) in %.0f ms, %.2f req/s, "
+                        + "latency p50=%.0f ms p90=%.0f ms p99=%.0f ms max=%.0f ms",
+                count, getOutcomeCount(FetchOutcome.PARSED), getOutcomeCount(FetchOutcome.NOT_MODIFIED),
+                getOutcomeCount(FetchOutcome.UNCHANGED), getOutcomeCount(FetchOutcome.FAILED), getOutcomeCount(FetchOutcome.SKIPPED), bytesDownloaded / 1024,
+                wallTimeMillis(), throughputPerSecond(),
+                latencyPercentileMillis(50), latencyPercentileMillis(90), latencyPercentileMillis(99), latencyPercentileMillis(100));
+    }
+}
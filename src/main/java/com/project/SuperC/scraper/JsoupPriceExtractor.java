@@ -0,0 +1,73 @@
+/**
+ * {@link PriceExtractor} that builds a full Jsoup DOM and queries it with CSS selectors.
+ * This is the original extraction path. It copes with any charset and any markup Jsoup can parse,
+ * which makes it the fallback when the streaming extractor cannot handle a page.
+ */
+package com.project.SuperC.scraper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+@Slf4j
+public class JsoupPriceExtractor implements PriceExtractor {
+
+    private static final Pattern PRICE_PATTERN = Pattern.compile("(\\d+\\.\\d{2})");
+
+    @Override
+    public List<ScrapedProduct> extract(byte[] body, String charset, String url) {
+        Document document;
+        try {
+            document = Jsoup.parse(new ByteArrayInputStream(body), charset, url);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<ScrapedProduct> scraped = new ArrayList<>();
+        Elements products = document.select(".pt__content");
+
+        if (products.isEmpty()) {
+            log.warn("No products found at URL: {}", url);
+            return scraped;
+        }
+
+        for (Element product : products) {
+            String title = product.select(".head__title").text();
+            double currentProductPrice = 0.0;
+            Element priceElement = product.selectFirst(".pricing__sale-price");
+
+            if (priceElement != null) {
+                String fullPriceText = priceElement.text().trim();
+                Matcher matcher = PRICE_PATTERN.matcher(fullPriceText);
+
+                if (matcher.find()) {
+                    String numericalPriceString = matcher.group(1);
+                    try {
+                        currentProductPrice = Double.parseDouble(numericalPriceString);
+                    } catch (NumberFormatException e) {
+                        log.error("Could not parse extracted price: '{}' for product: '{}' from URL: {}", numericalPriceString, title, url, e);
+                    }
+                } else {
+                    log.warn("No numerical price found in: '{}' for product: '{}' from URL: {}", fullPriceText, title, url);
+                }
+            } else {
+                log.warn("Price element not found for product: '{}' at URL: {}", title, url);
+            }
+
+            scraped.add(new ScrapedProduct(title, currentProductPrice));
+        }
+        return scraped;
+    }
+}
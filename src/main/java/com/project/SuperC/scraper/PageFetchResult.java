@@ -0,0 +1,30 @@
+/**
+ * The result of fetching a single product page through the conditional fetch layer.
+ * Carries the scraped products along with the cache entry to persist for the next run.
+ */
+package com.project.SuperC.scraper;
+
+import com.project.SuperC.models.CachedProductPage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PageFetchResult {
+
+    private List<ScrapedProduct> products;
+
+    private FetchOutcome outcome;
+
+    /**
+     * The cache entry reflecting this fetch, or null if the fetch failed.
+     */
+    private CachedProductPage cachedPage;
+
+    /**
+     * The number of response body bytes downloaded.
+     */
+    private long bytesDownloaded;
+}
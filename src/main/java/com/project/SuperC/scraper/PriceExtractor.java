@@ -0,0 +1,21 @@
+/**
+ * Extracts product tiles and their sale prices from a Super C search results page.
+ * Implementations must be thread-safe, as a single instance is shared by all concurrent fetches.
+ */
+package com.project.SuperC.scraper;
+
+import java.util.List;
+
+public interface PriceExtractor {
+
+    /**
+     * Extracts every product tile ({@code .pt__content}) on the page, with its title ({@code .head__title})
+     * and the first sale price ({@code .pricing__sale-price}) found in it.
+     *
+     * @param body The raw response body.
+     * @param charset The charset declared by the response, or null if none was declared.
+     * @param url The page URL, used for resolving and logging.
+     * @return The products found on the page, in document order; empty if there are none.
+     */
+    List<ScrapedProduct> extract(byte[] body, String charset, String url);
+}
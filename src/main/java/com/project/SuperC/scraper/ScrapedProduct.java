@@ -0,0 +1,26 @@
+/**
+ * Represents a single product tile scraped from a Super C search results page.
+ * A search for one product number can return more than one tile, so the scraper
+ * produces a list of these per fetched page.
+ */
+package com.project.SuperC.scraper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScrapedProduct {
+
+    /**
+     * The product title as displayed on the page.
+     */
+    private String title;
+
+    /**
+     * The current sale price, or 0.0 if no price could be extracted.
+     */
+    private double price;
+}
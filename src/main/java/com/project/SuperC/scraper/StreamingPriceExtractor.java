@@ -0,0 +1,675 @@
+/**
+ * {@link PriceExtractor} that scans the raw response bytes in a single forward pass
+ * instead of building a DOM. It tracks only a stack of open tag offsets and copies out
+ * just the characters of the title and sale-price elements, so a page costs a handful
+ * of small allocations rather than a full node tree.
+ *
+ * <p>The scanner follows the same matching rules as the Jsoup selectors it replaces
+ * ({@code .pt__content}, {@code .head__title}, {@code .pricing__sale-price}) and normalizes
+ * text the way {@code Element.text()} does. It understands UTF-8 only; pages declared in any
+ * other charset, by the response or, failing that, by a byte order mark or {@code <meta>} charset near
+ * the top of the page, are rejected with an {@link UnsupportedCharsetException}, and tiles or titles nested
+ * inside one another, which a selector would match twice, with an {@link IllegalStateException},
+ * so the caller can fall back to {@link JsoupPriceExtractor}.</p>
+ */
+package com.project.SuperC.scraper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Component
+@Slf4j
+public class StreamingPriceExtractor implements PriceExtractor {
+
+    private static final byte[] PRODUCT_CLASS = ascii("pt__content");
+    private static final byte[] TITLE_CLASS = ascii("head__title");
+    private static final byte[] PRICE_CLASS = ascii("pricing__sale-price");
+    private static final byte[] CLASS_ATTRIBUTE = ascii("class");
+    private static final byte[] BR = ascii("br");
+    private static final byte[] META = ascii("meta");
+    private static final byte[] CHARSET = ascii("charset");
+
+    /**
+     * How much of a page without a declared charset is searched for a {@code <meta>} charset, as much as Jsoup reads
+     * before it picks a charset itself.
+     */
+    private static final int CHARSET_SNIFF_BYTES = 5 * 1024;
+
+    private static final byte[][] VOID_ELEMENTS = asciiAll(
+            "area", "base", "br", "col", "embed", "hr", "img", "input", "link", "meta", "param", "source", "track", "wbr");
+    private static final byte[][] RAW_TEXT_ELEMENTS = asciiAll("script", "style", "textarea", "title");
+    private static final byte[][] BLOCK_ELEMENTS = asciiAll(
+            "address", "article", "aside", "blockquote", "body", "dd", "details", "div", "dl", "dt", "fieldset",
+            "figcaption", "figure", "footer", "form", "h1", "h2", "h3", "h4", "h5", "h6", "head", "header", "hgroup",
+            "hr", "html", "li", "main", "nav", "ol", "p", "pre", "section", "table", "tbody", "td", "tfoot", "th",
+            "thead", "tr", "ul");
+
+    private static final byte[][] ENTITY_NAMES = asciiAll(
+            "amp", "lt", "gt", "quot", "apos", "nbsp", "shy", "eacute", "egrave", "ecirc", "euml", "agrave", "acirc",
+            "ccedil", "icirc", "iuml", "ocirc", "ucirc", "ugrave", "Eacute", "Egrave", "Ecirc", "Agrave", "Ccedil",
+            "rsquo", "lsquo", "ldquo", "rdquo", "laquo", "raquo", "ndash", "mdash", "hellip", "reg", "trade", "copy",
+            "deg", "euro", "times", "frac12", "frac14", "frac34");
+    private static final int[] ENTITY_VALUES = {
+            '&', '<', '>', '"', '\'', 0xA0, 0xAD, 0xE9, 0xE8, 0xEA, 0xEB, 0xE0, 0xE2,
+            0xE7, 0xEE, 0xEF, 0xF4, 0xFB, 0xF9, 0xC9, 0xC8, 0xCA, 0xC0, 0xC7,
+            0x2019, 0x2018, 0x201C, 0x201D, 0xAB, 0xBB, 0x2013, 0x2014, 0x2026, 0xAE, 0x2122, 0xA9,
+            0xB0, 0x20AC, 0xD7, 0xBD, 0xBC, 0xBE};
+
+    @Override
+    public List<ScrapedProduct> extract(byte[] body, String charset, String url) {
+        String encoding = charset != null ? charset : sniffCharset(body);
+        if (encoding != null && !encoding.equalsIgnoreCase("UTF-8") && !encoding.equalsIgnoreCase("UTF8")) {
+            throw new UnsupportedCharsetException(encoding);
+        }
+        List<ScrapedProduct> products = new Scan(body, url).run();
+        if (products.isEmpty()) {
+            log.warn("No products found at URL: {}", url);
+        }
+        return products;
+    }
+
+    /**
+     * The state of a single pass over one page. Not thread-safe; one instance per call.
+     */
+    private static final class Scan {
+
+        private final byte[] b;
+        private final int len;
+        private final String url;
+        private final List<ScrapedProduct> products = new ArrayList<>();
+
+        private int[] stackStart = new int[32];
+        private int[] stackLength = new int[32];
+        private int depth;
+
+        private int productLevel = -1;
+        private int titleLevel = -1;
+        private int priceLevel = -1;
+        private boolean priceSeen;
+        private int titleCaptureStart;
+
+        private final StringBuilder title = new StringBuilder(64);
+        private final StringBuilder price = new StringBuilder(32);
+
+        Scan(byte[] body, String url) {
+            this.b = body;
+            this.len = body.length;
+            this.url = url;
+        }
+
+        List<ScrapedProduct> run() {
+            int i = 0;
+            int textStart = 0;
+            while (i < len) {
+                if (b[i] != '<' || i + 1 >= len) {
+                    i++;
+                    continue;
+                }
+                byte next = b[i + 1];
+                if (next == '!' || next == '?') {
+                    appendText(textStart, i);
+                    i = skipDeclaration(i);
+                    textStart = i;
+                } else if (next == '/' && i + 2 < len && isLetter(b[i + 2])) {
+                    appendText(textStart, i);
+                    i = closeTag(i + 2);
+                    textStart = i;
+                } else if (isLetter(next)) {
+                    appendText(textStart, i);
+                    i = openTag(i + 1);
+                    textStart = i;
+                } else {
+                    i++;
+                }
+            }
+            appendText(textStart, len);
+            while (depth > 0) {
+                pop();
+            }
+            return products;
+        }
+
+        /**
+         * Skips a comment, doctype, CDATA section or processing instruction starting at {@code i}.
+         */
+        private int skipDeclaration(int i) {
+            if (i + 3 < len && b[i + 1] == '!' && b[i + 2] == '-' && b[i + 3] == '-') {
+                for (int j = i + 4; j + 2 < len; j++) {
+                    if (b[j] == '-' && b[j + 1] == '-' && b[j + 2] == '>') {
+                        return j + 3;
+                    }
+                }
+                return len;
+            }
+            int end = indexOf((byte) '>', i + 2);
+            return end < 0 ? len : end + 1;
+        }
+
+        /**
+         * Parses a start tag whose name begins at {@code nameStart} and returns the offset just past it.
+         */
+        private int openTag(int nameStart) {
+            int p = nameStart;
+            while (p < len && !isWhitespace(b[p]) && b[p] != '/' && b[p] != '>') {
+                p++;
+            }
+            int nameLength = p - nameStart;
+
+            int classStart = -1;
+            int classEnd = -1;
+            while (p < len) {
+                while (p < len && (isWhitespace(b[p]) || b[p] == '/')) {
+                    p++;
+                }
+                if (p >= len || b[p] == '>') {
+                    break;
+                }
+                int attributeStart = p;
+                while (p < len && !isWhitespace(b[p]) && b[p] != '=' && b[p] != '>' && b[p] != '/') {
+                    p++;
+                }
+                int attributeEnd = p;
+                while (p < len && isWhitespace(b[p])) {
+                    p++;
+                }
+                int valueStart = -1;
+                int valueEnd = -1;
+                if (p < len && b[p] == '=') {
+                    p++;
+                    while (p < len && isWhitespace(b[p])) {
+                        p++;
+                    }
+                    if (p < len && (b[p] == '"' || b[p] == '\'')) {
+                        int close = indexOf(b[p], p + 1);
+                        valueStart = p + 1;
+                        valueEnd = close < 0 ? len : close;
+                        p = close < 0 ? len : close + 1;
+                    } else {
+                        valueStart = p;
+                        while (p < len && !isWhitespace(b[p]) && b[p] != '>') {
+                            p++;
+                        }
+                        valueEnd = p;
+                    }
+                }
+                if (classStart < 0 && valueStart >= 0 && equalsIgnoreCase(attributeStart, attributeEnd - attributeStart, CLASS_ATTRIBUTE)) {
+                    classStart = valueStart;
+                    classEnd = valueEnd;
+                }
+            }
+            boolean selfClosing = p < len && p > nameStart && b[p - 1] == '/';
+            int after = p < len ? p + 1 : len;
+
+            if (isOneOf(nameStart, nameLength, RAW_TEXT_ELEMENTS)) {
+                return skipRawText(after, nameStart, nameLength);
+            }
+            if (isOneOf(nameStart, nameLength, BLOCK_ELEMENTS) || equalsIgnoreCase(nameStart, nameLength, BR)) {
+                appendSpace();
+            }
+            if (selfClosing || isOneOf(nameStart, nameLength, VOID_ELEMENTS)) {
+                return after;
+            }
+
+            push(nameStart, nameLength);
+            if (classStart >= 0) {
+                onClassedElement(classStart, classEnd);
+            }
+            return after;
+        }
+
+        /**
+         * Starts a product, title or price capture if the element just pushed carries a matching class.
+         */
+        private void onClassedElement(int classStart, int classEnd) {
+            boolean product = hasClass(classStart, classEnd, PRODUCT_CLASS);
+            if (productLevel < 0) {
+                if (product) {
+                    productLevel = depth;
+                    title.setLength(0);
+                    priceSeen = false;
+                    price.setLength(0);
+                }
+                return;
+            }
+            boolean productTitle = hasClass(classStart, classEnd, TITLE_CLASS);
+            if (product || (productTitle && titleLevel >= 0)) {
+                throw new IllegalStateException("Nested product tile or title at offset " + classStart + " of " + url);
+            }
+            if (productTitle) {
+                if (title.length() > 0) {
+                    title.append(' ');
+                }
+                titleCaptureStart = title.length();
+                titleLevel = depth;
+            }
+            if (!priceSeen && hasClass(classStart, classEnd, PRICE_CLASS)) {
+                priceSeen = true;
+                priceLevel = depth;
+            }
+        }
+
+        /**
+         * Parses an end tag whose name begins at {@code nameStart}, closing the matching open element
+         * and any unclosed elements inside it. End tags with no matching open element are ignored.
+         */
+        private int closeTag(int nameStart) {
+            int p = nameStart;
+            while (p < len && !isWhitespace(b[p]) && b[p] != '/' && b[p] != '>') {
+                p++;
+            }
+            int nameLength = p - nameStart;
+            int end = indexOf((byte) '>', p);
+            int after = end < 0 ? len : end + 1;
+
+            for (int level = depth; level > 0; level--) {
+                if (equalsIgnoreCase(nameStart, nameLength, stackStart[level - 1], stackLength[level - 1])) {
+                    while (depth >= level) {
+                        pop();
+                    }
+                    break;
+                }
+            }
+            return after;
+        }
+
+        /**
+         * Skips the content of a script, style, textarea or title element up to and including its end tag.
+         */
+        private int skipRawText(int from, int nameStart, int nameLength) {
+            for (int j = from; j + 1 + nameLength < len; j++) {
+                if (b[j] == '<' && b[j + 1] == '/' && equalsIgnoreCase(j + 2, nameLength, nameStart, nameLength)) {
+                    int terminator = j + 2 + nameLength;
+                    if (terminator >= len || isWhitespace(b[terminator]) || b[terminator] == '>' || b[terminator] == '/') {
+                        int end = indexOf((byte) '>', terminator);
+                        return end < 0 ? len : end + 1;
+                    }
+                }
+            }
+            return len;
+        }
+
+        private void push(int nameStart, int nameLength) {
+            if (depth == stackStart.length) {
+                stackStart = Arrays.copyOf(stackStart, depth * 2);
+                stackLength = Arrays.copyOf(stackLength, depth * 2);
+            }
+            stackStart[depth] = nameStart;
+            stackLength[depth] = nameLength;
+            depth++;
+        }
+
+        private void pop() {
+            int level = depth;
+            int nameStart = stackStart[level - 1];
+            int nameLength = stackLength[level - 1];
+            depth--;
+
+            if (level == titleLevel) {
+                trimTrailingSpace(title, titleCaptureStart);
+                titleLevel = -1;
+            }
+            if (level == priceLevel) {
+                trimTrailingSpace(price, 0);
+                priceLevel = -1;
+            }
+            if (level == productLevel) {
+                emitProduct();
+                productLevel = -1;
+                return;
+            }
+            if (isOneOf(nameStart, nameLength, BLOCK_ELEMENTS)) {
+                appendSpace();
+            }
+        }
+
+        private void emitProduct() {
+            String productTitle = title.toString();
+            double currentProductPrice = 0.0;
+            if (priceSeen) {
+                currentProductPrice = parsePrice(price);
+                if (currentProductPrice == 0.0) {
+                    log.warn("No numerical price found in: '{}' for product: '{}' from URL: {}", price, productTitle, url);
+                }
+            } else {
+                log.warn("Price element not found for product: '{}' at URL: {}", productTitle, url);
+            }
+            products.add(new ScrapedProduct(productTitle, currentProductPrice));
+        }
+
+        /**
+         * Decodes the text between two markup offsets and appends it to the active captures.
+         */
+        private void appendText(int from, int to) {
+            if (titleLevel < 0 && priceLevel < 0) {
+                return;
+            }
+            int i = from;
+            while (i < to) {
+                int c = b[i] & 0xFF;
+                if (c == '&') {
+                    i = appendEntity(i, to);
+                    continue;
+                }
+                if (c < 0x80) {
+                    appendCodePoint(c);
+                    i++;
+                    continue;
+                }
+                int extra;
+                int codePoint;
+                if (c >= 0xF0) {
+                    extra = 3;
+                    codePoint = c & 0x07;
+                } else if (c >= 0xE0) {
+                    extra = 2;
+                    codePoint = c & 0x0F;
+                } else if (c >= 0xC0) {
+                    extra = 1;
+                    codePoint = c & 0x1F;
+                } else {
+                    appendCodePoint(0xFFFD);
+                    i++;
+                    continue;
+                }
+                if (i + extra >= to) {
+                    appendCodePoint(0xFFFD);
+                    i = to;
+                    continue;
+                }
+                for (int k = 1; k <= extra; k++) {
+                    codePoint = (codePoint << 6) | (b[i + k] & 0x3F);
+                }
+                appendCodePoint(codePoint);
+                i += extra + 1;
+            }
+        }
+
+        /**
+         * Decodes a character reference starting at the ampersand at {@code i}. Unknown references are kept literally.
+         */
+        private int appendEntity(int i, int to) {
+            int p = i + 1;
+            if (p < to && b[p] == '#') {
+                p++;
+                boolean hex = p < to && (b[p] == 'x' || b[p] == 'X');
+                if (hex) {
+                    p++;
+                }
+                int digitsStart = p;
+                int value = 0;
+                while (p < to && p - digitsStart < 7) {
+                    int digit = Character.digit(b[p], hex ? 16 : 10);
+                    if (digit < 0) {
+                        break;
+                    }
+                    value = value * (hex ? 16 : 10) + digit;
+                    p++;
+                }
+                if (p > digitsStart) {
+                    appendCodePoint(value == 0 || value > Character.MAX_CODE_POINT ? 0xFFFD : value);
+                    return p < to && b[p] == ';' ? p + 1 : p;
+                }
+            } else {
+                int nameStart = p;
+                while (p < to && p - nameStart < 8 && isLetterOrDigit(b[p])) {
+                    p++;
+                }
+                for (int e = 0; e < ENTITY_NAMES.length; e++) {
+                    if (equalsCaseSensitive(nameStart, p - nameStart, ENTITY_NAMES[e])) {
+                        appendCodePoint(ENTITY_VALUES[e]);
+                        return p < to && b[p] == ';' ? p + 1 : p;
+                    }
+                }
+            }
+            appendCodePoint('&');
+            return i + 1;
+        }
+
+        /**
+         * Appends one character to every active capture, collapsing whitespace the way Jsoup's {@code text()} does.
+         */
+        private void appendCodePoint(int c) {
+            if (c == 0x200B || c == 0xAD) {
+                return;
+            }
+            boolean whitespace = c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r' || c == 0xA0;
+            if (titleLevel >= 0) {
+                append(title, titleCaptureStart, c, whitespace);
+            }
+            if (priceLevel >= 0) {
+                append(price, 0, c, whitespace);
+            }
+        }
+
+        /**
+         * Records a word boundary in every active capture, as Jsoup does around block elements and line breaks.
+         */
+        private void appendSpace() {
+            if (titleLevel >= 0) {
+                append(title, titleCaptureStart, ' ', true);
+            }
+            if (priceLevel >= 0) {
+                append(price, 0, ' ', true);
+            }
+        }
+
+        private static void append(StringBuilder target, int captureStart, int c, boolean whitespace) {
+            if (whitespace) {
+                if (target.length() > captureStart && target.charAt(target.length() - 1) != ' ') {
+                    target.append(' ');
+                }
+            } else {
+                target.appendCodePoint(c);
+            }
+        }
+
+        private static void trimTrailingSpace(StringBuilder target, int captureStart) {
+            while (target.length() > captureStart && target.charAt(target.length() - 1) == ' ') {
+                target.setLength(target.length() - 1);
+            }
+        }
+
+        private boolean hasClass(int valueStart, int valueEnd, byte[] className) {
+            int p = valueStart;
+            while (p < valueEnd) {
+                while (p < valueEnd && isWhitespace(b[p])) {
+                    p++;
+                }
+                int tokenStart = p;
+                while (p < valueEnd && !isWhitespace(b[p])) {
+                    p++;
+                }
+                if (p > tokenStart && equalsIgnoreCase(tokenStart, p - tokenStart, className)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isOneOf(int start, int length, byte[][] names) {
+            for (byte[] name : names) {
+                if (equalsIgnoreCase(start, length, name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean equalsIgnoreCase(int start, int length, byte[] name) {
+            if (length != name.length) {
+                return false;
+            }
+            for (int k = 0; k < length; k++) {
+                if (toLower(b[start + k]) != name[k]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean equalsIgnoreCase(int start, int length, int otherStart, int otherLength) {
+            if (length != otherLength || start + length > len) {
+                return false;
+            }
+            for (int k = 0; k < length; k++) {
+                if (toLower(b[start + k]) != toLower(b[otherStart + k])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean equalsCaseSensitive(int start, int length, byte[] name) {
+            return length == name.length && Arrays.equals(b, start, start + length, name, 0, length);
+        }
+
+        private int indexOf(byte target, int from) {
+            for (int j = from; j < len; j++) {
+                if (b[j] == target) {
+                    return j;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Finds the first {@code \d+\.\d{2}} sequence in the text, with the same leftmost-match semantics as the
+     * regular expression used by the Jsoup path, and converts it without creating intermediate strings.
+     *
+     * @param text The normalized text of the price element.
+     * @return The price, or 0.0 if the text contains no price.
+     */
+    static double parsePrice(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (!isDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int runEnd = i;
+            while (runEnd < length && isDigit(text.charAt(runEnd))) {
+                runEnd++;
+            }
+            if (runEnd + 2 < length && text.charAt(runEnd) == '.' && isDigit(text.charAt(runEnd + 1)) && isDigit(text.charAt(runEnd + 2))) {
+                if (runEnd - i > 15) {
+                    return Double.parseDouble(text.subSequence(i, runEnd + 3).toString());
+                }
+                long cents = 0;
+                for (int k = i; k < runEnd; k++) {
+                    cents = cents * 10 + (text.charAt(k) - '0');
+                }
+                cents = cents * 100 + (text.charAt(runEnd + 1) - '0') * 10 + (text.charAt(runEnd + 2) - '0');
+                return cents / 100.0;
+            }
+            i = runEnd;
+        }
+        return 0.0;
+    }
+
+    /**
+     * Finds the charset a page declares itself when the response did not: a byte order mark, or else the
+     * {@code charset} of the first {@code <meta>} tag declaring one, either as an attribute or inside a
+     * {@code content="text/html; charset=..."} value.
+     *
+     * @param body The raw response body.
+     * @return The declared charset name, or null if the page declares none.
+     */
+    static String sniffCharset(byte[] body) {
+        if (body.length >= 3 && body[0] == (byte) 0xEF && body[1] == (byte) 0xBB && body[2] == (byte) 0xBF) {
+            return "UTF-8";
+        }
+        if (body.length >= 2 && body[0] == (byte) 0xFE && body[1] == (byte) 0xFF) {
+            return "UTF-16BE";
+        }
+        if (body.length >= 2 && body[0] == (byte) 0xFF && body[1] == (byte) 0xFE) {
+            return "UTF-16LE";
+        }
+        int end = Math.min(body.length, CHARSET_SNIFF_BYTES);
+        for (int i = 0; i + 1 + META.length < end; i++) {
+            if (body[i] != '<' || !matchesIgnoreCase(body, i + 1, META) || isLetterOrDigit(body[i + 1 + META.length])) {
+                continue;
+            }
+            int tagEnd = i + 1 + META.length;
+            while (tagEnd < end && body[tagEnd] != '>') {
+                tagEnd++;
+            }
+            for (int j = i + 1 + META.length; j + CHARSET.length < tagEnd; j++) {
+                if (!matchesIgnoreCase(body, j, CHARSET)) {
+                    continue;
+                }
+                int k = j + CHARSET.length;
+                while (k < tagEnd && isWhitespace(body[k])) {
+                    k++;
+                }
+                if (k == tagEnd || body[k] != '=') {
+                    continue;
+                }
+                k++;
+                while (k < tagEnd && (isWhitespace(body[k]) || body[k] == '"' || body[k] == '\'')) {
+                    k++;
+                }
+                int valueStart = k;
+                while (k < tagEnd && (isLetterOrDigit(body[k]) || body[k] == '-' || body[k] == '_' || body[k] == '.' || body[k] == ':')) {
+                    k++;
+                }
+                if (k > valueStart) {
+                    return new String(body, valueStart, k - valueStart, StandardCharsets.US_ASCII);
+                }
+            }
+            i = tagEnd;
+        }
+        return null;
+    }
+
+    private static boolean matchesIgnoreCase(byte[] body, int offset, byte[] lowerCase) {
+        if (offset + lowerCase.length > body.length) {
+            return false;
+        }
+        for (int k = 0; k < lowerCase.length; k++) {
+            if (toLower(body[offset + k]) != lowerCase[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(byte c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isLetterOrDigit(byte c) {
+        return isLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isWhitespace(byte c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+
+    private static byte toLower(byte c) {
+        return c >= 'A' && c <= 'Z' ? (byte) (c + ('a' - 'A')) : c;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] asciiAll(String... values) {
+        byte[][] result = new byte[values.length][];
+        for (int k = 0; k < values.length; k++) {
+            result[k] = ascii(values[k]);
+        }
+        return result;
+    }
+}
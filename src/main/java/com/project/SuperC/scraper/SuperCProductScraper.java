@@ -0,0 +1,136 @@
+/**
+ * Fetches and parses a single Super C search results page.
+ * Requests are conditional: the validators (ETag and Last-Modified) and body hash stored from the
+ * previous fetch of the same URL are used to skip parsing when the server answers 304 Not Modified
+ * or returns a byte-for-byte identical body. Changed pages are handed to the {@link PriceExtractor}
+ * straight from the response bytes.
+ * The site's base URL is configurable, so a run can be replayed against a local stub server.
+ * This class performs one blocking HTTP request per call and is free of shared mutable state,
+ * so it can safely be called from many threads at once.
+ */
+package com.project.SuperC.scraper;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.project.SuperC.metrics.PriceCheckMetrics;
+import com.project.SuperC.models.CachedProductPage;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+@Component
+@Slf4j
+public class SuperCProductScraper {
+
+    private static final Gson GSON = new Gson();
+    private static final Type PRODUCT_LIST_TYPE = new TypeToken<List<ScrapedProduct>>() { }.getType();
+
+    private final PriceExtractor priceExtractor;
+    private final PriceCheckMetrics metrics;
+    private final String baseUrl;
+
+    /**
+     * Constructs a SuperCProductScraper.
+     *
+     * @param priceExtractor The extractor that turns a page body into scraped products.
+     * @param metrics The meters recording parse time.
+     * @param baseUrl The scheme, host and optional port of the site search pages are fetched from.
+     */
+    public SuperCProductScraper(PriceExtractor priceExtractor,
+                                PriceCheckMetrics metrics,
+                                @Value("${application.price-check.base-url:https://www.superc.ca}") String baseUrl) {
+        this.priceExtractor = priceExtractor;
+        this.metrics = metrics;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /**
+     * Builds the search page URL for a product number.
+     *
+     * @param productNumber The product number to look up.
+     * @return The absolute URL of the search page filtered on that product number.
+     */
+    public String searchUrl(String productNumber) {
+        return baseUrl + "/en/search?filter=" + productNumber;
+    }
+
+    /**
+     * Fetches the Super C search page for a single product number, revalidating against the cached copy if one exists.
+     *
+     * @param productNumber The product number to look up.
+     * @param cached The cache entry from the previous fetch of this page, or null if there is none.
+     * @return The scraped products along with the cache entry to store for the next run.
+     * @throws IOException if the page could not be fetched.
+     */
+    public PageFetchResult fetch(String productNumber, CachedProductPage cached) throws IOException {
+        String url = searchUrl(productNumber);
+        Instant now = Instant.now();
+
+        Connection connection = Jsoup.connect(url).ignoreHttpErrors(true);
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                connection.header("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                connection.header("If-Modified-Since", cached.getLastModified());
+            }
+        }
+
+        Connection.Response response = connection.execute();
+
+        if (response.statusCode() == 304 && cached != null) {
+            cached.setValidatedAt(now);
+            return new PageFetchResult(fromJson(cached.getProductsJson()), FetchOutcome.NOT_MODIFIED, cached, 0);
+        }
+        if (response.statusCode() >= 400) {
+            throw new HttpStatusException("HTTP error fetching URL", response.statusCode(), url);
+        }
+
+        byte[] body = response.bodyAsBytes();
+        String bodyHash = sha256(body);
+
+        if (cached != null && bodyHash.equals(cached.getBodyHash())) {
+            cached.setEtag(response.header("ETag"));
+            cached.setLastModified(response.header("Last-Modified"));
+            cached.setValidatedAt(now);
+            return new PageFetchResult(fromJson(cached.getProductsJson()), FetchOutcome.UNCHANGED, cached, body.length);
+        }
+
+        long parseStart = System.nanoTime();
+        List<ScrapedProduct> products = priceExtractor.extract(body, response.charset(), url);
+        metrics.recordParse(System.nanoTime() - parseStart);
+        CachedProductPage page = CachedProductPage.builder()
+                .url(url)
+                .etag(response.header("ETag"))
+                .lastModified(response.header("Last-Modified"))
+                .bodyHash(bodyHash)
+                .productsJson(GSON.toJson(products, PRODUCT_LIST_TYPE))
+                .fetchedAt(now)
+                .validatedAt(now)
+                .build();
+        return new PageFetchResult(products, FetchOutcome.PARSED, page, body.length);
+    }
+
+    private static List<ScrapedProduct> fromJson(String json) {
+        return GSON.fromJson(json, PRODUCT_LIST_TYPE);
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * A blocking token-bucket rate limiter.
+ * Tokens are replenished continuously at a fixed rate up to a maximum burst size.
+ * Callers reserve a token under a short lock and then sleep outside of it, so waiting
+ * threads (including virtual threads) never hold the lock while they are parked.
+ */
+package com.project.SuperC.scraper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class TokenBucketRateLimiter {
+
+    private final double permitsPerNano;
+    private final double maxTokens;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double availableTokens;
+    private long lastRefillNanos;
+
+    /**
+     * Creates a rate limiter.
+     *
+     * @param permitsPerSecond The sustained number of permits handed out per second.
+     * @param burst The maximum number of permits that can be handed out back to back.
+     * @throws IllegalArgumentException if either argument is not positive.
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive.");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.maxTokens = burst;
+        this.availableTokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Acquires a single permit, blocking until one is available.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Reserves the next permit and returns how long the caller must wait before using it.
+     * The bucket is allowed to go negative so that concurrent callers queue up behind each other.
+     *
+     * @return The number of nanoseconds to wait, or 0 if a permit is immediately available.
+     */
+    private long reserve() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            availableTokens = Math.min(maxTokens, availableTokens + (now - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = now;
+
+            availableTokens -= 1;
+            if (availableTokens >= 0) {
+                return 0;
+            }
+            return (long) Math.ceil(-availableTokens / permitsPerNano);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -6,6 +6,7 @@
  */
 package com.project.SuperC.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -31,6 +32,8 @@ public class SecurityConfig {
     private final CustomUserDetailsService userDetailsService;
     private final JwtAuthFilter jwtAuthFilter;
     private final JwtAuthEntryPoint authEntryPoint;
+    private final int serverPort;
+    private final int managementPort;
 
     /**
      * Constructs a SecurityConfig with the necessary dependencies.
@@ -39,11 +42,17 @@ public class SecurityConfig {
      * @param userDetailsService The custom user details service for loading user data.
      * @param jwtAuthFilter The JWT authentication filter for token validation.
      * @param authEntryPoint The authentication entry point for handling unauthorized access.
+     * @param serverPort The port the application is served on.
+     * @param managementPort The separate port the Actuator endpoints are served on, or -1 if they share the application's port.
      */
-    public SecurityConfig(CustomUserDetailsService userDetailsService, JwtAuthFilter jwtAuthFilter, JwtAuthEntryPoint authEntryPoint) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService, JwtAuthFilter jwtAuthFilter, JwtAuthEntryPoint authEntryPoint,
+                          @Value("${server.port:8080}") int serverPort,
+                          @Value("${management.server.port:-1}") int managementPort) {
         this.userDetailsService = userDetailsService;
         this.jwtAuthFilter = jwtAuthFilter;
         this.authEntryPoint = authEntryPoint;
+        this.serverPort = serverPort;
+        this.managementPort = managementPort;
     }
 
     /**
@@ -103,10 +112,16 @@ public class SecurityConfig {
                                 "/*.css", "/*.js", "/*.ico", "/*.txt", "/*.png", "/*.jpg", "/*.jpeg", "/*.gif", "/*.svg",
                                 "/*.woff", "/*.woff2", "/*.ttf", "/*.eot", "/search/**"
                         ).permitAll()
-                        .dispatcherTypeMatchers(DispatcherType.FORWARD, DispatcherType.ERROR).permitAll()
+                        .dispatcherTypeMatchers(DispatcherType.FORWARD, DispatcherType.ERROR, DispatcherType.ASYNC).permitAll()
 
                         .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers("/api/products/search").permitAll()
+                        .requestMatchers("/api/products/search", "/api/products/suggest").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        // Metrics are open only to scrapers on a separate management port, which must be firewalled off;
+                        // on the public port they need an admin token.
+                        .requestMatchers(request -> isManagementPort(request.getLocalPort())
+                                && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
+                        .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
 
                         .anyRequest().authenticated()
                 )
@@ -116,4 +131,8 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    private boolean isManagementPort(int port) {
+        return managementPort > 0 && managementPort != serverPort && port == managementPort;
+    }
 }
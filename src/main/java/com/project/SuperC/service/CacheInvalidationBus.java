@@ -0,0 +1,361 @@
+/**
+ * Keeps the in-memory state of every node in step with writes made on any other node, using Postgres
+ * {@code LISTEN/NOTIFY} on one channel, so no infrastructure beyond the database is needed.
+ * <p>
+ * Two kinds of invalidation are broadcast. Products written by the price checker are evicted from the
+ * {@link ProductCache} and refreshed in the {@link ProductSearchIndex} on the other nodes; a user whose tracking
+ * requests changed has the open price update streams on the other nodes re-synced with the database. The node
+ * that made the write has already applied it locally and ignores its own messages.
+ * <p>
+ * Invalidations are queued once their transaction commits and sent in batches at a fixed interval, so a burst
+ * of writes, such as a price-check run, coalesces into a few notifications; each notification stays below
+ * Postgres's 8000-byte payload limit. Notifications are delivered to listeners only, so one missed while
+ * the listening connection was down is lost: after reconnecting, the node drops its whole product cache.
+ * The listening connection is taken from the pool and held for the lifetime of the node.
+ */
+package com.project.SuperC.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.SuperC.repository.PriceTrackingRequestRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+    /**
+     * Bytes kept free below Postgres's 8000-byte payload limit.
+     */
+    static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final PriceUpdateBroadcaster priceUpdateBroadcaster;
+    private final PriceTrackingRequestRepository priceTrackingRequestRepository;
+    private final String channel;
+    private final long flushMillis;
+    private final long reconnectSeconds;
+    private final String node = UUID.randomUUID().toString();
+    private final Counter sent;
+    private final Counter received;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("cache-invalidation-flusher").daemon().factory());
+    private final Thread listener = Thread.ofPlatform().name("cache-invalidation-listener").daemon().unstarted(this::listen);
+    private volatile boolean running;
+    private Set<String> pendingProducts = new LinkedHashSet<>();
+    private Set<Long> pendingUsers = new LinkedHashSet<>();
+
+    /**
+     * Constructs a CacheInvalidationBus and registers its counters.
+     *
+     * @param dataSource The pool the listening connection is taken from.
+     * @param jdbcTemplate The template notifications are sent with.
+     * @param objectMapper The mapper notification payloads are written and read with.
+     * @param productCache The cache products written on other nodes are evicted from.
+     * @param productSearchIndex The search index products written on other nodes are refreshed in.
+     * @param priceUpdateBroadcaster The open price update streams re-synced for users changed on other nodes.
+     * @param priceTrackingRequestRepository The repository a changed user's tracked products are read from.
+     * @param registry The registry the notification counters are published to.
+     * @param channel The notification channel every node listens on.
+     * @param flushMillis The interval at which queued invalidations are sent.
+     * @param reconnectSeconds The delay before the listening connection is reopened after it failed.
+     */
+    public CacheInvalidationBus(DataSource dataSource, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                ProductCache productCache, ProductSearchIndex productSearchIndex,
+                                PriceUpdateBroadcaster priceUpdateBroadcaster,
+                                PriceTrackingRequestRepository priceTrackingRequestRepository,
+                                MeterRegistry registry,
+                                @Value("${application.cache.invalidation.channel:cache_invalidation}") String channel,
+                                @Value("${application.cache.invalidation.flush-millis:200}") long flushMillis,
+                                @Value("${application.cache.invalidation.reconnect-seconds:5}") long reconnectSeconds) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel name: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.productCache = productCache;
+        this.productSearchIndex = productSearchIndex;
+        this.priceUpdateBroadcaster = priceUpdateBroadcaster;
+        this.priceTrackingRequestRepository = priceTrackingRequestRepository;
+        this.channel = channel;
+        this.flushMillis = flushMillis;
+        this.reconnectSeconds = reconnectSeconds;
+        this.sent = Counter.builder("cache.invalidation.notifications")
+                .description("Cache invalidation notifications sent to or received from other nodes")
+                .tag("direction", "sent")
+                .register(registry);
+        this.received = Counter.builder("cache.invalidation.notifications")
+                .description("Cache invalidation notifications sent to or received from other nodes")
+                .tag("direction", "received")
+                .register(registry);
+    }
+
+    /**
+     * Starts listening and sending once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listener.start();
+        flusher.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends what is still queued, then stops listening.
+     */
+    @PreDestroy
+    public void shutdown() {
+        boolean started = running;
+        running = false;
+        flusher.shutdownNow();
+        if (started) {
+            flush();
+        }
+        listener.interrupt();
+    }
+
+    /**
+     * Tells the other nodes that the price checker wrote these products. Sent once the current transaction, if any, commits.
+     *
+     * @param productNumbers The products whose price was written.
+     */
+    public void productsWritten(Collection<String> productNumbers) {
+        if (productNumbers.isEmpty()) {
+            return;
+        }
+        List<String> numbers = List.copyOf(productNumbers);
+        afterCommit(() -> {
+            synchronized (this) {
+                pendingProducts.addAll(numbers);
+            }
+        });
+    }
+
+    /**
+     * Tells the other nodes that a user's tracking requests changed. Sent once the current transaction, if any, commits.
+     *
+     * @param userId The user who started or stopped tracking a product.
+     */
+    public void userChanged(Long userId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                pendingUsers.add(userId);
+            }
+        });
+    }
+
+    /**
+     * Sends everything queued since the last flush, split into notifications that fit the payload limit.
+     */
+    void flush() {
+        Invalidation batch;
+        synchronized (this) {
+            if (pendingProducts.isEmpty() && pendingUsers.isEmpty()) {
+                return;
+            }
+            batch = new Invalidation(node, List.copyOf(pendingProducts), List.copyOf(pendingUsers));
+            pendingProducts = new LinkedHashSet<>();
+            pendingUsers = new LinkedHashSet<>();
+        }
+        try {
+            for (String payload : split(batch)) {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+                sent.increment();
+            }
+        } catch (DataAccessException e) {
+            // Products expire from the other nodes' caches on their own; nothing is re-queued.
+            log.warn("Failed to send cache invalidations for {} products and {} users: {}",
+                    batch.products().size(), batch.users().size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Applies an invalidation received from another node.
+     *
+     * @param payload The notification payload.
+     */
+    void receive(String payload) {
+        Invalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(payload, Invalidation.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed cache invalidation: {}", e.getMessage());
+            return;
+        }
+        if (node.equals(invalidation.node())) {
+            return;
+        }
+        received.increment();
+        productSearchIndex.refresh(invalidation.products());
+        productCache.invalidate(invalidation.products());
+        for (Long userId : invalidation.users()) {
+            if (!priceUpdateBroadcaster.isSubscribed(userId)) {
+                continue;
+            }
+            try {
+                priceUpdateBroadcaster.retrack(userId, priceTrackingRequestRepository.findProductNumbersByUserId(userId));
+            } catch (DataAccessException e) {
+                log.warn("Failed to re-sync the price update streams of user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Splits a batch into payloads of at most {@value #MAX_PAYLOAD_BYTES} UTF-8 bytes, filling each one in turn.
+     */
+    List<String> split(Invalidation batch) {
+        Splitter splitter = new Splitter();
+        batch.products().forEach(productNumber -> splitter.add(splitter.products, productNumber));
+        batch.users().forEach(userId -> splitter.add(splitter.users, userId));
+        return splitter.finish();
+    }
+
+    /**
+     * Holds one pooled connection listening on the channel and applies what arrives, reconnecting after failures.
+     */
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnecting) {
+                    // Notifications sent while the connection was down are lost.
+                    productCache.invalidateAll();
+                    log.info("Listening for cache invalidations again; dropped the product cache.");
+                }
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] batch = notifications.getNotifications(1000);
+                    if (batch != null) {
+                        for (PGNotification notification : batch) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("UNLISTEN *");
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost the cache invalidation listener; reconnecting in {} s: {}", reconnectSeconds, e.getMessage());
+                reconnecting = true;
+                try {
+                    TimeUnit.SECONDS.sleep(reconnectSeconds);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private int bytes(Object value) {
+        return write(value).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to write a cache invalidation", e);
+        }
+    }
+
+    /**
+     * Fills payloads one after the other, starting a new one when the next value would not fit.
+     */
+    private final class Splitter {
+
+        private final List<String> payloads = new ArrayList<>();
+        private final List<String> products = new ArrayList<>();
+        private final List<Long> users = new ArrayList<>();
+        private final int emptyBytes = bytes(new Invalidation(node, List.of(), List.of()));
+        private int size = emptyBytes;
+
+        <T> void add(List<T> target, T value) {
+            // Each value costs its JSON form plus a separating comma.
+            int valueBytes = bytes(value) + 1;
+            if (emptyBytes + valueBytes > MAX_PAYLOAD_BYTES) {
+                log.warn("Not broadcasting an invalidation too large for one notification: {}", value);
+                return;
+            }
+            if (size + valueBytes > MAX_PAYLOAD_BYTES) {
+                emit();
+            }
+            target.add(value);
+            size += valueBytes;
+        }
+
+        List<String> finish() {
+            if (size > emptyBytes) {
+                emit();
+            }
+            return payloads;
+        }
+
+        private void emit() {
+            payloads.add(write(new Invalidation(node, List.copyOf(products), List.copyOf(users))));
+            products.clear();
+            users.clear();
+            size = emptyBytes;
+        }
+    }
+
+    /**
+     * The payload of one notification: the sending node and what it invalidates.
+     */
+    record Invalidation(String node, List<String> products, List<Long> users) {
+    }
+}
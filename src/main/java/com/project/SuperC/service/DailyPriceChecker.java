@@ -1,114 +1,207 @@
 package com.project.SuperC.service;
 
-import com.project.SuperC.models.PriceTrackingRequest;
+import com.project.SuperC.dto.DueTrackingRequest;
+import com.project.SuperC.metrics.PriceCheckMetrics;
+import com.project.SuperC.models.PriceObservation;
+import com.project.SuperC.models.TriggeredAlert;
+import com.project.SuperC.repository.PriceAlertRepository;
+import com.project.SuperC.scraper.ConcurrentFetchEngine;
+import com.project.SuperC.scraper.FetchBatchResult;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 /**
  * Component responsible for daily price checking of products on Super C's website
- * and sends email notifications if a product's current price is at or below
+ * and queues email notifications if a product's current price is at or below
  * the user's specified maximum desired price.
+ * Products whose page could not be fetched are handed to the {@link ProductFetchRetryService}
+ * and checked again by {@link #retryFailedFetches()} once their backoff has passed. Products that were
+ * fetched get their next check time from the {@link RefreshScheduler}.
  */
 @Component
 @Data
 @Slf4j
 public class DailyPriceChecker {
 
-    private final EmailSenderService emailSenderService;
+    private final EmailOutboxService emailOutboxService;
+    private final ConcurrentFetchEngine fetchEngine;
+    private final PriceHistoryService priceHistoryService;
+    private final PriceAlertRepository priceAlertRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductFetchRetryService productFetchRetryService;
+    private final RefreshScheduler refreshScheduler;
+    private final PriceUpdateBroadcaster priceUpdateBroadcaster;
+    private final PriceCheckMetrics metrics;
+    private final int retryBatchSize;
+
+
+    public DailyPriceChecker(EmailOutboxService emailOutboxService, ConcurrentFetchEngine fetchEngine,
+                             PriceHistoryService priceHistoryService, PriceAlertRepository priceAlertRepository,
+                             TransactionTemplate transactionTemplate, ProductFetchRetryService productFetchRetryService,
+                             RefreshScheduler refreshScheduler, PriceUpdateBroadcaster priceUpdateBroadcaster,
+                             PriceCheckMetrics metrics,
+                             @Value("${application.price-check.retry.batch-size:100}") int retryBatchSize) {
+        this.emailOutboxService = emailOutboxService;
+        this.fetchEngine = fetchEngine;
+        this.priceHistoryService = priceHistoryService;
+        this.priceAlertRepository = priceAlertRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.productFetchRetryService = productFetchRetryService;
+        this.refreshScheduler = refreshScheduler;
+        this.priceUpdateBroadcaster = priceUpdateBroadcaster;
+        this.metrics = metrics;
+        this.retryBatchSize = retryBatchSize;
+    }
+
+    /**
+     * Fetches current prices for a list of requested products from the Super C website.
+     * Only the distinct product numbers of the requests are kept, so that each product page is fetched
+     * and parsed only once per run, no matter how many users are tracking it. Pages are fetched
+     * concurrently by the {@link ConcurrentFetchEngine}, and the observed prices are written
+     * back through the {@link PriceHistoryService}.
+     * Alerts are then evaluated in the database by a single set-based statement over every request
+     * tracking a refreshed product, including requests outside this chunk: once refreshed, a product is
+     * not due again for a while, so later chunks of the run skip it. A request alerts when its product's
+     * price first reaches the desired maximum, and again only if the price drops further; every user with
+     * at least one such alert gets one consolidated email, queued in the outbox in the same transaction
+     * as the alert state change.
+     *
+     * @param sqlList a {@link List} of {@link DueTrackingRequest} rows of products that are due for a check.
+     * @param proceed Checked before each page is fetched; once false, the pages not yet fetched are skipped.
+     */
+    public void fetchPrices(List<DueTrackingRequest> sqlList, BooleanSupplier proceed) {
 
+        Set<String> productNumbers = new LinkedHashSet<>();
+        for (DueTrackingRequest item : sqlList) {
+            if (item.getProductNumber() == null) {
+                log.warn("Skipping price tracking request {} with no product number.", item.getId());
+                continue;
+            }
+            productNumbers.add(item.getProductNumber());
+        }
+        log.info("Checking {} distinct products for {} tracking requests.", productNumbers.size(), sqlList.size());
+        if (productNumbers.isEmpty()) {
+            return;
+        }
 
-    public DailyPriceChecker(EmailSenderService emailSenderService) {
-        this.emailSenderService = emailSenderService;
+        checkProducts(productNumbers, proceed);
     }
 
     /**
-     * Fetches current prices for a list of requested products from the Super C website.
-     * If a product's current price is less than or equal to the user's desired maximum price,
-     * an email notification is prepared.
+     * Checks the products whose earlier fetches failed and are now due for another attempt, batch by batch,
+     * evaluating the alerts of every request tracking them. Stops early when a whole batch fails again,
+     * since the site is then most likely still unavailable.
+     *
+     * @return The number of products fetched successfully.
+     */
+    public int retryFailedFetches() {
+        int fetched = 0;
+        List<String> due;
+        while (!(due = productFetchRetryService.claimDue(retryBatchSize)).isEmpty()) {
+            log.info("Retrying {} product fetches that failed earlier.", due.size());
+            int batchFetched = checkProducts(due, () -> true);
+            fetched += batchFetched;
+            if (batchFetched == 0) {
+                break;
+            }
+        }
+        return fetched;
+    }
+
+    /**
+     * Fetches the given products, records their prices, schedules their next check, schedules failed
+     * fetches for retry and evaluates the alerts of every request tracking a refreshed product.
      *
-     * @param sqlList a {@link List} of {@link PriceTrackingRequest} objects.
-     * @throws IOException .
+     * @param productNumbers The distinct product numbers to check.
+     * @param proceed Checked before each page is fetched; once false, the pages not yet fetched are skipped.
+     * @return The number of products whose page was fetched.
+     */
+    private int checkProducts(Collection<String> productNumbers, BooleanSupplier proceed) {
+        FetchBatchResult fetched = fetchEngine.fetchAll(productNumbers, proceed);
+        productFetchRetryService.recordOutcomes(fetched.getProducts().keySet(), fetched.getFailures());
+        List<PriceObservation> observations = priceHistoryService.record(fetched.getProducts(), Instant.now());
+        refreshScheduler.scheduleNextChecks(fetched.getProducts().keySet());
+        priceUpdateBroadcaster.publish(observations);
+        metrics.productsUnmatched(fetched.getProducts().size() - observations.size());
+        if (observations.isEmpty()) {
+            log.info("No prices observed; no alerts to evaluate.");
+            return fetched.getProducts().size();
+        }
+
+        Set<String> refreshedProducts = new LinkedHashSet<>();
+        observations.forEach(observation -> refreshedProducts.add(observation.getProductNumber()));
+
+        log.info("Queuing price alert emails for users...");
+        UserAlertEmailer emailer = new UserAlertEmailer();
+        Integer rearmed = transactionTemplate.execute(status -> {
+            int count = priceAlertRepository.evaluate(refreshedProducts, Instant.now(), emailer);
+            emailer.flush();
+            return count;
+        });
+        // Counted only once committed, so alerts rolled back with a failed transaction are not.
+        metrics.alertsTriggered(emailer.getTriggered());
+        log.info("Queued {} price alert emails; {} alerts re-armed.", emailer.getQueued(), rearmed);
+        return fetched.getProducts().size();
+    }
+
+    /**
+     * Collects the triggered alerts of one user at a time and queues that user a consolidated email
+     * as soon as the stream moves on to the next user. Relies on alerts arriving grouped by user.
      */
-    public void fetchPrices(List<PriceTrackingRequest> sqlList) {
-
-        Pattern pricePattern = Pattern.compile("(\\d+\\.\\d{2})");
-
-        Map<String, List<String>> userPriceAlerts = new HashMap<>();
-
-        for (PriceTrackingRequest item : sqlList) {
-            String url = "https://www.superc.ca/en/search?filter=" + item.getProductNumber();
-            String userEmail = item.getUser().getEmail();
-
-            try {
-                Document document = Jsoup.connect(url).get();
-                Elements products = document.select(".pt__content");
-
-                if (products.isEmpty()) {
-                    log.warn("No products found for product number: {} at URL: {}", item.getProductNumber(), url);
-                    continue;
-                }
-
-                for (Element product : products) {
-                    String title = product.select(".head__title").text();
-                    double currentProductPrice = 0.0;
-                    Element priceElement = product.selectFirst(".pricing__sale-price");
-
-                    if (priceElement != null) {
-                        String fullPriceText = priceElement.text().trim();
-                        Matcher matcher = pricePattern.matcher(fullPriceText);
-
-                        if (matcher.find()) {
-                            String numericalPriceString = matcher.group(1);
-                            try {
-                                currentProductPrice = Double.parseDouble(numericalPriceString);
-                            } catch (NumberFormatException e) {
-                                log.error("Could not parse extracted price: '{}' for product: '{}' from URL: {}", numericalPriceString, title, url, e);
-                            }
-                        } else {
-                            log.warn("No numerical price found in: '{}' for product: '{}' from URL: {}", fullPriceText, title, url);
-                        }
-                    } else {
-                        log.warn("Price element not found for product number: {} at URL: {}", item.getProductNumber(), url);
-                    }
-
-                    log.info("======================================");
-                    log.info("Product: '{}', Current Price: {}, Max Desired Price: {}", title, currentProductPrice, item.getMaxPrice());
-
-
-                    if (currentProductPrice > 0 && currentProductPrice <= item.getMaxPrice()) {
-                        log.info("ALERT for {}: Current price for {} is {} (below or at desired {})", userEmail, title, currentProductPrice, item.getMaxPrice());
-                        userPriceAlerts.computeIfAbsent(userEmail, k -> new ArrayList<>())
-                                .add(String.format("- %s: Current price $%.2f (Desired: $%.2f)", title, currentProductPrice, item.getMaxPrice()));
-                    }
-                }
-            } catch (IOException e) {
-                log.error("Error fetching prices for product number {} from URL {}: {}", item.getProductNumber(), url, e.getMessage(), e);
+    private class UserAlertEmailer implements Consumer<TriggeredAlert> {
+
+        private String email;
+        private final List<String> alerts = new ArrayList<>();
+        private int queued;
+        private int triggered;
+
+        @Override
+        public void accept(TriggeredAlert alert) {
+            if (!alert.getEmail().equals(email)) {
+                flush();
+                email = alert.getEmail();
             }
+            triggered++;
+            log.info("ALERT for {}: Current price for {} is {} (below or at desired {})", alert.getEmail(), alert.getProductName(), alert.getCurrentPrice(), alert.getMaxPrice());
+            alerts.add(String.format("- %s: Current price $%.2f (Desired: $%.2f)", alert.getProductName(), alert.getCurrentPrice(), alert.getMaxPrice()));
         }
 
-        log.info("Sending price alert emails to users...");
-        userPriceAlerts.forEach((email, alerts) -> {
+        /**
+         * Queues the email for the user collected so far, if any.
+         */
+        void flush() {
+            if (email == null || alerts.isEmpty()) {
+                return;
+            }
             String subject = "Super C Price Alerts!";
             StringBuilder body = new StringBuilder("Dear Super C shopper,\n\n");
             body.append("Great news! Some products you're tracking are now at or below your desired price:\n\n");
             alerts.forEach(alert -> body.append(alert).append("\n"));
             body.append("\nHappy shopping!\nYour Super C Price Tracker");
-            emailSenderService.sendNotificationsEmail(email, subject, body.toString());
-            log.info("Sent consolidated email to {} with {} alerts.", email, alerts.size());
-        });
-        log.info("Finished sending price alert emails.");
+            emailOutboxService.enqueue(email, subject, body.toString());
+            log.info("Queued consolidated email to {} with {} alerts.", email, alerts.size());
+            alerts.clear();
+            queued++;
+        }
+
+        int getQueued() {
+            return queued;
+        }
+
+        int getTriggered() {
+            return triggered;
+        }
     }
-}
\ No newline at end of file
+}
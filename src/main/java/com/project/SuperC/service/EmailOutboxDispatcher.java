@@ -0,0 +1,138 @@
+/**
+ * Background component that drains the email outbox.
+ * It claims due messages in batches and delivers each batch in parallel on a pool of sending threads kept for the
+ * life of the bean, one per connection of the {@link EmailSenderService}'s SMTP pool, and reports each delivery or
+ * failure back to the {@link EmailOutboxService}. It is driven by a Quartz job, so slow or unavailable
+ * SMTP never holds up scraping or HTTP request threads.
+ * Every outbox message, whether a price alert or a password reset, is counted in
+ * {@code email_outbox_deliveries_total}, tagged {@code result=sent|failed}.
+ */
+package com.project.SuperC.service;
+
+import com.project.SuperC.models.EmailOutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxService emailOutboxService;
+    private final EmailSenderService emailSenderService;
+    private final Counter deliveriesSent;
+    private final Counter deliveriesFailed;
+    private final int batchSize;
+    private final Duration sentRetention;
+    /**
+     * Platform threads rather than virtual ones: Jakarta Mail's transport blocks on socket reads
+     * inside synchronized methods, which would pin the virtual threads' carriers.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Constructs an EmailOutboxDispatcher.
+     *
+     * @param emailOutboxService The service managing outbox messages.
+     * @param emailSenderService The service delivering individual emails.
+     * @param registry The registry the delivery counters are published to.
+     * @param batchSize The number of messages claimed at a time.
+     * @param parallelism The number of sending threads, matching the SMTP connection pool size.
+     * @param sentRetentionDays How many days delivered messages are kept before being purged.
+     */
+    public EmailOutboxDispatcher(EmailOutboxService emailOutboxService,
+                                 EmailSenderService emailSenderService,
+                                 MeterRegistry registry,
+                                 @Value("${application.email.outbox.batch-size:100}") int batchSize,
+                                 @Value("${application.email.smtp.pool-size:4}") int parallelism,
+                                 @Value("${application.email.outbox.sent-retention-days:7}") long sentRetentionDays) {
+        this.emailOutboxService = emailOutboxService;
+        this.emailSenderService = emailSenderService;
+        this.deliveriesSent = Counter.builder("email.outbox.deliveries")
+                .description("Outbox emails handed to the mail server")
+                .tag("result", "sent")
+                .register(registry);
+        this.deliveriesFailed = Counter.builder("email.outbox.deliveries")
+                .description("Outbox emails handed to the mail server")
+                .tag("result", "failed")
+                .register(registry);
+        this.batchSize = batchSize;
+        this.sentRetention = Duration.ofDays(sentRetentionDays);
+        this.executor = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("email-outbox-", 1).factory());
+    }
+
+    /**
+     * Stops the sending threads once the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Delivers due messages batch by batch until none are left, then purges old delivered messages.
+     *
+     * @return The number of messages delivered.
+     */
+    public int dispatchPending() {
+        int delivered = 0;
+        int failed = 0;
+        List<EmailOutboxMessage> batch;
+        while (!(batch = emailOutboxService.claimDue(batchSize)).isEmpty()) {
+            Queue<Long> sent = new ConcurrentLinkedQueue<>();
+            AtomicInteger batchFailed = new AtomicInteger();
+            List<Callable<Void>> sends = new ArrayList<>(batch.size());
+            for (EmailOutboxMessage message : batch) {
+                sends.add(() -> {
+                    try {
+                        emailSenderService.sendNotificationsEmail(message.getRecipient(), message.getSubject(), message.getBody());
+                        sent.add(message.getId());
+                    } catch (Exception e) {
+                        emailOutboxService.markFailed(message, e);
+                        batchFailed.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            boolean interrupted = false;
+            try {
+                executor.invokeAll(sends);
+            } catch (InterruptedException e) {
+                // Unfinished sends are cancelled; what was delivered is recorded, the rest is due again after the claim timeout.
+                Thread.currentThread().interrupt();
+                interrupted = true;
+            }
+            emailOutboxService.markSent(new ArrayList<>(sent));
+            deliveriesSent.increment(sent.size());
+            deliveriesFailed.increment(batchFailed.get());
+            delivered += sent.size();
+            failed += batchFailed.get();
+            if (interrupted) {
+                break;
+            }
+            if (sent.isEmpty()) {
+                // Every message in the batch failed; the mail server is likely down, so wait for the next fire.
+                break;
+            }
+        }
+
+        int purged = emailOutboxService.purgeSent(sentRetention);
+        if (delivered > 0 || failed > 0 || purged > 0) {
+            log.info("Email outbox dispatch finished: {} delivered, {} failed, {} purged.", delivered, failed, purged);
+        }
+        return delivered;
+    }
+}
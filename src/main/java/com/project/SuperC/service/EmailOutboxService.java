@@ -0,0 +1,152 @@
+/**
+ * Service that manages the transactional email outbox.
+ * Callers enqueue emails inside their own transaction, so an email is stored if and only if the
+ * change that caused it commits. The {@link EmailOutboxDispatcher} then claims due messages in batches
+ * and reports back each delivery or failure; failures are retried with exponential backoff.
+ */
+package com.project.SuperC.service;
+
+import com.project.SuperC.models.EmailOutboxMessage;
+import com.project.SuperC.models.EmailOutboxStatus;
+import com.project.SuperC.repository.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@Slf4j
+public class EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final Duration claimTimeout;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+
+    /**
+     * Constructs an EmailOutboxService.
+     *
+     * @param emailOutboxRepository The repository storing outbox messages.
+     * @param claimTimeoutSeconds How long a claimed message is hidden from other dispatchers before it may be claimed again.
+     * @param initialBackoffSeconds The delay before the first retry; each further retry doubles it.
+     * @param maxBackoffSeconds The upper bound on the delay between retries.
+     * @param maxAttempts The number of attempts after which a message is marked as failed for good.
+     */
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              @Value("${application.email.outbox.claim-timeout-seconds:300}") long claimTimeoutSeconds,
+                              @Value("${application.email.outbox.initial-backoff-seconds:30}") long initialBackoffSeconds,
+                              @Value("${application.email.outbox.max-backoff-seconds:3600}") long maxBackoffSeconds,
+                              @Value("${application.email.outbox.max-attempts:10}") int maxAttempts) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Adds an email to the outbox as part of the caller's transaction, or in its own if there is none.
+     * The email is delivered asynchronously once the transaction commits.
+     *
+     * @param recipient The recipient's email address.
+     * @param subject The email subject.
+     * @param body The plain-text email body.
+     */
+    @Transactional
+    public void enqueue(String recipient, String subject, String body) {
+        Instant now = Instant.now();
+        emailOutboxRepository.save(EmailOutboxMessage.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    /**
+     * Claims up to {@code limit} messages that are due for delivery. Claimed messages are hidden from
+     * other dispatchers for the claim timeout, after which they become due again if this node never
+     * reported on them.
+     *
+     * @param limit The maximum number of messages to claim.
+     * @return The claimed messages, oldest first.
+     */
+    @Transactional
+    public List<EmailOutboxMessage> claimDue(int limit) {
+        Instant now = Instant.now();
+        List<EmailOutboxMessage> due = emailOutboxRepository.findDue(now, limit);
+        due.forEach(message -> message.setNextAttemptAt(now.plus(claimTimeout)));
+        return emailOutboxRepository.saveAll(due);
+    }
+
+    /**
+     * Marks messages as delivered.
+     *
+     * @param ids The ids of the delivered messages.
+     */
+    public void markSent(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            emailOutboxRepository.markSent(ids, Instant.now());
+        }
+    }
+
+    /**
+     * Records a failed delivery attempt. The message is scheduled for another attempt after an
+     * exponentially growing, jittered delay, or marked as failed once it has used all its attempts.
+     *
+     * @param message The message whose delivery failed.
+     * @param error The cause of the failure.
+     */
+    @Transactional
+    public void markFailed(EmailOutboxMessage message, Exception error) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        String errorMessage = String.valueOf(error.getMessage());
+        message.setLastError(errorMessage.length() > MAX_ERROR_LENGTH ? errorMessage.substring(0, MAX_ERROR_LENGTH) : errorMessage);
+
+        if (attempts >= maxAttempts) {
+            message.setStatus(EmailOutboxStatus.FAILED);
+            log.error("Giving up on email {} to {} after {} attempts: {}", message.getId(), message.getRecipient(), attempts, errorMessage);
+        } else {
+            Duration delay = backoff(attempts);
+            message.setNextAttemptAt(Instant.now().plus(delay));
+            log.warn("Email {} to {} failed (attempt {} of {}), retrying in {}s: {}",
+                    message.getId(), message.getRecipient(), attempts, maxAttempts, delay.toSeconds(), errorMessage);
+        }
+        emailOutboxRepository.save(message);
+    }
+
+    /**
+     * Deletes delivered messages older than the given retention period.
+     *
+     * @param retention How long delivered messages are kept.
+     * @return The number of messages deleted.
+     */
+    public int purgeSent(Duration retention) {
+        return emailOutboxRepository.deleteSentBefore(Instant.now().minus(retention));
+    }
+
+    /**
+     * Computes the delay before the next attempt: the initial backoff doubled for every previous failure,
+     * capped at the maximum, with up to half of it randomized so failed messages do not retry in lockstep.
+     *
+     * @param attempts The number of failed attempts so far.
+     * @return The delay before the next attempt.
+     */
+    private Duration backoff(int attempts) {
+        long cap = maxBackoff.toMillis();
+        long exponential = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        long delay = exponential <= 0 ? cap : Math.min(exponential, cap);
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+}
@@ -1,33 +1,110 @@
 package com.project.SuperC.service;
 
-import lombok.AllArgsConstructor;
+import com.project.SuperC.scraper.TokenBucketRateLimiter;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 /**
  * Service for sending email notifications.
+ * Emails are not sent from request or price-check threads directly: callers enqueue them through
+ * the {@link EmailOutboxService}, and the {@link EmailOutboxDispatcher} delivers them through this service.
+ * Messages are sent over connections borrowed from the {@link SmtpTransportPool}, so many messages
+ * share one SMTP handshake, and a per-minute send budget keeps bulk alert runs within the mail
+ * provider's limits. This class is safe to call from many threads at once.
  */
 @Service
-@AllArgsConstructor
 @Slf4j
 public class EmailSenderService {
 
-    private final JavaMailSender mailSender;
+    private static final String FROM = "your_sender_email@example.com";
 
+    private final JavaMailSenderImpl mailSender;
+    private final SmtpTransportPool transportPool;
+    private final TokenBucketRateLimiter sendBudget;
+
+    /**
+     * Constructs an EmailSenderService.
+     *
+     * @param mailSender The mail sender used to create messages.
+     * @param transportPool The pool of SMTP connections messages are sent over.
+     * @param maxPerMinute The maximum number of emails sent per minute across all threads; 0 disables the budget.
+     */
+    public EmailSenderService(JavaMailSenderImpl mailSender,
+                              SmtpTransportPool transportPool,
+                              @Value("${application.email.smtp.max-per-minute:1000}") int maxPerMinute) {
+        this.mailSender = mailSender;
+        this.transportPool = transportPool;
+        this.sendBudget = maxPerMinute > 0 ? new TokenBucketRateLimiter(maxPerMinute / 60.0, transportPool.getSize()) : null;
+    }
+
+    /**
+     * Sends a plain-text email, waiting for the send budget and a free SMTP connection if necessary.
+     *
+     * @param toEmail The recipient's email address.
+     * @param subject The email subject.
+     * @param body The plain-text email body.
+     * @throws org.springframework.mail.MailException if the email could not be sent; the outbox retries it later.
+     */
     public void sendNotificationsEmail(String toEmail, String subject, String body) {
+        MimeMessage message = mailSender.createMimeMessage();
+        try {
+            MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+            helper.setFrom(FROM);
+            helper.setTo(toEmail);
+            helper.setSubject(subject);
+            helper.setText(body);
+            message.saveChanges();
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Could not build email to " + toEmail, e);
+        }
+
+        try {
+            if (sendBudget != null) {
+                sendBudget.acquire();
+            }
+            send(message, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while sending email to " + toEmail, e);
+        }
+        log.info("Email sent successfully to {} with subject: {}", toEmail, subject);
+    }
+
+    /**
+     * Sends a message over a pooled connection. A connection that has been idle in the pool may have been
+     * dropped by the server, so a failure on a reused connection is retried once on a fresh one.
+     *
+     * @param message The prepared message.
+     * @param retryOnReusedConnection Whether a failure on a reused connection may be retried.
+     * @throws InterruptedException if interrupted while waiting for a connection.
+     */
+    private void send(MimeMessage message, boolean retryOnReusedConnection) throws InterruptedException {
+        SmtpTransportPool.PooledTransport pooled;
+        try {
+            pooled = transportPool.borrow();
+        } catch (MessagingException e) {
+            throw new MailSendException("Mail server connection failed", e);
+        }
+
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("your_sender_email@example.com");
-            message.setTo(toEmail);
-            message.setSubject(subject);
-            message.setText(body);
-
-            mailSender.send(message);
-            log.info("Email sent successfully to {} with subject: {}", toEmail, subject);
-        } catch (Exception e) {
-            log.error("Failed to send email to {} with subject {}: {}", toEmail, subject, e.getMessage(), e);
+            pooled.getTransport().sendMessage(message, message.getAllRecipients());
+            transportPool.release(pooled);
+        } catch (MessagingException e) {
+            transportPool.discard(pooled);
+            if (retryOnReusedConnection && pooled.isReused() && !(e instanceof SendFailedException)) {
+                log.debug("Pooled SMTP connection failed ({}); retrying on a new connection.", e.getMessage());
+                send(message, false);
+                return;
+            }
+            throw new MailSendException("Failed to send email", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,506 @@
+/**
+ * Matches product names despite typos and missing accents, for searches where no name contains the term as typed.
+ * Names and search terms are folded: accents are stripped, ligatures such as "œ" spelled out and everything
+ * lower-cased, then split into words. Each search word matches the dictionary words within a few edits of it,
+ * an edit being an inserted, deleted or replaced character or two swapped neighbours (restricted
+ * Damerau-Levenshtein distance), so "yougourt", "fromag" and "creme glacee" find "Yogourt", "Fromage" and
+ * "Crème glacée". Short words allow fewer edits, words of three characters or less, or containing digits, must
+ * match exactly, and the first letter must always match.
+ * <p>
+ * The dictionary is a sorted array of the distinct folded words, each with the sorted list of products using it.
+ * A search walks the array like a trie, keeping one row of the edit-distance table per character of the
+ * current prefix; rows are reused across words sharing a prefix, and once a row exceeds the allowed edits,
+ * every word with that prefix is skipped with a binary search. This simulates a Levenshtein automaton over the
+ * dictionary without building one. A product matches when every search word matches one of its words, and
+ * products are ranked by their total number of edits, then like typeahead suggestions: most tracked first,
+ * then by shorter name.
+ * <p>
+ * The dictionary is immutable; it is rebuilt from the database at a fixed interval and swapped in.
+ */
+package com.project.SuperC.service;
+
+import com.project.SuperC.dto.ProductSuggestion;
+import com.project.SuperC.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class FuzzyProductMatcher {
+
+    /**
+     * Words of a search term beyond this many are ignored, which bounds the cost of pasted text.
+     */
+    static final int MAX_SEARCH_WORDS = 8;
+
+    private final ProductRepository productRepository;
+    private final long rebuildMinutes;
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("fuzzy-product-matcher").daemon().factory());
+    private volatile Dictionary dictionary = new Dictionary(List.of());
+
+    /**
+     * Constructs a FuzzyProductMatcher and registers its size gauges.
+     *
+     * @param productRepository The repository product names and tracker counts are read from.
+     * @param registry The registry the size gauges are published to.
+     * @param rebuildMinutes The interval between rebuilds from the database.
+     */
+    public FuzzyProductMatcher(ProductRepository productRepository, MeterRegistry registry,
+                               @Value("${application.search.fuzzy.rebuild-minutes:15}") long rebuildMinutes) {
+        this.productRepository = productRepository;
+        this.rebuildMinutes = rebuildMinutes;
+        Gauge.builder("product.search.fuzzy.products", this, matcher -> matcher.dictionary.productNumbers.length)
+                .description("Products held by the fuzzy search dictionary")
+                .register(registry);
+        Gauge.builder("product.search.fuzzy.words", this, matcher -> matcher.dictionary.words.length)
+                .description("Distinct folded words in the fuzzy search dictionary")
+                .register(registry);
+        Gauge.builder("product.search.fuzzy.postings", this, matcher -> matcher.dictionary.postingsBytes())
+                .description("Bytes held by the fuzzy search dictionary's posting lists")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Builds the dictionary in the background once the application is ready, then rebuilds it at the configured interval.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuilder.scheduleWithFixedDelay(this::rebuild, 0, rebuildMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Reloads product names and tracker counts from the database and swaps the new dictionary in.
+     */
+    public void rebuild() {
+        try {
+            long start = System.nanoTime();
+            load(productRepository.findSuggestions());
+            Dictionary built = dictionary;
+            log.info("Built the fuzzy search dictionary: {} products, {} words, {} KB of postings in {} ms.",
+                    built.productNumbers.length, built.words.length, built.postingsBytes() / 1024,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Failed to build the fuzzy search dictionary; fuzzy searches keep using the previous one.", e);
+        }
+    }
+
+    /**
+     * Finds products whose name has, for every word of the term, a word within the allowed number of edits.
+     *
+     * @param term The search term, in any case and with or without accents.
+     * @param candidates The maximum number of matching products ranked.
+     * @param offset The number of ranked products to skip.
+     * @param limit The maximum number of products to return.
+     * @return The product numbers of the matching products, fewest edits first; empty when some word matches nothing.
+     */
+    public List<String> search(String term, int candidates, int offset, int limit) {
+        List<String> words = words(fold(term == null ? "" : term));
+        if (words.isEmpty() || offset >= candidates || limit < 1) {
+            return List.of();
+        }
+        return dictionary.search(words.subList(0, Math.min(words.size(), MAX_SEARCH_WORDS)),
+                Math.min(candidates, offset + limit), offset);
+    }
+
+    /**
+     * Replaces the dictionary with one built from the given products.
+     *
+     * @param products Every product with its tracker count.
+     */
+    void load(Collection<ProductSuggestion> products) {
+        dictionary = new Dictionary(products);
+    }
+
+    /**
+     * Strips accents, spells out the "œ", "æ" and "ß" ligatures and lower-cases the text.
+     */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            switch (c) {
+                case 'œ', 'Œ' -> folded.append("oe");
+                case 'æ', 'Æ' -> folded.append("ae");
+                case 'ß' -> folded.append("ss");
+                default -> folded.append(Character.toLowerCase(c));
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Splits folded text into its runs of letters and digits.
+     */
+    static List<String> words(String folded) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean inWord = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                words.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * The number of edits a search word may be away from a dictionary word: none for words of three characters
+     * or less and for sizes or other words with digits, one up to seven characters and two beyond.
+     */
+    static int maxEdits(String word) {
+        if (word.length() <= 3 || word.chars().anyMatch(Character::isDigit)) {
+            return 0;
+        }
+        return word.length() <= 7 ? 1 : 2;
+    }
+
+    /**
+     * One build of the dictionary. Products are numbered in ranking order, so lower numbers rank higher
+     * among products with the same number of edits.
+     */
+    private static final class Dictionary {
+
+        private final String[] productNumbers;
+        private final String[] words;
+        private final int[][] postings;
+
+        Dictionary(Collection<ProductSuggestion> products) {
+            ProductSuggestion[] ranked = products.stream()
+                    .filter(product -> product.getName() != null && product.getProductNumber() != null)
+                    .sorted(ProductSuggester.RANKING)
+                    .toArray(ProductSuggestion[]::new);
+            productNumbers = new String[ranked.length];
+            Map<String, Postings> documentsByWord = new HashMap<>();
+            for (int document = 0; document < ranked.length; document++) {
+                productNumbers[document] = ranked[document].getProductNumber();
+                for (String word : words(fold(ranked[document].getName()))) {
+                    documentsByWord.computeIfAbsent(word, key -> new Postings()).add(document);
+                }
+            }
+            words = documentsByWord.keySet().toArray(String[]::new);
+            Arrays.sort(words);
+            postings = new int[words.length][];
+            for (int i = 0; i < words.length; i++) {
+                Postings documents = documentsByWord.get(words[i]);
+                postings[i] = Arrays.copyOf(documents.documents, documents.size);
+            }
+        }
+
+        /**
+         * Intersects the search words' posting lists in ascending product order, leapfrogging: whenever a word's
+         * next product is past the current one, the search jumps to it, and cursors only move forward.
+         * Products are kept per total edit count, up to {@code wanted} each; once {@code wanted} products have the
+         * fewest edits any product could have, no later product can outrank them and the walk stops, so broad
+         * terms read only the start of their lists.
+         */
+        List<String> search(List<String> searchWords, int wanted, int offset) {
+            Cursor[][] lists = new Cursor[searchWords.size()][];
+            long[] sizes = new long[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = cursors(searchWords.get(i));
+                if (lists[i].length == 0) {
+                    return List.of();
+                }
+                for (Cursor cursor : lists[i]) {
+                    sizes[i] += cursor.documents.length;
+                }
+            }
+            Integer[] order = new Integer[lists.length];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, (a, b) -> Long.compare(sizes[a], sizes[b]));
+            int fewest = 0;
+            for (Cursor[] cursors : lists) {
+                int least = Integer.MAX_VALUE;
+                for (Cursor cursor : cursors) {
+                    least = Math.min(least, cursor.edits);
+                }
+                fewest += least;
+            }
+
+            int[][] byEdits = new int[2 * MAX_SEARCH_WORDS + 1][];
+            int[] counts = new int[byEdits.length];
+            int document = 0;
+            search:
+            while (counts[fewest] < wanted) {
+                int edits = 0;
+                for (Integer word : order) {
+                    int head = Integer.MAX_VALUE;
+                    int least = 0;
+                    for (Cursor cursor : lists[word]) {
+                        int next = cursor.seek(document);
+                        if (next < head || next == head && cursor.edits < least) {
+                            head = next;
+                            least = cursor.edits;
+                        }
+                    }
+                    if (head == Integer.MAX_VALUE) {
+                        break search;
+                    }
+                    if (head != document) {
+                        // Every word must hold the product, so none before this word's next one can match.
+                        document = head;
+                        continue search;
+                    }
+                    edits += least;
+                }
+                if (counts[edits] < wanted) {
+                    if (byEdits[edits] == null) {
+                        byEdits[edits] = new int[wanted];
+                    }
+                    byEdits[edits][counts[edits]++] = document;
+                }
+                document++;
+            }
+
+            List<String> page = new ArrayList<>();
+            int rank = 0;
+            for (int edits = 0; edits < byEdits.length && rank < wanted; edits++) {
+                for (int i = 0; i < counts[edits] && rank < wanted; i++, rank++) {
+                    if (rank >= offset) {
+                        page.add(productNumbers[byEdits[edits][i]]);
+                    }
+                }
+            }
+            return page;
+        }
+
+        /**
+         * Opens a cursor on the posting list of every dictionary word close enough to the search word.
+         */
+        private Cursor[] cursors(String searchWord) {
+            int edits = maxEdits(searchWord);
+            if (edits == 0) {
+                int index = Arrays.binarySearch(words, searchWord);
+                return index < 0 ? new Cursor[0] : new Cursor[]{new Cursor(postings[index], 0)};
+            }
+            int[] found = near(searchWord, edits);
+            Cursor[] cursors = new Cursor[found.length];
+            for (int i = 0; i < found.length; i++) {
+                cursors[i] = new Cursor(postings[found[i] >>> 2], found[i] & 3);
+            }
+            return cursors;
+        }
+
+        /**
+         * Walks the sorted dictionary like a trie, computing one row of the edit-distance table per character.
+         * Only words starting with the search word's first letter are walked: typos rarely hit the first letter,
+         * and allowing it would walk most of the dictionary for two-edit words.
+         * {@code rows[depth]} holds the distances between the first {@code depth} characters of the current
+         * dictionary word and every prefix of the search word; rows for a prefix shared with the previous word are kept.
+         *
+         * @return The matching words, each encoded as its index shifted left by two with its edit count in the low bits.
+         */
+        private int[] near(String searchWord, int maxEdits) {
+            int length = searchWord.length();
+            int maxDepth = length + maxEdits;
+            int[][] rows = new int[maxDepth + 1][length + 1];
+            for (int j = 0; j <= length; j++) {
+                rows[0][j] = j;
+            }
+            int[] found = new int[8];
+            int count = 0;
+            String previous = "";
+            int computed = 0;
+            char first = searchWord.charAt(0);
+            int i = lowerBound(String.valueOf(first));
+            int end = lowerBound(String.valueOf((char) (first + 1)));
+            while (i < end) {
+                String word = words[i];
+                int depth = Math.min(computed, commonPrefix(previous, word));
+                int dead = 0;
+                while (depth < word.length()) {
+                    if (depth == maxDepth || step(rows, depth, word, searchWord) > maxEdits) {
+                        dead = depth + 1;
+                        break;
+                    }
+                    depth++;
+                }
+                previous = word;
+                computed = depth;
+                if (dead > 0) {
+                    i = skip(i, word, dead);
+                    continue;
+                }
+                int edits = rows[depth][length];
+                if (edits <= maxEdits) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = i << 2 | edits;
+                }
+                i++;
+            }
+            return Arrays.copyOf(found, count);
+        }
+
+        /**
+         * Computes the row for the dictionary word's next character from the rows before it. A swap of two
+         * neighbours costs one edit, so the row two characters back is needed as well.
+         *
+         * @return The smallest distance in the row. Every later row has a larger minimum, so once it exceeds
+         * the allowed edits, no longer word can match.
+         */
+        private static int step(int[][] rows, int depth, String word, String searchWord) {
+            int[] row = rows[depth];
+            int[] next = rows[depth + 1];
+            char c = word.charAt(depth);
+            next[0] = row[0] + 1;
+            int min = next[0];
+            for (int j = 1; j < next.length; j++) {
+                int substitution = row[j - 1] + (searchWord.charAt(j - 1) == c ? 0 : 1);
+                next[j] = Math.min(substitution, Math.min(row[j], next[j - 1]) + 1);
+                if (depth > 0 && j > 1 && c == searchWord.charAt(j - 2) && word.charAt(depth - 1) == searchWord.charAt(j - 1)) {
+                    next[j] = Math.min(next[j], rows[depth - 1][j - 2] + 1);
+                }
+                min = Math.min(min, next[j]);
+            }
+            return min;
+        }
+
+        /**
+         * Finds the first word after index {@code from} that does not start with the first {@code length}
+         * characters of {@code word}. Words sharing a prefix are contiguous in the sorted dictionary, and
+         * usually few, so the search gallops forward before bisecting.
+         */
+        private int skip(int from, String word, int length) {
+            int low = from + 1;
+            int step = 1;
+            while (low < words.length && startsWith(words[low], word, length)) {
+                from = low;
+                low = from + step;
+                step <<= 1;
+            }
+            int high = Math.min(low, words.length);
+            low = from + 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (startsWith(words[middle], word, length)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static boolean startsWith(String candidate, String word, int length) {
+            return candidate.length() >= length && candidate.regionMatches(0, word, 0, length);
+        }
+
+        /**
+         * Finds the index of the first word not sorting before the key.
+         */
+        private int lowerBound(String key) {
+            int index = Arrays.binarySearch(words, key);
+            return index < 0 ? -index - 1 : index;
+        }
+
+        private static int commonPrefix(String a, String b) {
+            int length = Math.min(a.length(), b.length());
+            int i = 0;
+            while (i < length && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+
+        long postingsBytes() {
+            // Array headers are 16 bytes; the outer array holds one 4-byte compressed reference per word.
+            long bytes = 16 + 4L * postings.length;
+            for (int[] documents : postings) {
+                bytes += 16 + 4L * documents.length;
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * A growing posting list, filled in ascending product order while the dictionary is built.
+     */
+    private static final class Postings {
+
+        private int[] documents = new int[2];
+        private int size;
+
+        void add(int document) {
+            if (size > 0 && documents[size - 1] == document) {
+                return;
+            }
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+    }
+
+    /**
+     * A position in the posting list of a dictionary word matching a search word with the given number of edits.
+     */
+    private static final class Cursor {
+
+        private final int[] documents;
+        private final int edits;
+        private int position;
+
+        Cursor(int[] documents, int edits) {
+            this.documents = documents;
+            this.edits = edits;
+        }
+
+        /**
+         * Moves to the first product not before the given one, galloping ahead and then bisecting.
+         *
+         * @return That product, or {@link Integer#MAX_VALUE} once the list is exhausted.
+         */
+        int seek(int document) {
+            int low = position;
+            int step = 1;
+            while (low < documents.length && documents[low] < document) {
+                position = low + 1;
+                low += step;
+                step <<= 1;
+            }
+            int high = Math.min(low, documents.length);
+            while (position < high) {
+                int middle = (position + high) >>> 1;
+                if (documents[middle] < document) {
+                    position = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return position < documents.length ? documents[position] : Integer.MAX_VALUE;
+        }
+    }
+}
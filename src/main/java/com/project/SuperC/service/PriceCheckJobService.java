@@ -0,0 +1,172 @@
+/**
+ * Service that drives scheduled price-check runs across one or more application instances.
+ * Each run is split into partitions by hashing the product number. Every node that fires the
+ * job claims partitions one at a time through the {@link PriceCheckLeaseService}, walks the
+ * partition's tracking requests in ascending id order one chunk at a time, hands each chunk to
+ * the {@link DailyPriceChecker}, and records the last processed id after every chunk.
+ * Only requests whose product is due for a check according to the {@link RefreshScheduler} are read,
+ * so the job can fire often while each product is fetched only when its price is likely to have changed.
+ * If a node stops partway through, its partitions are resumed from their checkpoints by
+ * whichever node claims them once the lease expires.
+ */
+package com.project.SuperC.service;
+
+import com.project.SuperC.dto.DueTrackingRequest;
+import com.project.SuperC.metrics.PriceCheckMetrics;
+import com.project.SuperC.models.PriceCheckCheckpoint;
+import com.project.SuperC.repository.PriceTrackingRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Slf4j
+public class PriceCheckJobService {
+
+    /**
+     * The Quartz job key under which the price-check job is registered.
+     */
+    public static final JobKey PRICE_CHECK_JOB_KEY = JobKey.jobKey("priceCheckJob", "priceCheck");
+
+    private final PriceTrackingRequestRepository priceTrackingRequestRepository;
+    private final PriceCheckLeaseService leaseService;
+    private final DailyPriceChecker dailyPriceChecker;
+    private final Scheduler scheduler;
+    private final PriceCheckMetrics metrics;
+    private final int chunkSize;
+    private final int partitions;
+    private final Duration checkpointRetention;
+
+    /**
+     * Constructs a PriceCheckJobService with the necessary dependencies.
+     *
+     * @param priceTrackingRequestRepository The repository used to load tracking requests chunk by chunk.
+     * @param leaseService The service handing out partition leases and storing checkpoints.
+     * @param dailyPriceChecker The component that fetches prices and sends alerts for a chunk.
+     * @param scheduler The Quartz scheduler, used to trigger a run on demand.
+     * @param metrics The meters recording run duration and chunk load time.
+     * @param chunkSize The number of tracking requests processed between checkpoints.
+     * @param partitions The number of partitions each run is split into. Must be the same on every node.
+     * @param checkpointRetentionDays How many days the completed partitions of a run are kept before being purged.
+     */
+    public PriceCheckJobService(PriceTrackingRequestRepository priceTrackingRequestRepository,
+                                PriceCheckLeaseService leaseService,
+                                DailyPriceChecker dailyPriceChecker,
+                                Scheduler scheduler,
+                                PriceCheckMetrics metrics,
+                                @Value("${application.price-check.chunk-size:500}") int chunkSize,
+                                @Value("${application.price-check.partitions:16}") int partitions,
+                                @Value("${application.price-check.checkpoint-retention-days:7}") long checkpointRetentionDays) {
+        this.priceTrackingRequestRepository = priceTrackingRequestRepository;
+        this.leaseService = leaseService;
+        this.dailyPriceChecker = dailyPriceChecker;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.chunkSize = chunkSize;
+        this.partitions = partitions;
+        this.checkpointRetention = Duration.ofDays(checkpointRetentionDays);
+    }
+
+    /**
+     * Joins the run scheduled at the given time, creating its partitions if this node is the first to fire,
+     * then processes partitions until none are left to claim. Unfinished partitions of earlier runs are
+     * claimed first. Completed partitions older than the retention period are purged afterwards.
+     *
+     * @param scheduledAt The scheduled fire time identifying the run.
+     */
+    public void runScheduled(Instant scheduledAt) {
+        long start = System.nanoTime();
+        try {
+            leaseService.createRun(scheduledAt, partitions);
+            resumeUnfinishedRuns();
+            int purged = leaseService.purgeCompleted(checkpointRetention);
+            if (purged > 0) {
+                log.info("Purged {} completed price check partitions older than {} days.", purged, checkpointRetention.toDays());
+            }
+        } finally {
+            metrics.recordRun(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Claims and processes unfinished partitions, oldest run first, until none are left whose lease is free or expired.
+     * This covers partitions abandoned by this node before a restart as well as those of nodes that have died.
+     */
+    public void resumeUnfinishedRuns() {
+        Optional<PriceCheckCheckpoint> claimed;
+        while ((claimed = leaseService.claimNext()).isPresent()) {
+            processPartition(claimed.get());
+        }
+    }
+
+    /**
+     * Asks Quartz to fire the price-check job immediately on this node.
+     * Other nodes join the run the next time they look for unfinished partitions.
+     *
+     * @throws IllegalStateException if the job could not be triggered.
+     */
+    public void triggerNow() {
+        try {
+            scheduler.triggerJob(PRICE_CHECK_JOB_KEY);
+        } catch (SchedulerException e) {
+            throw new IllegalStateException("Failed to trigger price check job: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Processes a claimed partition chunk by chunk from its checkpoint until no requests remain
+     * or the lease is lost, either to another node or because it could not be renewed during a chunk.
+     *
+     * @param checkpoint The claimed checkpoint; its progress is updated and saved after every chunk.
+     */
+    private void processPartition(PriceCheckCheckpoint checkpoint) {
+        log.info("Processing partition {} of price check run scheduled at {} after request id {}.",
+                checkpoint.getPartitionNo(), checkpoint.getScheduledAt(), checkpoint.getLastProcessedId());
+
+        while (true) {
+            long loadStart = System.nanoTime();
+            List<DueTrackingRequest> chunk = priceTrackingRequestRepository.findDuePartitionChunkAfter(
+                    checkpoint.getLastProcessedId(), checkpoint.getPartitionNo(), partitions, Instant.now(), PageRequest.ofSize(chunkSize));
+            metrics.recordDbLoad(System.nanoTime() - loadStart);
+
+            if (chunk.isEmpty()) {
+                if (leaseService.complete(checkpoint)) {
+                    log.info("Partition {} of price check run scheduled at {} completed after {} requests.",
+                            checkpoint.getPartitionNo(), checkpoint.getScheduledAt(), checkpoint.getProcessedCount());
+                }
+                return;
+            }
+
+            boolean held;
+            try (PriceCheckLeaseService.Heartbeat heartbeat = leaseService.keepAlive(checkpoint)) {
+                dailyPriceChecker.fetchPrices(chunk, heartbeat::isHeld);
+                held = heartbeat.isHeld();
+            }
+            if (!held) {
+                // The chunk was cut short, so the checkpoint stays where it was for whoever claims the partition next.
+                log.warn("Stopped partition {} of price check run scheduled at {}: its lease was lost during a chunk.",
+                        checkpoint.getPartitionNo(), checkpoint.getScheduledAt());
+                return;
+            }
+
+            checkpoint.setLastProcessedId(chunk.get(chunk.size() - 1).getId());
+            checkpoint.setProcessedCount(checkpoint.getProcessedCount() + chunk.size());
+            if (!leaseService.advance(checkpoint)) {
+                log.warn("Lost the lease on partition {} of price check run scheduled at {}; another node has taken it over.",
+                        checkpoint.getPartitionNo(), checkpoint.getScheduledAt());
+                return;
+            }
+            log.info("Partition {} of price check run scheduled at {}: checkpoint at request id {} ({} processed).",
+                    checkpoint.getPartitionNo(), checkpoint.getScheduledAt(), checkpoint.getLastProcessedId(), checkpoint.getProcessedCount());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Service that hands out price-check partitions to application instances.
+ * Partitions are leased for a limited time: a node renews its lease after every chunk, and on a
+ * heartbeat while a chunk is being fetched, since a chunk against a slow site can take longer than
+ * the lease. A partition whose lease expires (because its node died or was redeployed) becomes
+ * claimable again, so the remaining nodes absorb the dead node's share of the work.
+ */
+package com.project.SuperC.service;
+
+import com.project.SuperC.models.PriceCheckCheckpoint;
+import com.project.SuperC.repository.PriceCheckCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class PriceCheckLeaseService {
+
+    private final PriceCheckCheckpointRepository checkpointRepository;
+    private final Duration leaseDuration;
+    private final String nodeId;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("price-check-lease-heartbeat").daemon().factory());
+
+    /**
+     * Constructs a PriceCheckLeaseService.
+     *
+     * @param checkpointRepository The repository storing partition checkpoints and leases.
+     * @param leaseSeconds How long a claimed partition stays reserved without a renewal.
+     * @param configuredNodeId An explicit node id; when blank, one is derived from the host name.
+     */
+    public PriceCheckLeaseService(PriceCheckCheckpointRepository checkpointRepository,
+                                  @Value("${application.price-check.lease-seconds:600}") long leaseSeconds,
+                                  @Value("${application.price-check.node-id:}") String configuredNodeId) {
+        this.checkpointRepository = checkpointRepository;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+        this.nodeId = configuredNodeId.isBlank() ? defaultNodeId() : configuredNodeId;
+        log.info("Price check node id: {}", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Stops renewing leases once the application shuts down, so they expire and other nodes take the partitions over.
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    /**
+     * Ensures partition rows exist for the run scheduled at the given time.
+     *
+     * @param scheduledAt The scheduled fire time identifying the run.
+     * @param partitions The number of partitions to split the run into.
+     */
+    public void createRun(Instant scheduledAt, int partitions) {
+        int created = checkpointRepository.createPartitions(scheduledAt, partitions, Instant.now());
+        if (created > 0) {
+            log.info("Created {} partitions for price check run scheduled at {}.", created, scheduledAt);
+        }
+    }
+
+    /**
+     * Deletes the completed partitions of runs scheduled longer ago than the retention period.
+     *
+     * @param retention How long completed partitions are kept.
+     * @return The number of partitions deleted.
+     */
+    public int purgeCompleted(Duration retention) {
+        return checkpointRepository.deleteCompletedBefore(Instant.now().minus(retention));
+    }
+
+    /**
+     * Claims the oldest unfinished partition that is not leased by a live node.
+     *
+     * @return An {@link Optional} containing the claimed {@link PriceCheckCheckpoint}, or empty if there is no work left.
+     */
+    @Transactional
+    public Optional<PriceCheckCheckpoint> claimNext() {
+        Instant now = Instant.now();
+        return checkpointRepository.findClaimable(now).map(checkpoint -> {
+            if (checkpoint.getOwnerNode() != null && !nodeId.equals(checkpoint.getOwnerNode())) {
+                log.info("Taking over partition {} of run {} from node {} whose lease expired at {}.",
+                        checkpoint.getPartitionNo(), checkpoint.getScheduledAt(), checkpoint.getOwnerNode(), checkpoint.getLeaseExpiresAt());
+            }
+            checkpoint.setOwnerNode(nodeId);
+            checkpoint.setLeaseExpiresAt(now.plus(leaseDuration));
+            checkpoint.setUpdatedAt(now);
+            return checkpointRepository.save(checkpoint);
+        });
+    }
+
+    /**
+     * Records progress on a claimed partition and renews its lease.
+     *
+     * @param checkpoint The claimed checkpoint, with its progress fields already updated.
+     * @return true if the lease is still held, false if another node has taken the partition over.
+     */
+    public boolean advance(PriceCheckCheckpoint checkpoint) {
+        Instant now = Instant.now();
+        return checkpointRepository.advance(checkpoint.getId(), nodeId, checkpoint.getLastProcessedId(),
+                checkpoint.getProcessedCount(), now.plus(leaseDuration), now) == 1;
+    }
+
+    /**
+     * Renews the lease on a claimed partition every third of the lease duration until the returned
+     * {@link Heartbeat} is closed. Wrap each chunk in one, and stop the chunk once {@link Heartbeat#isHeld()}
+     * turns false.
+     *
+     * @param checkpoint The claimed checkpoint.
+     * @return The running heartbeat.
+     */
+    public Heartbeat keepAlive(PriceCheckCheckpoint checkpoint) {
+        Heartbeat heartbeat = new Heartbeat(checkpoint, Instant.now().plus(leaseDuration));
+        long periodMillis = Math.max(1, leaseDuration.toMillis() / 3);
+        heartbeat.renewal = heartbeats.scheduleWithFixedDelay(heartbeat::renew, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        return heartbeat;
+    }
+
+    /**
+     * Marks a claimed partition as completed.
+     *
+     * @param checkpoint The claimed checkpoint.
+     * @return true if the partition was completed by this node, false if the lease had been lost.
+     */
+    public boolean complete(PriceCheckCheckpoint checkpoint) {
+        return checkpointRepository.complete(checkpoint.getId(), nodeId, Instant.now()) == 1;
+    }
+
+    /**
+     * Builds a node id from the host name plus a random suffix, so restarts on the same host
+     * are distinguishable from the previous process.
+     *
+     * @return The generated node id.
+     */
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown-host";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Keeps the lease on one partition alive while a chunk of it is processed.
+     */
+    public final class Heartbeat implements AutoCloseable {
+
+        private final PriceCheckCheckpoint checkpoint;
+        private volatile Instant heldUntil;
+        private volatile boolean lost;
+        private volatile ScheduledFuture<?> renewal;
+
+        private Heartbeat(PriceCheckCheckpoint checkpoint, Instant heldUntil) {
+            this.checkpoint = checkpoint;
+            this.heldUntil = heldUntil;
+        }
+
+        /**
+         * Tells whether this node still holds the lease: no renewal found it taken over, and the last
+         * successful renewal has not expired, which also covers renewals failing on database errors.
+         *
+         * @return true while the chunk may go on.
+         */
+        public boolean isHeld() {
+            return !lost && Instant.now().isBefore(heldUntil);
+        }
+
+        private void renew() {
+            Instant now = Instant.now();
+            Instant expiresAt = now.plus(leaseDuration);
+            try {
+                if (checkpointRepository.renew(checkpoint.getId(), nodeId, expiresAt, now) == 1) {
+                    heldUntil = expiresAt;
+                    return;
+                }
+                lost = true;
+                renewal.cancel(false);
+                log.warn("Lost the lease on partition {} of price check run scheduled at {} while processing a chunk.",
+                        checkpoint.getPartitionNo(), checkpoint.getScheduledAt());
+            } catch (DataAccessException e) {
+                log.warn("Failed to renew the lease on partition {} of price check run scheduled at {}: {}",
+                        checkpoint.getPartitionNo(), checkpoint.getScheduledAt(), e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            renewal.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Service that records the prices observed by each price-check chunk.
+ * One observation is taken per product page: the first product tile with a price.
+ * Observations are written back to {@code products} and appended to the monthly-partitioned
+ * {@code price_history} table in the same transaction: the current price is replaced and the
+ * observation is folded into {@code average_price} as a running mean, so the average never
+ * requires a rescan of the history. Observations of product numbers missing from {@code products}
+ * are logged and skipped rather than creating placeholder products. Once committed, the products written are refreshed in the search index
+ * and evicted from the {@link ProductCache}, and the other nodes are told to do the same through the
+ * {@link CacheInvalidationBus}.
+ */
+package com.project.SuperC.service;
+
+import com.project.SuperC.models.PriceObservation;
+import com.project.SuperC.repository.PriceHistoryRepository;
+import com.project.SuperC.repository.ProductRepository;
+import com.project.SuperC.scraper.ScrapedProduct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class PriceHistoryService {
+
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductCache productCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    /**
+     * Constructs a PriceHistoryService.
+     *
+     * @param priceHistoryRepository The repository storing observations.
+     * @param productRepository The repository whose bulk update writes current and average prices.
+     * @param transactionTemplate The template wrapping the product update and history append in one transaction.
+     * @param productSearchIndex The in-memory search index refreshed with the products written.
+     * @param productCache The cache the products written are evicted from.
+     * @param cacheInvalidationBus The bus the products written are broadcast to the other nodes on.
+     */
+    public PriceHistoryService(PriceHistoryRepository priceHistoryRepository,
+                               ProductRepository productRepository,
+                               TransactionTemplate transactionTemplate,
+                               ProductSearchIndex productSearchIndex,
+                               ProductCache productCache,
+                               CacheInvalidationBus cacheInvalidationBus) {
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.productSearchIndex = productSearchIndex;
+        this.productCache = productCache;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    /**
+     * Records one observation for every product whose page yielded a price.
+     *
+     * @param scrapedByProduct The scraped products keyed by the product number their page was fetched for.
+     * @param observedAt The time the prices were observed.
+     * @return The observations that were recorded, leaving out those of unknown products.
+     */
+    public List<PriceObservation> record(Map<String, List<ScrapedProduct>> scrapedByProduct, Instant observedAt) {
+        List<PriceObservation> observations = new ArrayList<>();
+        scrapedByProduct.forEach((productNumber, products) -> products.stream()
+                .filter(product -> product.getPrice() > 0)
+                .findFirst()
+                .ifPresent(product -> observations.add(new PriceObservation(productNumber, product.getTitle(), product.getPrice(), observedAt))));
+
+        if (observations.isEmpty()) {
+            return observations;
+        }
+        priceHistoryRepository.ensureMonthlyPartition(YearMonth.from(observedAt.atOffset(ZoneOffset.UTC)));
+        List<PriceObservation> recorded = transactionTemplate.execute(status -> {
+            Set<String> updated = productRepository.updatePrices(observations);
+            List<PriceObservation> known = observations.stream()
+                    .filter(observation -> updated.contains(observation.getProductNumber()))
+                    .toList();
+            priceHistoryRepository.appendAll(known);
+            return known;
+        });
+        Set<String> written = recorded.stream().map(PriceObservation::getProductNumber).collect(Collectors.toSet());
+        log.info("Recorded {} price observations.", recorded.size());
+        if (recorded.size() < observations.size()) {
+            List<String> unknown = observations.stream()
+                    .map(PriceObservation::getProductNumber)
+                    .filter(productNumber -> !written.contains(productNumber))
+                    .toList();
+            log.warn("Skipped {} price observations for product numbers not in the catalogue: {}", unknown.size(), unknown);
+        }
+        productSearchIndex.refresh(written);
+        productCache.invalidate(written);
+        cacheInvalidationBus.productsWritten(written);
+        return recorded;
+    }
+}
@@ -8,6 +8,7 @@ package com.project.SuperC.service;
 import com.project.SuperC.dto.PriceTrackingRequestDto;
 import com.project.SuperC.dto.UserDashboardProductDto;
 import com.project.SuperC.models.PriceTrackingRequest;
+import com.project.SuperC.models.Product;
 import com.project.SuperC.models.User;
 import com.project.SuperC.repository.PriceTrackingRequestRepository;
 import com.project.SuperC.repository.ProductRepository;
@@ -15,8 +16,10 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -27,11 +30,15 @@ public class PriceTrackingService {
 
     private final PriceTrackingRequestRepository priceTrackingRequestRepository;
     private final ProductRepository productRepository;
+    private final PriceUpdateBroadcaster priceUpdateBroadcaster;
+    private final ProductService productService;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     /**
      * Creates a new price tracking request for a given user and product.
      * Before saving, it checks if the user is already tracking the same product
-     * to prevent duplicate entries.
+     * to prevent duplicate entries. The product is made due for a check right away, so the new request
+     * gets its first alert evaluation on the next run of the price-check job.
      *
      * @param newRequest The {@link PriceTrackingRequest} object containing the details of the request.
      * @param user The {@link User} for whom the price tracking request is being created.
@@ -48,7 +55,12 @@ public class PriceTrackingService {
         }
 
         newRequest.setUser(user);
-        return priceTrackingRequestRepository.save(newRequest);
+        productRepository.findByProductNumber(newRequest.getProductNumber())
+                .ifPresent(product -> product.setNextCheckAt(null));
+        PriceTrackingRequest saved = priceTrackingRequestRepository.save(newRequest);
+        priceUpdateBroadcaster.track(user.getId(), saved.getProductNumber());
+        cacheInvalidationBus.userChanged(user.getId());
+        return saved;
     }
 
     /**
@@ -80,18 +92,34 @@ public class PriceTrackingService {
         }
 
         priceTrackingRequestRepository.delete(request);
+        priceUpdateBroadcaster.untrack(userId, request.getProductNumber());
+        cacheInvalidationBus.userChanged(userId);
+    }
+
+    /**
+     * Opens a stream of live price updates for every product the user tracks.
+     * Products the user starts or stops tracking while the stream is open are added to or removed from it.
+     *
+     * @param userId The ID of the subscribing user.
+     * @return The {@link SseEmitter} the price updates are sent through.
+     */
+    public SseEmitter subscribeToPriceUpdates(Long userId) {
+        return priceUpdateBroadcaster.subscribe(userId, priceTrackingRequestRepository.findProductNumbersByUserId(userId));
     }
 
     /**
      * Retrieves a list of product details for a user's dashboard, based on their price tracking requests.
      * This method fetches the user's tracking requests and then enriches them with product details
-     * from the {@link ProductRepository}.
+     * from the {@link ProductService}, which serves cached products and reads the others in one query.
      *
      * @param userId The ID of the user for whom to retrieve dashboard product details.
      * @return A {@link List} of {@link UserDashboardProductDto} containing aggregated product information.
      */
     public List<UserDashboardProductDto> getUserDashboardProductDetails(Long userId) {
         List<PriceTrackingRequest> trackingRequests = priceTrackingRequestRepository.findByUserId(userId);
+        Map<String, Product> products = productService.getProductsByProductNumbers(trackingRequests.stream()
+                .map(PriceTrackingRequest::getProductNumber)
+                .collect(Collectors.toSet()));
 
         return trackingRequests.stream()
                 .map(request -> {
@@ -100,11 +128,12 @@ public class PriceTrackingService {
                     dto.setProductNumber(request.getProductNumber());
                     dto.setMaxPrice(request.getMaxPrice());
 
-                    productRepository.findByProductNumber(request.getProductNumber()).ifPresent(product -> {
+                    Product product = products.get(request.getProductNumber());
+                    if (product != null) {
                         dto.setProductName(product.getName());
                         dto.setProductImageUrl(product.getImageUrl());
                         dto.setCurrentPrice(product.getCurrentPrice()); // Added current price
-                    });
+                    }
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -0,0 +1,235 @@
+/**
+ * Pushes newly recorded prices to dashboard clients over Server-Sent Events.
+ * Subscriptions are indexed by product number, so a price change is delivered to every client watching
+ * that product with one map lookup, however many users or products there are. A second index by user
+ * lets tracking requests added or deleted while a stream is open take effect without reconnecting.
+ * Events are sent on virtual threads, so a slow client never holds up the price checker, and a comment
+ * is sent to every stream at a fixed interval to keep idle connections open through proxies.
+ * Subscriptions live on the node the client is connected to and only see prices checked on that node; tracking
+ * changes made on other nodes reach them through the {@link CacheInvalidationBus}.
+ */
+package com.project.SuperC.service;
+
+import com.project.SuperC.dto.PriceUpdateDto;
+import com.project.SuperC.models.PriceObservation;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class PriceUpdateBroadcaster {
+
+    private final Map<String, Set<Subscription>> subscriptionsByProduct = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscription>> subscriptionsByUser = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("price-update-heartbeat").daemon().factory());
+    private final Duration streamTimeout;
+
+    /**
+     * Constructs a PriceUpdateBroadcaster and starts its heartbeat.
+     *
+     * @param streamTimeoutMinutes How long a stream stays open before the client has to reconnect.
+     * @param heartbeatSeconds The interval between keep-alive comments sent on every open stream.
+     */
+    public PriceUpdateBroadcaster(@Value("${application.price-updates.stream-timeout-minutes:30}") long streamTimeoutMinutes,
+                                  @Value("${application.price-updates.heartbeat-seconds:25}") long heartbeatSeconds) {
+        this.streamTimeout = Duration.ofMinutes(streamTimeoutMinutes);
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens a stream of price updates for the given products of a user.
+     *
+     * @param userId The subscribing user.
+     * @param productNumbers The products the user currently tracks.
+     * @return The emitter to return from the controller; it is unregistered when it completes, times out or fails.
+     */
+    public SseEmitter subscribe(Long userId, Collection<String> productNumbers) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscription subscription = new Subscription(userId, emitter, ConcurrentHashMap.newKeySet());
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+
+        subscriptionsByUser.compute(userId, (id, subscriptions) -> add(subscriptions, subscription));
+        productNumbers.forEach(productNumber -> watch(subscription, productNumber));
+        log.debug("User {} subscribed to price updates for {} products.", userId, productNumbers.size());
+        return emitter;
+    }
+
+    /**
+     * Adds a product to every open stream of a user, after the user starts tracking it.
+     *
+     * @param userId The user who tracks the product.
+     * @param productNumber The newly tracked product.
+     */
+    public void track(Long userId, String productNumber) {
+        subscriptionsByUser.getOrDefault(userId, Set.of()).forEach(subscription -> watch(subscription, productNumber));
+    }
+
+    /**
+     * Removes a product from every open stream of a user, after the user stops tracking it.
+     *
+     * @param userId The user who tracked the product.
+     * @param productNumber The product no longer tracked.
+     */
+    public void untrack(Long userId, String productNumber) {
+        subscriptionsByUser.getOrDefault(userId, Set.of()).forEach(subscription -> unwatch(subscription, productNumber));
+    }
+
+    /**
+     * Tells whether the user has a stream open on this node.
+     *
+     * @param userId The user.
+     * @return True if at least one stream of the user is open.
+     */
+    public boolean isSubscribed(Long userId) {
+        return subscriptionsByUser.containsKey(userId);
+    }
+
+    /**
+     * Makes every open stream of a user watch exactly the given products, after its tracking requests changed on another node.
+     *
+     * @param userId The user.
+     * @param productNumbers The products the user now tracks.
+     */
+    public void retrack(Long userId, Collection<String> productNumbers) {
+        Set<String> tracked = Set.copyOf(productNumbers);
+        for (Subscription subscription : subscriptionsByUser.getOrDefault(userId, Set.of())) {
+            List.copyOf(subscription.productNumbers()).stream()
+                    .filter(productNumber -> !tracked.contains(productNumber))
+                    .forEach(productNumber -> unwatch(subscription, productNumber));
+            tracked.forEach(productNumber -> watch(subscription, productNumber));
+        }
+    }
+
+    /**
+     * Sends each observed price to every stream watching its product. Returns without waiting for the sends.
+     *
+     * @param observations The prices just recorded by the price checker.
+     */
+    public void publish(List<PriceObservation> observations) {
+        if (subscriptionsByProduct.isEmpty()) {
+            return;
+        }
+        for (PriceObservation observation : observations) {
+            Set<Subscription> subscriptions = subscriptionsByProduct.get(observation.getProductNumber());
+            if (subscriptions == null) {
+                continue;
+            }
+            PriceUpdateDto update = new PriceUpdateDto(observation.getProductNumber(), observation.getTitle(),
+                    observation.getPrice(), observation.getObservedAt());
+            for (Subscription subscription : subscriptions) {
+                senders.submit(() -> send(subscription, SseEmitter.event().name("price").data(update)));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of open streams on this node.
+     *
+     * @return The number of subscriptions.
+     */
+    public int getSubscriptionCount() {
+        return subscriptionsByUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Returns the products watched by the open streams of a user on this node.
+     *
+     * @param userId The user.
+     * @return The product numbers, empty if the user has no stream open.
+     */
+    Set<String> watchedBy(Long userId) {
+        return subscriptionsByUser.getOrDefault(userId, Set.of()).stream()
+                .flatMap(subscription -> subscription.productNumbers().stream())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Stops the heartbeat and closes every open stream, so clients reconnect to another node.
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        subscriptionsByUser.values().forEach(subscriptions -> subscriptions.forEach(subscription -> subscription.emitter().complete()));
+        senders.shutdown();
+    }
+
+    private void sendHeartbeats() {
+        subscriptionsByUser.values().forEach(subscriptions -> subscriptions.forEach(subscription ->
+                senders.submit(() -> send(subscription, SseEmitter.event().comment("keep-alive")))));
+    }
+
+    private void send(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        try {
+            subscription.emitter().send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the emitter's error callback may not fire until the next write.
+            log.debug("Dropping price update stream of user {}: {}", subscription.userId(), e.getMessage());
+            unsubscribe(subscription);
+            subscription.emitter().completeWithError(e);
+        }
+    }
+
+    private void watch(Subscription subscription, String productNumber) {
+        if (subscription.productNumbers().add(productNumber)) {
+            subscriptionsByProduct.compute(productNumber, (key, subscriptions) -> add(subscriptions, subscription));
+        }
+    }
+
+    private void unwatch(Subscription subscription, String productNumber) {
+        if (subscription.productNumbers().remove(productNumber)) {
+            subscriptionsByProduct.computeIfPresent(productNumber, (key, subscriptions) -> remove(subscriptions, subscription));
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscriptionsByUser.computeIfPresent(subscription.userId(), (id, subscriptions) -> remove(subscriptions, subscription));
+        List.copyOf(subscription.productNumbers()).forEach(productNumber -> unwatch(subscription, productNumber));
+    }
+
+    private static Set<Subscription> add(Set<Subscription> subscriptions, Subscription subscription) {
+        Set<Subscription> result = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+        result.add(subscription);
+        return result;
+    }
+
+    private static Set<Subscription> remove(Set<Subscription> subscriptions, Subscription subscription) {
+        subscriptions.remove(subscription);
+        return subscriptions.isEmpty() ? null : subscriptions;
+    }
+
+    /**
+     * One open stream and the products it watches. Compared by identity, so two streams of the same user are distinct.
+     */
+    private record Subscription(Long userId, SseEmitter emitter, Set<String> productNumbers) {
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
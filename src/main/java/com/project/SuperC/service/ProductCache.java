@@ -0,0 +1,177 @@
+/**
+ * Read-through, in-memory cache of products and of search result pages, so repeated product lookups, dashboard
+ * loads and popular searches do not reach Postgres every time. Both caches are bounded in size and expire
+ * entries a fixed time after they were loaded; Caffeine's frequency-based eviction keeps the popular search terms
+ * when the cache is full. Unknown product numbers are cached as absent too.
+ * <p>
+ * The price checker invalidates entries as soon as it writes prices: a repriced product is evicted along with
+ * every cached search page showing it. Other entries stay cached. Loads racing with a write are not
+ * stored: every invalidation bumps a generation counter, and a load only stores its result when the counter did
+ * not move while it read the database.
+ * <p>
+ * Hits, misses and evictions are published through Micrometer's Caffeine binder as the {@code cache_*} meters,
+ * tagged {@code cache="products"} and {@code cache="product_searches"}.
+ */
+package com.project.SuperC.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.SuperC.dto.ProductSummary;
+import com.project.SuperC.models.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Component
+public class ProductCache {
+
+    private final Cache<String, Optional<Product>> products;
+    private final Cache<SearchKey, Slice<ProductSummary>> searches;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructs a ProductCache and registers its metrics.
+     *
+     * @param registry The registry the hit, miss and eviction meters are published to.
+     * @param productsMaxSize The maximum number of products cached.
+     * @param productsTtlMinutes How long a product stays cached after it was loaded.
+     * @param searchesMaxSize The maximum number of search result pages cached.
+     * @param searchesTtlMinutes How long a search result page stays cached after it was loaded.
+     */
+    public ProductCache(MeterRegistry registry,
+                        @Value("${application.cache.products.max-size:10000}") long productsMaxSize,
+                        @Value("${application.cache.products.ttl-minutes:10}") long productsTtlMinutes,
+                        @Value("${application.cache.searches.max-size:2000}") long searchesMaxSize,
+                        @Value("${application.cache.searches.ttl-minutes:5}") long searchesTtlMinutes) {
+        this.products = Caffeine.newBuilder()
+                .maximumSize(productsMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(productsTtlMinutes))
+                .recordStats()
+                .build();
+        this.searches = Caffeine.newBuilder()
+                .maximumSize(searchesMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(searchesTtlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, products, "products");
+        CaffeineCacheMetrics.monitor(registry, searches, "product_searches");
+    }
+
+    /**
+     * Returns the product with the given number, loading it on a miss.
+     *
+     * @param productNumber The product number.
+     * @param loader Reads the product from the database.
+     * @return A copy of the cached product, which the caller may modify, or empty if there is no such product.
+     */
+    public Optional<Product> getProduct(String productNumber, Function<String, Optional<Product>> loader) {
+        Optional<Product> product = load(products, productNumber,
+                number -> loader.apply(number).map(ProductCache::copy));
+        return product.map(ProductCache::copy);
+    }
+
+    /**
+     * Returns the products with the given numbers, loading every missing one with a single call.
+     *
+     * @param productNumbers The product numbers.
+     * @param loader Reads the products with the given numbers from the database; numbers it omits are cached as absent.
+     * @return Copies of the products that exist, keyed by product number.
+     */
+    public Map<String, Product> getProducts(Collection<String> productNumbers, Function<Set<String>, List<Product>> loader) {
+        Map<String, Optional<Product>> loaded = new HashMap<>();
+        Map<String, Optional<Product>> found = products.getAll(productNumbers, missing -> {
+            long before = generation.get();
+            Map<String, Optional<Product>> read = new HashMap<>();
+            missing.forEach(number -> read.put(number, Optional.empty()));
+            for (Product product : loader.apply(new HashSet<>(missing))) {
+                read.put(product.getProductNumber(), Optional.of(copy(product)));
+            }
+            loaded.putAll(read);
+            return generation.get() == before ? read : Map.of();
+        });
+        Map<String, Product> result = new HashMap<>();
+        for (String productNumber : productNumbers) {
+            Optional<Product> product = found.getOrDefault(productNumber, loaded.getOrDefault(productNumber, Optional.empty()));
+            product.ifPresent(value -> result.put(productNumber, copy(value)));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a page of search results, running the search on a miss.
+     *
+     * @param term The normalized search term.
+     * @param fuzzy Whether the search falls back to typo-tolerant matching.
+     * @param pageable The page requested, after clamping.
+     * @param search Runs the search.
+     * @return The cached or freshly searched page.
+     */
+    public Slice<ProductSummary> getSearch(String term, boolean fuzzy, Pageable pageable, Supplier<Slice<ProductSummary>> search) {
+        return load(searches, new SearchKey(term, fuzzy, pageable.getPageNumber(), pageable.getPageSize()), key -> search.get());
+    }
+
+    /**
+     * Evicts what the price checker's writes made stale: the given products and every cached search page showing
+     * one of them.
+     *
+     * @param productNumbers The products whose price was written.
+     */
+    public void invalidate(Collection<String> productNumbers) {
+        if (productNumbers.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        products.invalidateAll(productNumbers);
+        Set<String> numbers = productNumbers instanceof Set<String> set ? set : new HashSet<>(productNumbers);
+        searches.asMap().values().removeIf(page ->
+                page.getContent().stream().anyMatch(product -> numbers.contains(product.getProductNumber())));
+    }
+
+    /**
+     * Evicts every product and search page, when invalidations may have been missed.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        products.invalidateAll();
+        searches.invalidateAll();
+    }
+
+    /**
+     * Loads a missing entry through the cache, so concurrent requests for the same key wait for one load. The
+     * result is only stored if no invalidation happened meanwhile, since it may have been read before the write.
+     */
+    private <K, V> V load(Cache<K, V> cache, K key, Function<K, V> loader) {
+        Object[] loaded = new Object[1];
+        V value = cache.get(key, missing -> {
+            long before = generation.get();
+            V read = loader.apply(missing);
+            loaded[0] = read;
+            return generation.get() == before ? read : null;
+        });
+        @SuppressWarnings("unchecked")
+        V result = value != null ? value : (V) loaded[0];
+        return result;
+    }
+
+    private static Product copy(Product product) {
+        return product.toBuilder().build();
+    }
+
+    private record SearchKey(String term, boolean fuzzy, int page, int size) {
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Service that keeps track of product pages that could not be fetched and schedules them for another attempt.
+ * Every failure pushes the product's next attempt back by an exponentially growing, jittered delay, so
+ * products that failed together during an outage do not all come back at the same moment. The product's
+ * own next check is pushed past its retry as well, so scheduled price checks leave it to the retry job
+ * instead of fetching it again during the backoff. A product is given up on after the maximum number of
+ * attempts; its next check is then left due, so the next scheduled price check picks it up again.
+ */
+package com.project.SuperC.service;
+
+import com.project.SuperC.models.ProductFetchRetry;
+import com.project.SuperC.repository.ProductFetchRetryRepository;
+import com.project.SuperC.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ProductFetchRetryService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ProductFetchRetryRepository productFetchRetryRepository;
+    private final ProductRepository productRepository;
+    private final Duration claimTimeout;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+
+    /**
+     * Constructs a ProductFetchRetryService.
+     *
+     * @param productFetchRetryRepository The repository storing pending retries.
+     * @param productRepository The repository whose next check times are pushed past pending retries.
+     * @param claimTimeoutSeconds How long a claimed retry is hidden from other nodes before it may be claimed again.
+     * @param initialBackoffSeconds The delay before the first retry; each further retry doubles it.
+     * @param maxBackoffSeconds The upper bound on the delay between retries.
+     * @param maxAttempts The number of failed fetches after which a product is left to the next scheduled run.
+     */
+    public ProductFetchRetryService(ProductFetchRetryRepository productFetchRetryRepository,
+                                    ProductRepository productRepository,
+                                    @Value("${application.price-check.retry.claim-timeout-seconds:600}") long claimTimeoutSeconds,
+                                    @Value("${application.price-check.retry.initial-backoff-seconds:300}") long initialBackoffSeconds,
+                                    @Value("${application.price-check.retry.max-backoff-seconds:3600}") long maxBackoffSeconds,
+                                    @Value("${application.price-check.retry.max-attempts:8}") int maxAttempts) {
+        this.productFetchRetryRepository = productFetchRetryRepository;
+        this.productRepository = productRepository;
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Records the outcome of a batch of fetches: pending retries of the fetched products are cleared
+     * and the failed products are scheduled for another attempt. A failed product's next check is set to
+     * its retry time plus the claim timeout, so the retry job claims it first, and a scheduled price check
+     * only takes it over if no retry ever did.
+     *
+     * @param fetched The product numbers whose pages were fetched.
+     * @param failures The reason each failed product could not be fetched, keyed by product number.
+     */
+    @Transactional
+    public void recordOutcomes(Collection<String> fetched, Map<String, String> failures) {
+        if (!fetched.isEmpty()) {
+            productFetchRetryRepository.deleteByProductNumberIn(fetched);
+        }
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        Map<String, ProductFetchRetry> existing = productFetchRetryRepository.findAllById(failures.keySet()).stream()
+                .collect(Collectors.toMap(ProductFetchRetry::getProductNumber, Function.identity()));
+        List<ProductFetchRetry> toSave = new ArrayList<>();
+        List<ProductFetchRetry> toDelete = new ArrayList<>();
+        Map<String, Instant> nextCheckAt = new HashMap<>();
+        int givenUp = 0;
+        for (Map.Entry<String, String> failure : failures.entrySet()) {
+            ProductFetchRetry retry = existing.get(failure.getKey());
+            if (retry == null) {
+                retry = ProductFetchRetry.builder().productNumber(failure.getKey()).createdAt(now).build();
+            }
+            int attempts = retry.getAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                if (existing.containsKey(failure.getKey())) {
+                    toDelete.add(retry);
+                }
+                givenUp++;
+                continue;
+            }
+            String error = String.valueOf(failure.getValue());
+            retry.setAttempts(attempts);
+            retry.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            retry.setNextAttemptAt(now.plus(backoff(attempts)));
+            toSave.add(retry);
+            nextCheckAt.put(retry.getProductNumber(), retry.getNextAttemptAt().plus(claimTimeout));
+        }
+        productFetchRetryRepository.saveAll(toSave);
+        productFetchRetryRepository.deleteAll(toDelete);
+        productRepository.updateNextCheckAt(nextCheckAt);
+
+        log.warn("Scheduled {} failed product fetches for retry; gave up on {} after {} attempts.", toSave.size(), givenUp, maxAttempts);
+    }
+
+    /**
+     * Claims up to {@code limit} products that are due for another fetch attempt. Claimed products are
+     * hidden from other nodes for the claim timeout, after which they become due again if this node
+     * never reported on them.
+     *
+     * @param limit The maximum number of products to claim.
+     * @return The claimed product numbers, earliest due first.
+     */
+    @Transactional
+    public List<String> claimDue(int limit) {
+        Instant now = Instant.now();
+        List<ProductFetchRetry> due = productFetchRetryRepository.findDue(now, limit);
+        due.forEach(retry -> retry.setNextAttemptAt(now.plus(claimTimeout)));
+        return productFetchRetryRepository.saveAll(due).stream().map(ProductFetchRetry::getProductNumber).collect(Collectors.toList());
+    }
+
+    /**
+     * Computes the delay before the next attempt: the initial backoff doubled for every previous failure,
+     * capped at the maximum, with up to half of it randomized so products that failed together spread out.
+     *
+     * @param attempts The number of failed attempts so far.
+     * @return The delay before the next attempt.
+     */
+    private Duration backoff(int attempts) {
+        long cap = maxBackoff.toMillis();
+        long exponential = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        long delay = exponential <= 0 ? cap : Math.min(exponential, cap);
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+}
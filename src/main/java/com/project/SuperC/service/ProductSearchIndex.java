@@ -0,0 +1,778 @@
+/**
+ * Optional in-process index of product names that answers product searches without a database round trip.
+ * Every product gets a dense document number, and every run of two and three characters (bigram and trigram)
+ * of its lower-cased name maps to a sorted posting list of the documents containing it, held in a primitive
+ * {@code int[]}. Grams are packed into an {@code int} key and the posting lists live in an open-addressing
+ * table, so neither keys nor document numbers are boxed. Every word start of every name is also kept in an array
+ * sorted by the text that follows it, so the names starting with a term, or with a word starting with it, are one
+ * binary search away. Those matches outrank all others, so a broad term that has enough of them is answered from
+ * them alone. Otherwise a search intersects the posting lists of the term's grams, smallest first, confirms each
+ * surviving name really contains the term and keeps the best-ranked matches in a bounded heap of primitive sort keys.
+ * <p>
+ * The index is built from {@code products} once the application is ready and rebuilt at a fixed interval,
+ * which picks up prices written by other nodes. Products repriced by this node's price checker
+ * are applied as soon as they are written. Until the first build completes, {@link #isReady()} is false
+ * and {@link ProductService} searches the database instead.
+ * Its size is published as the {@code product_search_index_*} gauges.
+ */
+package com.project.SuperC.service;
+
+import com.project.SuperC.dto.ProductSummary;
+import com.project.SuperC.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    /**
+     * Once the intersection is down to this many documents, checking their names directly is cheaper
+     * than intersecting further posting lists.
+     */
+    private static final int VERIFY_BELOW = 32;
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final long rebuildMinutes;
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("product-search-index").daemon().factory());
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<String> refreshedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+    private Segment segment;
+
+    /**
+     * Constructs a ProductSearchIndex and registers its size gauges.
+     *
+     * @param productRepository The repository the index is built and refreshed from.
+     * @param registry The registry the size gauges are published to.
+     * @param enabled Whether searches are served from memory; when false, nothing is loaded.
+     * @param rebuildMinutes The interval between full rebuilds from the database.
+     */
+    public ProductSearchIndex(ProductRepository productRepository, MeterRegistry registry,
+                              @Value("${application.search.in-memory-index.enabled:false}") boolean enabled,
+                              @Value("${application.search.in-memory-index.rebuild-minutes:15}") long rebuildMinutes) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.rebuildMinutes = rebuildMinutes;
+        Gauge.builder("product.search.index.products", this, index -> index.stat(Segment::liveDocuments))
+                .description("Products held by the in-memory search index")
+                .register(registry);
+        Gauge.builder("product.search.index.grams", this, index -> index.stat(segment -> segment.grams))
+                .description("Distinct bigrams and trigrams in the in-memory search index")
+                .register(registry);
+        Gauge.builder("product.search.index.postings", this, index -> index.stat(Segment::postingsBytes))
+                .description("Bytes held by the gram table, its posting lists and the sorted word starts")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("product.search.index.names", this, index -> index.stat(Segment::nameBytes))
+                .description("Approximate bytes held by the lower-cased product names")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Builds the index in the background once the application is ready, then rebuilds it at the configured interval.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            rebuilder.scheduleWithFixedDelay(this::rebuild, 0, rebuildMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Tells whether searches can be served from memory.
+     *
+     * @return True once the index is enabled and has been built.
+     */
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return segment != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reloads every product from the database and swaps the new index in. Searches keep using the previous
+     * index while the new one is built, and products refreshed meanwhile are re-applied afterwards.
+     */
+    public void rebuild() {
+        try {
+            long start = System.nanoTime();
+            rebuilding = true;
+            List<ProductSummary> products = new ArrayList<>();
+            productRepository.forEachSummary(products::add);
+            Segment rebuilt = Segment.of(products);
+            install(rebuilt);
+            rebuilding = false;
+            log.info("Built the product search index: {} products, {} grams, {} KB of postings in {} ms.",
+                    rebuilt.liveDocuments(), rebuilt.grams, rebuilt.postingsBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+
+            List<String> missed = new ArrayList<>(refreshedDuringRebuild);
+            refreshedDuringRebuild.removeAll(missed);
+            refresh(missed);
+        } catch (RuntimeException e) {
+            rebuilding = false;
+            log.error("Failed to build the product search index; searches keep using the previous one.", e);
+        }
+    }
+
+    /**
+     * Re-reads the given products from the database and applies them, after the price checker repriced them.
+     *
+     * @param productNumbers The products just written.
+     */
+    public void refresh(Collection<String> productNumbers) {
+        if (!enabled || productNumbers.isEmpty()) {
+            return;
+        }
+        if (rebuilding) {
+            refreshedDuringRebuild.addAll(productNumbers);
+        }
+        if (isReady()) {
+            try {
+                apply(productRepository.findSummaries(productNumbers));
+            } catch (DataAccessException e) {
+                log.warn("Failed to refresh {} products in the search index; the next rebuild picks them up: {}",
+                        productNumbers.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Searches product names containing the term, ranked like the database search: names starting with
+     * the term first, then names with a word starting with it, then shorter names, which the term covers
+     * more of, then by name. Only the best {@code candidates} are kept for paging, so when at least that many names
+     * match at a word start, names containing the term elsewhere are never looked at.
+     *
+     * @param term The lower-cased search term.
+     * @param candidates The number of best-ranked matches kept; pages beyond them are empty.
+     * @param offset The number of ranked products to skip.
+     * @param limit The maximum number of products to return.
+     * @return The matching products, most relevant first.
+     */
+    public List<ProductSummary> search(String term, int candidates, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return segment == null ? List.of() : segment.search(term, candidates, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the index with one built from the given products.
+     *
+     * @param products Every product to index.
+     */
+    void load(Collection<? extends ProductSummary> products) {
+        install(Segment.of(products));
+    }
+
+    /**
+     * Applies inserted or updated products to the index. A product whose name is unchanged keeps its
+     * document and only has its summary replaced; otherwise its old document is dropped and a new one added.
+     *
+     * @param products The current summaries of the products.
+     */
+    void apply(Collection<? extends ProductSummary> products) {
+        lock.writeLock().lock();
+        try {
+            if (segment != null) {
+                products.forEach(segment::update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void install(Segment rebuilt) {
+        lock.writeLock().lock();
+        try {
+            segment = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private double stat(ToLongFunction<Segment> statistic) {
+        lock.readLock().lock();
+        try {
+            return segment == null ? 0 : statistic.applyAsLong(segment);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Packs a bigram or trigram into an {@code int}. Grams of characters below U+0400, which covers French
+     * and English names, are packed losslessly into 31 bits, trigrams with bit 30 clear and bigrams with it set;
+     * others are hashed into keys with the sign bit set. A hash collision only adds candidates that the
+     * containment check then rejects.
+     *
+     * @param text The lower-cased text.
+     * @param from The index of the gram's first character.
+     * @param length The gram length, 2 or 3.
+     * @return The gram's key.
+     */
+    static int gramKey(String text, int from, int length) {
+        char a = text.charAt(from);
+        char b = text.charAt(from + 1);
+        char c = length == 3 ? text.charAt(from + 2) : 0;
+        if ((a | b | c) < 0x400) {
+            return length == 3 ? a << 20 | b << 10 | c : 1 << 30 | a << 10 | b;
+        }
+        return Integer.MIN_VALUE | ((a * 31 + b) * 31 + c) * 31 + length & Integer.MAX_VALUE;
+    }
+
+    /**
+     * The documents and posting lists of one build of the index. A build numbers documents in name order,
+     * so document order breaks ranking ties; products inserted later are appended, and since document
+     * numbers only grow, appending to a posting list keeps it sorted. The sorted word starts only cover the
+     * documents of the build, so appended documents are checked one by one until the next build.
+     * Guarded by the index's lock.
+     */
+    private static final class Segment {
+
+        private String[] names;
+        private ProductSummary[] products;
+        private int documents;
+        private int deleted;
+        private final Map<String, Integer> documentsByNumber;
+
+        // Open-addressing table from gram key to posting list; a null list marks a free slot.
+        private int[] keys = new int[1024];
+        private int[][] postings = new int[1024][];
+        private int[] lengths = new int[1024];
+        private int grams;
+
+        // Every word start of the built documents, sorted by the text from the word start on; null if some name is
+        // too long to pack. See indexWordStarts for the layout.
+        private long[] wordStarts;
+        private int indexedDocuments;
+
+        private Segment(int capacity) {
+            names = new String[capacity];
+            products = new ProductSummary[capacity];
+            documentsByNumber = new HashMap<>(capacity * 4 / 3 + 1);
+        }
+
+        static Segment of(Collection<? extends ProductSummary> products) {
+            List<ProductSummary> sorted = new ArrayList<>(products.size());
+            for (ProductSummary product : products) {
+                if (product.getName() != null && product.getProductNumber() != null) {
+                    sorted.add(product);
+                }
+            }
+            sorted.sort(Comparator.comparing((ProductSummary product) -> product.getName().toLowerCase(Locale.ROOT))
+                    .thenComparing(ProductSummary::getProductNumber));
+            Segment segment = new Segment(Math.max(16, sorted.size()));
+            sorted.forEach(segment::add);
+            segment.trim();
+            segment.indexWordStarts();
+            return segment;
+        }
+
+        void update(ProductSummary product) {
+            if (product.getName() == null || product.getProductNumber() == null) {
+                return;
+            }
+            Integer document = documentsByNumber.get(product.getProductNumber());
+            if (document != null) {
+                if (names[document].equals(product.getName().toLowerCase(Locale.ROOT))) {
+                    products[document] = product;
+                    return;
+                }
+                products[document] = null;
+                deleted++;
+            }
+            add(product);
+        }
+
+        List<ProductSummary> search(String term, int candidates, int offset, int limit) {
+            Ranking ranking = rankWordStartMatches(term, candidates);
+            if (ranking == null) {
+                ranking = rankAllMatches(term, candidates);
+            }
+            if (offset >= ranking.size) {
+                return List.of();
+            }
+            ranking.sort();
+            List<ProductSummary> page = new ArrayList<>(Math.min(limit, ranking.size - offset));
+            for (int i = offset; i < ranking.size && page.size() < limit; i++) {
+                page.add(products[(int) ranking.keys[i]]);
+            }
+            return page;
+        }
+
+        /**
+         * Ranks the names starting with the term and, if there are fewer than {@code candidates} of them, the names
+         * with a word starting with it, reading only the run of word starts that begin with the term.
+         *
+         * @return The ranking, or null if fewer than {@code candidates} names match at a word start, in which case
+         *         names containing the term elsewhere may make the cut as well.
+         */
+        private Ranking rankWordStartMatches(String term, int candidates) {
+            if (wordStarts == null) {
+                return null;
+            }
+            Ranking ranking = new Ranking(candidates);
+            int from = seek(term, false);
+            int to = seek(term, true);
+            for (int i = from; i < to; i++) {
+                if (offset(wordStarts[i]) == 0) {
+                    rank(document(wordStarts[i]), 0, length(wordStarts[i]), ranking);
+                }
+            }
+            for (int document = indexedDocuments; document < documents; document++) {
+                if (names[document].startsWith(term)) {
+                    rank(document, 0, names[document].length(), ranking);
+                }
+            }
+            if (ranking.size >= candidates) {
+                return ranking;
+            }
+            for (int i = from; i < to; i++) {
+                // A name with several words starting with the term is ranked once, at its first one.
+                if (offset(wordStarts[i]) > 0 && shadow(wordStarts[i]) < term.length()) {
+                    rank(document(wordStarts[i]), 1, length(wordStarts[i]), ranking);
+                }
+            }
+            for (int document = indexedDocuments; document < documents; document++) {
+                if (wordStartOf(names[document], term) > 0) {
+                    rank(document, 1, names[document].length(), ranking);
+                }
+            }
+            return ranking.size >= candidates ? ranking : null;
+        }
+
+        /**
+         * Ranks every name containing the term, found through the posting lists of its grams.
+         */
+        private Ranking rankAllMatches(String term, int candidates) {
+            Ranking ranking = new Ranking(candidates);
+            if (term.length() < 2) {
+                // A single character has no gram to look up, so every name is checked.
+                for (int document = 0; document < documents; document++) {
+                    rankIfContains(document, term, ranking);
+                }
+                return ranking;
+            }
+            int[] slots = slots(term);
+            if (slots == null) {
+                return ranking;
+            }
+            int[] matched = postings[slots[0]];
+            int size = lengths[slots[0]];
+            for (int i = 1; i < slots.length && size > VERIFY_BELOW; i++) {
+                int[] into = i == 1 ? new int[size] : matched;
+                size = intersect(matched, size, postings[slots[i]], lengths[slots[i]], into);
+                matched = into;
+            }
+            for (int i = 0; i < size; i++) {
+                rankIfContains(matched[i], term, ranking);
+            }
+            return ranking;
+        }
+
+        /**
+         * Finds the first word start whose text sorts at or after the term or, when {@code past} is set, the first
+         * whose text sorts after every text starting with the term.
+         */
+        private int seek(String term, boolean past) {
+            int low = 0;
+            int high = wordStarts.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int compared = compareToTerm(wordStarts[middle], term);
+                if (compared < 0 || past && compared == 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Compares the text at a word start, cut to the term's length, with the term.
+         */
+        private int compareToTerm(long wordStart, String term) {
+            String name = names[document(wordStart)];
+            int at = offset(wordStart);
+            int length = Math.min(name.length() - at, term.length());
+            for (int i = 0; i < length; i++) {
+                int compared = Character.compare(name.charAt(at + i), term.charAt(i));
+                if (compared != 0) {
+                    return compared;
+                }
+            }
+            return length < term.length() ? -1 : 0;
+        }
+
+        /**
+         * Returns the first offset at which the term starts the name or one of its words, or -1 if there is none.
+         */
+        private static int wordStartOf(String name, String term) {
+            for (int at = name.indexOf(term); at >= 0; at = name.indexOf(term, at + 1)) {
+                if (at == 0 || !Character.isLetterOrDigit(name.charAt(at - 1))) {
+                    return at;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Looks up the posting lists of the term's distinct grams, trigrams for terms of three characters or
+         * more and the single bigram otherwise, ordered from the shortest list to the longest.
+         *
+         * @return The table slots of the lists, or null if some gram occurs in no name.
+         */
+        private int[] slots(String term) {
+            int gram = Math.min(term.length(), 3);
+            int[] slots = new int[term.length() - gram + 1];
+            int count = 0;
+            next:
+            for (int i = 0; i < slots.length; i++) {
+                int slot = find(gramKey(term, i, gram));
+                if (postings[slot] == null) {
+                    return null;
+                }
+                for (int j = 0; j < count; j++) {
+                    if (slots[j] == slot) {
+                        continue next;
+                    }
+                }
+                int at = count++;
+                while (at > 0 && lengths[slots[at - 1]] > lengths[slot]) {
+                    slots[at] = slots[at - 1];
+                    at--;
+                }
+                slots[at] = slot;
+            }
+            return Arrays.copyOf(slots, count);
+        }
+
+        /**
+         * Writes the documents present in both sorted lists to {@code into}, which may be {@code a} itself.
+         * Walks both lists when they are of similar length, and binary-searches the longer one otherwise.
+         *
+         * @return The number of documents written.
+         */
+        private static int intersect(int[] a, int aSize, int[] b, int bSize, int[] into) {
+            int size = 0;
+            if (bSize > 8L * aSize) {
+                int from = 0;
+                for (int i = 0; i < aSize && from < bSize; i++) {
+                    int position = Arrays.binarySearch(b, from, bSize, a[i]);
+                    if (position >= 0) {
+                        into[size++] = a[i];
+                        from = position + 1;
+                    } else {
+                        from = -position - 1;
+                    }
+                }
+                return size;
+            }
+            for (int i = 0, j = 0; i < aSize && j < bSize; ) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    into[size++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return size;
+        }
+
+        /**
+         * Adds the document to the ranking if it is live and its name contains the term: with rank 0 if the name
+         * starts with the term, 1 if a word of it does and 2 otherwise.
+         */
+        private void rankIfContains(int document, String term, Ranking ranking) {
+            if (products[document] == null) {
+                return;
+            }
+            String name = names[document];
+            int at = name.indexOf(term);
+            if (at < 0) {
+                return;
+            }
+            long rank = at == 0 ? 0 : 2;
+            while (rank == 2 && at > 0) {
+                if (!Character.isLetterOrDigit(name.charAt(at - 1))) {
+                    rank = 1;
+                } else {
+                    at = name.indexOf(term, at + 1);
+                }
+            }
+            rank(document, rank, name.length(), ranking);
+        }
+
+        /**
+         * Adds a live document to the ranking with the given rank. Its sort key holds, from the most significant
+         * bits: the rank, the name's length and the document number.
+         */
+        private void rank(int document, long rank, int length, Ranking ranking) {
+            if (products[document] != null) {
+                ranking.add(rank << 52 | (long) Math.min(length, 0xFFFFF) << 32 | document);
+            }
+        }
+
+        private void add(ProductSummary product) {
+            if (documents == names.length) {
+                names = Arrays.copyOf(names, documents + (documents >> 1) + 16);
+                products = Arrays.copyOf(products, names.length);
+            }
+            int document = documents++;
+            String name = product.getName().toLowerCase(Locale.ROOT);
+            names[document] = name;
+            products[document] = product;
+            documentsByNumber.put(product.getProductNumber(), document);
+            for (int i = 0; i + 2 <= name.length(); i++) {
+                append(gramKey(name, i, 2), document);
+                if (i + 3 <= name.length()) {
+                    append(gramKey(name, i, 3), document);
+                }
+            }
+        }
+
+        private void append(int key, int document) {
+            int slot = find(key);
+            int[] list = postings[slot];
+            if (list == null) {
+                keys[slot] = key;
+                postings[slot] = new int[]{document};
+                lengths[slot] = 1;
+                if (++grams * 2 > keys.length) {
+                    grow();
+                }
+                return;
+            }
+            int length = lengths[slot];
+            if (list[length - 1] == document) {
+                return;
+            }
+            if (length == list.length) {
+                list = postings[slot] = Arrays.copyOf(list, length + (length >> 1) + 1);
+            }
+            list[length] = document;
+            lengths[slot] = length + 1;
+        }
+
+        private int find(int key) {
+            int mask = keys.length - 1;
+            int slot = (key * 0x9E3779B9 >>> 16 ^ key) & mask;
+            while (postings[slot] != null && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[][] oldPostings = postings;
+            int[] oldLengths = lengths;
+            keys = new int[oldKeys.length * 2];
+            postings = new int[keys.length][];
+            lengths = new int[keys.length];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldPostings[i] != null) {
+                    int slot = find(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    postings[slot] = oldPostings[i];
+                    lengths[slot] = oldLengths[i];
+                }
+            }
+        }
+
+        /**
+         * Sorts the word starts of every document added so far: offset 0 and every offset that follows a character
+         * other than a letter or digit. Each is packed as the document number in the high 32 bits, then a byte each
+         * for the offset, the name's length and the longest prefix its text shares with the text at an earlier word
+         * start of the same name, which tells whether a term matching here already matched there. Names are at most
+         * 255 characters in the {@code products} table; if some name is longer, no word starts are kept.
+         */
+        private void indexWordStarts() {
+            List<Long> starts = new ArrayList<>();
+            int[] offsets = new int[256];
+            for (int document = 0; document < documents; document++) {
+                String name = names[document];
+                if (name.length() > 0xFF) {
+                    return;
+                }
+                int count = 0;
+                for (int at = 0; at < name.length(); at++) {
+                    if (at == 0 || !Character.isLetterOrDigit(name.charAt(at - 1))) {
+                        int shadow = 0;
+                        for (int i = 0; i < count; i++) {
+                            shadow = Math.max(shadow, commonPrefix(name, offsets[i], at));
+                        }
+                        offsets[count++] = at;
+                        starts.add((long) document << 32 | (long) at << 24 | name.length() << 16 | shadow << 8);
+                    }
+                }
+            }
+            starts.sort(this::compareWordStarts);
+            wordStarts = starts.stream().mapToLong(Long::longValue).toArray();
+            indexedDocuments = documents;
+        }
+
+        private static int commonPrefix(String name, int a, int b) {
+            int length = 0;
+            while (b + length < name.length() && name.charAt(a + length) == name.charAt(b + length)) {
+                length++;
+            }
+            return length;
+        }
+
+        private int compareWordStarts(long a, long b) {
+            String first = names[document(a)];
+            String second = names[document(b)];
+            int i = offset(a);
+            int j = offset(b);
+            while (i < first.length() && j < second.length()) {
+                int compared = Character.compare(first.charAt(i++), second.charAt(j++));
+                if (compared != 0) {
+                    return compared;
+                }
+            }
+            int compared = Integer.compare(first.length() - i, second.length() - j);
+            return compared != 0 ? compared : Long.compare(a, b);
+        }
+
+        private static int document(long wordStart) {
+            return (int) (wordStart >>> 32);
+        }
+
+        private static int offset(long wordStart) {
+            return (int) (wordStart >>> 24) & 0xFF;
+        }
+
+        private static int length(long wordStart) {
+            return (int) (wordStart >>> 16) & 0xFF;
+        }
+
+        private static int shadow(long wordStart) {
+            return (int) (wordStart >>> 8) & 0xFF;
+        }
+
+        /**
+         * Shrinks every posting list to its length once a build is complete.
+         */
+        private void trim() {
+            for (int i = 0; i < keys.length; i++) {
+                if (postings[i] != null && postings[i].length != lengths[i]) {
+                    postings[i] = Arrays.copyOf(postings[i], lengths[i]);
+                }
+            }
+        }
+
+        long liveDocuments() {
+            return documents - deleted;
+        }
+
+        long postingsBytes() {
+            // Array headers are 16 bytes; the outer table holds one 4-byte compressed reference per slot.
+            long bytes = 3 * (16L + 4L * keys.length) + (wordStarts == null ? 0 : 16 + 8L * wordStarts.length);
+            for (int[] list : postings) {
+                if (list != null) {
+                    bytes += 16 + 4L * list.length;
+                }
+            }
+            return bytes;
+        }
+
+        long nameBytes() {
+            // A compact Latin-1 string costs a 24-byte String, a 16-byte array header and a byte per character.
+            long bytes = 16 + 4L * names.length;
+            for (int document = 0; document < documents; document++) {
+                bytes += 40 + names[document].length();
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * The smallest sort keys offered so far, at most {@code limit} of them, in a max-heap until sorted, so a
+     * broad term costs one comparison per match beyond the limit instead of a sort of every match.
+     */
+    private static final class Ranking {
+
+        private final int limit;
+        private long[] keys;
+        private int size;
+
+        Ranking(int limit) {
+            this.limit = Math.max(0, limit);
+            this.keys = new long[Math.min(this.limit, 64)];
+        }
+
+        void add(long key) {
+            if (size < limit) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, Math.min(limit, size * 2));
+                }
+                int at = size++;
+                while (at > 0 && keys[(at - 1) / 2] < key) {
+                    keys[at] = keys[(at - 1) / 2];
+                    at = (at - 1) / 2;
+                }
+                keys[at] = key;
+            } else if (size > 0 && key < keys[0]) {
+                int at = 0;
+                for (int child = 1; child < size; child = 2 * at + 1) {
+                    if (child + 1 < size && keys[child + 1] > keys[child]) {
+                        child++;
+                    }
+                    if (keys[child] <= key) {
+                        break;
+                    }
+                    keys[at] = keys[child];
+                    at = child;
+                }
+                keys[at] = key;
+            }
+        }
+
+        void sort() {
+            Arrays.sort(keys, 0, size);
+        }
+    }
+}
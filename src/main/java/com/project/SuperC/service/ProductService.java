@@ -1,37 +1,182 @@
 package com.project.SuperC.service;
 
+import com.project.SuperC.dto.ProductSuggestion;
+import com.project.SuperC.dto.ProductSummary;
 import com.project.SuperC.models.Product;
 import com.project.SuperC.repository.ProductRepository;
-import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
-@AllArgsConstructor
 public class ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
 
     private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggester productSuggester;
+    private final FuzzyProductMatcher fuzzyProductMatcher;
+    private final ProductCache productCache;
+    private final int maxPageSize;
+    private final int maxCandidates;
 
     /**
-     * Searches for products whose name contains the given search term.
+     * Constructs a ProductService.
+     *
+     * @param productRepository The repository products are searched and loaded from.
+     * @param productSearchIndex The in-memory index searches are served from once it is built.
+     * @param productSuggester The in-memory trie typeahead suggestions are served from.
+     * @param fuzzyProductMatcher The typo-tolerant matcher fuzzy searches fall back to.
+     * @param productCache The cache products and search result pages are served from.
+     * @param maxPageSize The largest page of search results a client may ask for.
+     * @param maxCandidates The maximum number of matching products ranked per search; bounds the cost of broad
+     *                      terms, and pages beyond it are empty.
+     */
+    public ProductService(ProductRepository productRepository, ProductSearchIndex productSearchIndex,
+                          ProductSuggester productSuggester, FuzzyProductMatcher fuzzyProductMatcher,
+                          ProductCache productCache,
+                          @Value("${application.search.max-page-size:100}") int maxPageSize,
+                          @Value("${application.search.max-candidates:500}") int maxCandidates) {
+        this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggester = productSuggester;
+        this.fuzzyProductMatcher = fuzzyProductMatcher;
+        this.productCache = productCache;
+        this.maxPageSize = maxPageSize;
+        this.maxCandidates = Math.max(maxCandidates, maxPageSize);
+    }
+
+    /**
+     * Searches for products whose name contains the given search term, most relevant first, one page at a time.
+     * Matching is case-insensitive and served by the in-memory {@link ProductSearchIndex} when it is enabled
+     * and built, or by the trigram index on product names otherwise. The page size is capped
+     * at the configured maximum, so neither the response nor the rows read grow with what the user types.
+     * <p>
+     * A fuzzy search first looks for names containing the term the same way; only when none does, it falls back
+     * to the {@link FuzzyProductMatcher}, which ignores accents and tolerates typos in each word.
+     * Pages are cached by term, mode and page in the {@link ProductCache} until a price write touches them.
      *
      * @param searchTerm The string to search for in product names.
-     * @return A list of matching Product entities.
+     * @param fuzzy Whether to fall back to typo-tolerant matching when no name contains the term.
+     * @param page The zero-based page number; negative values are treated as 0.
+     * @param size The requested page size, clamped between 1 and the configured maximum.
+     * @return A {@link Slice} of {@link ProductSummary} projections, telling whether another page follows;
+     * empty for a blank term.
      */
-    public List<Product> searchProducts(String searchTerm) {
-        logger.info("Searching for products with term: {}", searchTerm);
-        List<Product> products = productRepository.findByNameContainingIgnoreCase(searchTerm);
-        logger.info("Found {} products for search term: {}", products.size(), searchTerm);
+    public Slice<ProductSummary> searchProducts(String searchTerm, boolean fuzzy, int page, int size) {
+        logger.info("Searching for products with term: {} (page {}, size {}, fuzzy {})", searchTerm, page, size, fuzzy);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), maxPageSize));
+        String term = searchTerm == null ? "" : searchTerm.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty() || pageable.getOffset() >= maxCandidates) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+
+        Slice<ProductSummary> products = productCache.getSearch(term, fuzzy, pageable, () -> search(term, fuzzy, pageable));
+        logger.info("Found {} products for search term: {}", products.getNumberOfElements(), searchTerm);
         return products;
     }
 
+    /**
+     * Runs a search against the in-memory index or the database, bypassing the cache.
+     */
+    private Slice<ProductSummary> search(String term, boolean fuzzy, Pageable pageable) {
+        // One extra row tells whether there is a next page without counting every match.
+        int offset = (int) pageable.getOffset();
+        List<ProductSummary> products = findContaining(term, offset, pageable.getPageSize() + 1);
+        if (fuzzy && products.isEmpty() && (offset == 0 || findContaining(term, 0, 1).isEmpty())) {
+            products = findFuzzy(term, offset, pageable.getPageSize() + 1);
+        }
+        boolean hasNext = products.size() > pageable.getPageSize();
+        return new SliceImpl<>(List.copyOf(hasNext ? products.subList(0, pageable.getPageSize()) : products), pageable, hasNext);
+    }
+
+    /**
+     * Suggests products as the user types, without touching the database.
+     *
+     * @param prefix What the user has typed so far.
+     * @param limit The number of suggestions wanted.
+     * @return The most tracked products whose name, or a word in it, starts with the prefix.
+     */
+    public List<ProductSuggestion> suggestProducts(String prefix, int limit) {
+        return productSuggester.suggest(prefix, limit);
+    }
+
+    /**
+     * Finds a product by its product number, through the {@link ProductCache}.
+     *
+     * @param productNumber The product number.
+     * @return A copy of the product, or empty if there is no such product.
+     */
     public Optional<Product> getProductByProductNumber(String productNumber) {
-        return productRepository.findByProductNumber(productNumber);
+        return productCache.getProduct(productNumber, productRepository::findByProductNumber);
+    }
+
+    /**
+     * Finds several products by product number through the {@link ProductCache}, reading every uncached one
+     * with a single query.
+     *
+     * @param productNumbers The product numbers.
+     * @return Copies of the products that exist, keyed by product number.
+     */
+    public Map<String, Product> getProductsByProductNumbers(Collection<String> productNumbers) {
+        return productCache.getProducts(productNumbers, productRepository::findByProductNumberIn);
+    }
+
+    /**
+     * Finds products whose name contains the lower-cased term, from memory when the index is ready.
+     */
+    private List<ProductSummary> findContaining(String term, int offset, int limit) {
+        if (productSearchIndex.isReady()) {
+            return productSearchIndex.search(term, maxCandidates, offset, limit);
+        }
+        String escaped = escapeLike(term);
+        return productRepository.searchByName(term, "%" + escaped + "%", escaped + "%", maxCandidates, offset, limit);
+    }
+
+    /**
+     * Ranks products with the fuzzy matcher, then loads the summaries of the requested page in that order.
+     * Products deleted since the matcher was built are left out.
+     */
+    private List<ProductSummary> findFuzzy(String term, int offset, int limit) {
+        List<String> productNumbers = fuzzyProductMatcher.search(term, maxCandidates, offset, limit);
+        if (productNumbers.isEmpty()) {
+            return List.of();
+        }
+        Map<String, ProductSummary> summaries = new HashMap<>();
+        for (ProductSummary summary : productRepository.findSummaries(productNumbers)) {
+            summaries.put(summary.getProductNumber(), summary);
+        }
+        List<ProductSummary> products = new ArrayList<>(productNumbers.size());
+        for (String productNumber : productNumbers) {
+            ProductSummary summary = summaries.get(productNumber);
+            if (summary != null) {
+                products.add(summary);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Escapes the LIKE wildcards in a search term, so that "%" and "_" typed by a user match themselves.
+     *
+     * @param term The search term.
+     * @return The term with backslashes, percent signs and underscores preceded by a backslash.
+     */
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 }
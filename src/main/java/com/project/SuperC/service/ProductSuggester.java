@@ -0,0 +1,356 @@
+/**
+ * Answers search-box typeahead from memory with a compressed (radix) trie over product names.
+ * Each product is reachable from the start of its name and from the start of every later word in it,
+ * so "milk" suggests "Natrel 2% Milk" as well as "Milk Chocolate Bar". Words starting with a digit, such as
+ * sizes, are not indexed on their own. Every node of the trie stores the
+ * ids of the best-ranked products below it, so a lookup only walks the prefix and returns that list.
+ * <p>
+ * Products are ranked by the number of tracking requests following them, then by shorter name. They are
+ * numbered in rank order before insertion, so the first ids to reach a node are its best ones and the
+ * lists fill up during insertion, without a second pass. Keys are cut at {@value #MAX_KEY_LENGTH}
+ * characters, which bounds the depth of the trie; the node a cut key ends at also keeps every product cut there,
+ * so a longer prefix is confirmed against all of their names rather than only the best few.
+ * <p>
+ * The trie is immutable; it is rebuilt from the database at a fixed interval and swapped in, so tracker
+ * counts and new products are picked up within one interval.
+ */
+package com.project.SuperC.service;
+
+import com.project.SuperC.dto.ProductSuggestion;
+import com.project.SuperC.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class ProductSuggester {
+
+    static final int MAX_KEY_LENGTH = 32;
+
+    static final Comparator<ProductSuggestion> RANKING = Comparator.comparingLong(ProductSuggestion::getTrackers).reversed()
+            .thenComparingInt(suggestion -> suggestion.getName().length())
+            .thenComparing(ProductSuggestion::getName)
+            .thenComparing(ProductSuggestion::getProductNumber);
+
+    private final ProductRepository productRepository;
+    private final int maxResults;
+    private final long rebuildMinutes;
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("product-suggester").daemon().factory());
+    private volatile Trie trie = new Trie(List.of(), 1);
+
+    /**
+     * Constructs a ProductSuggester and registers its size gauges.
+     *
+     * @param productRepository The repository products and their tracker counts are read from.
+     * @param registry The registry the size gauges are published to.
+     * @param maxResults The largest number of suggestions returned, and kept per trie node.
+     * @param rebuildMinutes The interval between rebuilds from the database.
+     */
+    public ProductSuggester(ProductRepository productRepository, MeterRegistry registry,
+                            @Value("${application.search.suggest.max-results:10}") int maxResults,
+                            @Value("${application.search.suggest.rebuild-minutes:5}") long rebuildMinutes) {
+        this.productRepository = productRepository;
+        this.maxResults = Math.max(1, maxResults);
+        this.rebuildMinutes = rebuildMinutes;
+        Gauge.builder("product.suggest.products", this, suggester -> suggester.trie.suggestions.length)
+                .description("Products offered by the typeahead trie")
+                .register(registry);
+        Gauge.builder("product.suggest.nodes", this, suggester -> suggester.trie.nodes)
+                .description("Nodes of the typeahead trie")
+                .register(registry);
+        Gauge.builder("product.suggest.size", this, suggester -> suggester.trie.bytes)
+                .description("Approximate bytes held by the typeahead trie")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Builds the trie in the background once the application is ready, then rebuilds it at the configured interval.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuilder.scheduleWithFixedDelay(this::rebuild, 0, rebuildMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Reloads products and tracker counts from the database and swaps the new trie in.
+     */
+    public void rebuild() {
+        try {
+            long start = System.nanoTime();
+            load(productRepository.findSuggestions());
+            log.info("Built the typeahead trie: {} products, {} nodes, about {} KB in {} ms.",
+                    trie.suggestions.length, trie.nodes, trie.bytes / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Failed to build the typeahead trie; suggestions keep using the previous one.", e);
+        }
+    }
+
+    /**
+     * Suggests products with a name, or a word in their name, starting with the prefix.
+     *
+     * @param prefix What the user has typed so far; case and repeated spaces are ignored.
+     * @param limit The number of suggestions wanted, capped at the configured maximum.
+     * @return The best-ranked matching products, most tracked first; empty for a blank prefix.
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix == null ? "" : prefix);
+        if (key.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        return trie.lookup(key, Math.min(limit, maxResults));
+    }
+
+    /**
+     * Replaces the trie with one built from the given products.
+     *
+     * @param suggestions Every product with its tracker count.
+     */
+    void load(Collection<ProductSuggestion> suggestions) {
+        trie = new Trie(suggestions, maxResults);
+    }
+
+    /**
+     * Lower-cases the text and collapses runs of whitespace into one space, dropping leading whitespace.
+     */
+    static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (!normalized.isEmpty() && normalized.charAt(normalized.length() - 1) != ' ') {
+                    normalized.append(' ');
+                }
+            } else {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * An immutable radix trie. Children are kept sorted by the first character of their edge label.
+     */
+    private static final class Trie {
+
+        private static final char[] NO_CHARS = {};
+        private static final Node[] NO_CHILDREN = {};
+        private static final int[] NO_IDS = {};
+
+        private final ProductSuggestion[] suggestions;
+        private final Node root = new Node(NO_CHARS);
+        private final int perNode;
+        private long nodes = 1;
+        private long bytes;
+
+        Trie(Collection<ProductSuggestion> products, int perNode) {
+            this.perNode = perNode;
+            this.suggestions = products.stream()
+                    .filter(product -> product.getName() != null && product.getProductNumber() != null)
+                    .sorted(RANKING)
+                    .toArray(ProductSuggestion[]::new);
+            for (int id = 0; id < suggestions.length; id++) {
+                String name = normalize(suggestions[id].getName()).trim();
+                for (int start = 0; start < name.length(); start++) {
+                    if (start == 0 || wordStartsAt(name, start)) {
+                        boolean cut = name.length() - start > MAX_KEY_LENGTH;
+                        insert(name.substring(start, cut ? start + MAX_KEY_LENGTH : name.length()).toCharArray(), id, cut);
+                    }
+                }
+            }
+            this.bytes = measure(root);
+        }
+
+        List<ProductSuggestion> lookup(String prefix, int limit) {
+            String key = prefix.length() > MAX_KEY_LENGTH ? prefix.substring(0, MAX_KEY_LENGTH) : prefix;
+            Node node = root;
+            int matched = 0;
+            while (matched < key.length()) {
+                Node child = node.child(key.charAt(matched));
+                if (child == null) {
+                    return List.of();
+                }
+                int common = commonLength(child.label, key, matched);
+                if (common < child.label.length && matched + common < key.length()) {
+                    return List.of();
+                }
+                matched += common;
+                node = child;
+            }
+            List<ProductSuggestion> result = new ArrayList<>(Math.min(limit, node.top.length));
+            if (prefix.length() <= MAX_KEY_LENGTH) {
+                for (int i = 0; i < node.top.length && result.size() < limit; i++) {
+                    result.add(suggestions[node.top[i]]);
+                }
+                return result;
+            }
+            // Keys are cut short, so a longer prefix is confirmed against the name of every product cut at this node.
+            for (int i = 0; i < node.cut.length && result.size() < limit; i++) {
+                ProductSuggestion suggestion = suggestions[node.cut[i]];
+                if (containsAtWordStart(normalize(suggestion.getName()), prefix)) {
+                    result.add(suggestion);
+                }
+            }
+            return result;
+        }
+
+        private void insert(char[] key, int id, boolean cut) {
+            Node node = root;
+            node.offer(id, perNode);
+            int matched = 0;
+            while (matched < key.length) {
+                int index = node.indexOf(key[matched]);
+                if (index < 0) {
+                    Node leaf = new Node(Arrays.copyOfRange(key, matched, key.length));
+                    leaf.offer(id, perNode);
+                    if (cut) {
+                        leaf.keepCut(id);
+                    }
+                    node.insertChild(-index - 1, leaf);
+                    nodes++;
+                    return;
+                }
+                Node child = node.children[index];
+                int common = commonLength(child.label, key, matched);
+                if (common < child.label.length) {
+                    // Split the edge: the new middle node covers exactly the old child's subtree so far.
+                    Node middle = new Node(Arrays.copyOf(child.label, common));
+                    middle.top = child.top.clone();
+                    child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                    middle.firsts = new char[]{child.label[0]};
+                    middle.children = new Node[]{child};
+                    node.children[index] = middle;
+                    nodes++;
+                    child = middle;
+                }
+                child.offer(id, perNode);
+                matched += common;
+                node = child;
+            }
+            if (cut) {
+                node.keepCut(id);
+            }
+        }
+
+        private static int commonLength(char[] label, String key, int from) {
+            int length = Math.min(label.length, key.length() - from);
+            int i = 0;
+            while (i < length && label[i] == key.charAt(from + i)) {
+                i++;
+            }
+            return i;
+        }
+
+        private static int commonLength(char[] label, char[] key, int from) {
+            int length = Math.min(label.length, key.length - from);
+            int i = 0;
+            while (i < length && label[i] == key[from + i]) {
+                i++;
+            }
+            return i;
+        }
+
+        private static boolean wordStartsAt(String name, int index) {
+            return Character.isLetter(name.charAt(index)) && !Character.isLetterOrDigit(name.charAt(index - 1));
+        }
+
+        private static boolean containsAtWordStart(String name, String prefix) {
+            for (int at = name.indexOf(prefix); at >= 0; at = name.indexOf(prefix, at + 1)) {
+                if (at == 0 || wordStartsAt(name, at)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Estimates the heap held by the nodes: object headers, labels and the arrays of each node.
+         */
+        private static long measure(Node node) {
+            long bytes = 36 + 16 + 2L * node.label.length + 16 + 2L * node.firsts.length + 16 + 4L * node.children.length + 16 + 4L * node.top.length
+                    + (node.cut.length == 0 ? 0 : 16 + 4L * node.cut.length);
+            for (Node child : node.children) {
+                bytes += measure(child);
+            }
+            return bytes;
+        }
+
+        private static final class Node {
+
+            private char[] label;
+            private char[] firsts = NO_CHARS;
+            private Node[] children = NO_CHILDREN;
+            private int[] top = new int[0];
+            // Every product whose key was cut at MAX_KEY_LENGTH and ends here, in rank order; empty elsewhere.
+            private int[] cut = NO_IDS;
+
+            Node(char[] label) {
+                this.label = label;
+            }
+
+            /**
+             * Adds the id to this node's best ids unless the list is full. Ids arrive in rank order, and all
+             * keys of one product are inserted together, so a repeated id can only be the last one added.
+             */
+            void offer(int id, int capacity) {
+                if (top.length < capacity && (top.length == 0 || top[top.length - 1] != id)) {
+                    top = Arrays.copyOf(top, top.length + 1);
+                    top[top.length - 1] = id;
+                }
+            }
+
+            /**
+             * Adds the id to the products cut at this node, once, like {@link #offer} but without a limit.
+             */
+            void keepCut(int id) {
+                if (cut.length == 0 || cut[cut.length - 1] != id) {
+                    cut = Arrays.copyOf(cut, cut.length + 1);
+                    cut[cut.length - 1] = id;
+                }
+            }
+
+            int indexOf(char first) {
+                return Arrays.binarySearch(firsts, first);
+            }
+
+            Node child(char first) {
+                int index = indexOf(first);
+                return index < 0 ? null : children[index];
+            }
+
+            void insertChild(int at, Node child) {
+                char[] newFirsts = new char[firsts.length + 1];
+                Node[] newChildren = new Node[children.length + 1];
+                System.arraycopy(firsts, 0, newFirsts, 0, at);
+                System.arraycopy(children, 0, newChildren, 0, at);
+                newFirsts[at] = child.label[0];
+                newChildren[at] = child;
+                System.arraycopy(firsts, at, newFirsts, at + 1, firsts.length - at);
+                System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+                firsts = newFirsts;
+                children = newChildren;
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Decides when each product is next due for a price check, so the price-check job, which fires often,
+ * only fetches the products whose price is likely to have changed.
+ * A product is checked:
+ * <ul>
+ *   <li>right after the weekly flyer rollover, when most sale prices change;</li>
+ *   <li>right after its flyer price ends, as given by {@link Product#getValidityDate()};</li>
+ *   <li>more often than the base interval if its price has been changing often;</li>
+ *   <li>less and less often, and no longer at every rollover, once its price has not changed for months.</li>
+ * </ul>
+ * Volatility is measured from the product's recent {@code price_history} with one set-based query per batch.
+ */
+package com.project.SuperC.service;
+
+import com.project.SuperC.models.PriceVolatility;
+import com.project.SuperC.models.Product;
+import com.project.SuperC.repository.PriceHistoryRepository;
+import com.project.SuperC.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+@Slf4j
+public class RefreshScheduler {
+
+    private static final Pattern ISO_DATE = Pattern.compile("(\\d{4})-(\\d{2})-(\\d{2})");
+    private static final Pattern MONTH_DAY = Pattern.compile(
+            "\\b(jan|feb|mar|apr|may|jun|jul|aug|sep|oct|nov|dec)[a-z]*\\.?\\s+(\\d{1,2})\\b", Pattern.CASE_INSENSITIVE);
+    private static final String MONTHS = "janfebmaraprmayjunjulaugsepoctnovdec";
+
+    private final ProductRepository productRepository;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final Duration baseInterval;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Duration volatilityWindow;
+    private final long stableAfterDays;
+    private final DayOfWeek rolloverDay;
+    private final LocalTime rolloverTime;
+    private final ZoneId zone;
+
+    /**
+     * Constructs a RefreshScheduler.
+     *
+     * @param productRepository The repository holding products' validity dates and next check times.
+     * @param priceHistoryRepository The repository the price volatility is measured from.
+     * @param baseIntervalHours The interval between checks of a product with no recent price changes.
+     * @param minIntervalHours The shortest interval between two checks of the same product.
+     * @param maxIntervalHours The longest interval between two checks of the same product.
+     * @param volatilityWindowDays How far back the price history is looked at.
+     * @param stableAfterDays After how many days without a price change a product starts being checked less often.
+     * @param rolloverDay The day of the week new flyer prices take effect.
+     * @param rolloverTime The local time new flyer prices take effect.
+     * @param zone The time zone flyer dates and times are given in.
+     */
+    public RefreshScheduler(ProductRepository productRepository,
+                            PriceHistoryRepository priceHistoryRepository,
+                            @Value("${application.price-check.schedule.base-interval-hours:24}") long baseIntervalHours,
+                            @Value("${application.price-check.schedule.min-interval-hours:2}") long minIntervalHours,
+                            @Value("${application.price-check.schedule.max-interval-hours:336}") long maxIntervalHours,
+                            @Value("${application.price-check.schedule.volatility-window-days:120}") long volatilityWindowDays,
+                            @Value("${application.price-check.schedule.stable-after-days:60}") long stableAfterDays,
+                            @Value("${application.price-check.schedule.flyer-rollover-day:THURSDAY}") DayOfWeek rolloverDay,
+                            @Value("${application.price-check.schedule.flyer-rollover-time:06:00}") LocalTime rolloverTime,
+                            @Value("${application.price-check.schedule.zone:America/Toronto}") ZoneId zone) {
+        this.productRepository = productRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.baseInterval = Duration.ofHours(baseIntervalHours);
+        this.minInterval = Duration.ofHours(minIntervalHours);
+        this.maxInterval = Duration.ofHours(maxIntervalHours);
+        this.volatilityWindow = Duration.ofDays(volatilityWindowDays);
+        this.stableAfterDays = stableAfterDays;
+        this.rolloverDay = rolloverDay;
+        this.rolloverTime = rolloverTime;
+        this.zone = zone;
+    }
+
+    /**
+     * Computes and stores the next check time of each given product, which has just been checked.
+     *
+     * @param productNumbers The products that were just fetched.
+     */
+    public void scheduleNextChecks(Collection<String> productNumbers) {
+        if (productNumbers.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        Map<String, String> validityDates = productRepository.findValidityDates(productNumbers);
+        Map<String, PriceVolatility> volatility = priceHistoryRepository.findVolatility(productNumbers, now.minus(volatilityWindow));
+
+        Map<String, Instant> nextCheckAt = new HashMap<>();
+        for (String productNumber : productNumbers) {
+            nextCheckAt.put(productNumber, nextCheckAt(now, validityDates.get(productNumber), volatility.get(productNumber)));
+        }
+        productRepository.updateNextCheckAt(nextCheckAt);
+        log.debug("Scheduled the next check of {} products.", nextCheckAt.size());
+    }
+
+    /**
+     * Computes when a product that has just been checked should be checked again.
+     *
+     * @param now The time of the check.
+     * @param validityDate The product's stored flyer validity date, or null if unknown.
+     * @param volatility The product's recent price movements, or null if it has no price history yet.
+     * @return The next check time, at least the minimum interval after {@code now}.
+     */
+    Instant nextCheckAt(Instant now, String validityDate, PriceVolatility volatility) {
+        double hours = baseInterval.toHours();
+        boolean stable = false;
+        if (volatility != null) {
+            if (volatility.getChanges() > 0) {
+                double observedWeeks = Math.max(1.0, Duration.between(volatility.getFirstObservedAt(), now).toHours() / (24.0 * 7));
+                hours = hours / (1 + volatility.getChanges() / observedWeeks);
+            }
+            Instant lastChange = volatility.getLastChangedAt() != null ? volatility.getLastChangedAt() : volatility.getFirstObservedAt();
+            double stableDays = Duration.between(lastChange, now).toHours() / 24.0;
+            if (stableDays >= stableAfterDays) {
+                // Every further month without a change doubles the interval.
+                stable = true;
+                hours = baseInterval.toHours() * Math.pow(2, 1 + (stableDays - stableAfterDays) / 30.0);
+            }
+        }
+        hours = Math.max(minInterval.toHours(), Math.min(maxInterval.toHours(), hours));
+        Instant next = now.plusSeconds((long) (hours * 3600));
+
+        if (!stable) {
+            next = earliest(next, nextRollover(now));
+        }
+        Optional<LocalDate> validUntil = parseValidityDate(validityDate, now.atZone(zone).toLocalDate());
+        if (validUntil.isPresent()) {
+            Instant priceEnds = validUntil.get().plusDays(1).atTime(rolloverTime).atZone(zone).toInstant();
+            if (priceEnds.isAfter(now)) {
+                next = earliest(next, priceEnds);
+            }
+        }
+        Instant soonest = now.plus(minInterval);
+        return next.isBefore(soonest) ? soonest : next;
+    }
+
+    /**
+     * Returns the first flyer rollover strictly after the given time.
+     *
+     * @param now The current time.
+     * @return The next rollover instant.
+     */
+    Instant nextRollover(Instant now) {
+        ZonedDateTime local = now.atZone(zone);
+        ZonedDateTime rollover = local.with(TemporalAdjusters.nextOrSame(rolloverDay)).with(rolloverTime);
+        if (!rollover.isAfter(local)) {
+            rollover = rollover.plusWeeks(1);
+        }
+        return rollover.toInstant();
+    }
+
+    /**
+     * Parses a stored flyer validity date. Accepts ISO dates ({@code 2025-10-22}) and the month-and-day
+     * text shown on product tiles ({@code Valid until Oct. 22}); the year of the latter is the one that
+     * puts the date closest to today.
+     *
+     * @param text The stored validity date, or null.
+     * @param today Today's date in the flyer time zone.
+     * @return The last day the price is valid, or empty if the text is missing or not understood.
+     */
+    static Optional<LocalDate> parseValidityDate(String text, LocalDate today) {
+        if (text == null || text.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            Matcher iso = ISO_DATE.matcher(text);
+            if (iso.find()) {
+                return Optional.of(LocalDate.of(Integer.parseInt(iso.group(1)), Integer.parseInt(iso.group(2)), Integer.parseInt(iso.group(3))));
+            }
+            Matcher monthDay = MONTH_DAY.matcher(text);
+            if (monthDay.find()) {
+                int month = MONTHS.indexOf(monthDay.group(1).toLowerCase()) / 3 + 1;
+                LocalDate date = LocalDate.of(today.getYear(), month, Integer.parseInt(monthDay.group(2)));
+                if (date.isBefore(today.minusMonths(6))) {
+                    date = date.plusYears(1);
+                } else if (date.isAfter(today.plusMonths(6))) {
+                    date = date.minusYears(1);
+                }
+                return Optional.of(date);
+            }
+        } catch (DateTimeException e) {
+            log.debug("Ignoring invalid validity date '{}': {}", text, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private static Instant earliest(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * A fixed-size pool of long-lived SMTP connections.
+ * Opening an SMTP connection costs a TCP handshake, the server greeting, EHLO, usually STARTTLS and
+ * AUTH; sending one message over an open connection costs a few round trips. Connections are
+ * therefore opened lazily, kept open between messages and shared by all sending threads, with at
+ * most {@code pool-size} connections (and so at most that many concurrent sends) at any time.
+ * Connections are configured from the application's {@link JavaMailSenderImpl}, so the usual
+ * {@code spring.mail.*} properties apply.
+ */
+package com.project.SuperC.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class SmtpTransportPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final int size;
+    private final int maxMessagesPerConnection;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    /**
+     * Constructs an SmtpTransportPool.
+     *
+     * @param mailSender The mail sender whose session, host, port and credentials are used for every connection.
+     * @param size The maximum number of open connections, which is also the maximum number of concurrent sends.
+     * @param maxMessagesPerConnection The number of messages after which a connection is closed and replaced,
+     *                                 for servers that limit messages per session.
+     */
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${application.email.smtp.pool-size:4}") int size,
+                             @Value("${application.email.smtp.max-messages-per-connection:500}") int maxMessagesPerConnection) {
+        this.mailSender = mailSender;
+        this.size = size;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.permits = new Semaphore(size, true);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of SMTP connections opened since startup.
+     *
+     * @return The number of connections opened.
+     */
+    public long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    /**
+     * Borrows a connected transport, opening a new connection if no idle one is available.
+     * Blocks while all {@code pool-size} connections are in use.
+     *
+     * @return A connected transport, which must be handed back with {@link #release} or {@link #discard}.
+     * @throws MessagingException if a new connection could not be opened.
+     * @throws InterruptedException if interrupted while waiting for a connection.
+     */
+    public PooledTransport borrow() throws MessagingException, InterruptedException {
+        permits.acquire();
+        try {
+            // Idle connections are not probed with a NOOP, which would cost a round trip per message;
+            // a connection the server has dropped fails on send and the caller retries on a new one.
+            PooledTransport pooled = idle.pollFirst();
+            if (pooled != null) {
+                return pooled;
+            }
+            Transport transport = mailSender.getSession().getTransport(protocol());
+            transport.connect(mailSender.getHost(), mailSender.getPort(), blankToNull(mailSender.getUsername()), blankToNull(mailSender.getPassword()));
+            connectionsOpened.incrementAndGet();
+            return new PooledTransport(transport);
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a healthy transport to the pool after a successful send.
+     *
+     * @param pooled The transport to return.
+     */
+    public void release(PooledTransport pooled) {
+        if (++pooled.messagesSent >= maxMessagesPerConnection) {
+            close(pooled);
+        } else {
+            idle.offerFirst(pooled);
+        }
+        permits.release();
+    }
+
+    /**
+     * Closes a transport that failed, rather than returning it to the pool.
+     *
+     * @param pooled The transport to discard.
+     */
+    public void discard(PooledTransport pooled) {
+        close(pooled);
+        permits.release();
+    }
+
+    /**
+     * Closes all idle connections.
+     */
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    private static void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves the transport protocol the same way {@link JavaMailSenderImpl} does.
+     *
+     * @return The configured protocol, the session's default transport protocol, or {@code smtp}.
+     */
+    private String protocol() {
+        if (mailSender.getProtocol() != null) {
+            return mailSender.getProtocol();
+        }
+        String sessionProtocol = mailSender.getSession().getProperty("mail.transport.protocol");
+        return sessionProtocol != null ? sessionProtocol : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * A pooled SMTP connection together with the number of messages sent over it.
+     */
+    public static final class PooledTransport {
+
+        private final Transport transport;
+        private int messagesSent;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public Transport getTransport() {
+            return transport;
+        }
+
+        /**
+         * Returns whether this connection has already carried a message, and so may have gone stale while idle.
+         *
+         * @return true if at least one message was sent over this connection.
+         */
+        public boolean isReused() {
+            return messagesSent > 0;
+        }
+    }
+}
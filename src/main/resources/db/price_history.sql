@@ -0,0 +1,14 @@
+-- Append-only time series of scraped prices, partitioned by month on observed_at.
+-- Monthly partitions are created on demand by PriceHistoryRepository.ensureMonthlyPartition.
+-- Every statement is idempotent; the script runs on each startup.
+
+CREATE TABLE IF NOT EXISTS price_history (
+    product_number VARCHAR(255) NOT NULL,
+    price NUMERIC(10, 2) NOT NULL,
+    observed_at TIMESTAMP WITH TIME ZONE NOT NULL
+) PARTITION BY RANGE (observed_at);
+
+CREATE INDEX IF NOT EXISTS idx_price_history_product_observed ON price_history (product_number, observed_at);
+
+-- Number of observations folded into products.average_price, so the mean can be updated incrementally.
+ALTER TABLE IF EXISTS products ADD COLUMN IF NOT EXISTS price_sample_count BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+-- Trigram index backing product name search: serves case-insensitive LIKE '%term%' substring matches,
+-- which a B-tree cannot, without scanning the whole table.
+-- pg_trgm is a trusted extension, so the application user only needs CREATE on the database.
+-- Every statement is idempotent; the script runs on each startup.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (lower(name) gin_trgm_ops);
+
+-- GiST trigram index for nearest-neighbour ordering (ORDER BY term <<-> name LIMIT n): search picks its bounded
+-- candidate set by word similarity through it, so the best matches of a broad term are never cut off.
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm_gist ON products USING gist (lower(name) gist_trgm_ops);
@@ -0,0 +1,61 @@
+package com.project.SuperC.scraper;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that only the half-open probe moves an open breaker, and that outcomes of requests
+ * admitted before the breaker changed state are ignored.
+ */
+class CircuitBreakerTest {
+
+	@Test
+	void lateSuccessDoesNotCloseAnOpenBreaker() {
+		CircuitBreaker breaker = new CircuitBreaker("test", 2, Duration.ofHours(1));
+		CircuitBreaker.Permit slow = breaker.tryAcquire();
+
+		breaker.onFailure(breaker.tryAcquire());
+		breaker.onFailure(breaker.tryAcquire());
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		breaker.onSuccess(slow);
+
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquire()).isNull();
+	}
+
+	@Test
+	void onlyTheProbeClosesAHalfOpenBreaker() {
+		CircuitBreaker breaker = new CircuitBreaker("test", 1, Duration.ZERO);
+		CircuitBreaker.Permit slow = breaker.tryAcquire();
+		breaker.onFailure(breaker.tryAcquire());
+
+		CircuitBreaker.Permit probe = breaker.tryAcquire();
+		assertThat(probe.probe()).isTrue();
+		assertThat(breaker.tryAcquire()).isNull();
+
+		breaker.onSuccess(slow);
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+		breaker.onSuccess(probe);
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void ignoredProbeLetsAnotherRequestProbe() {
+		CircuitBreaker breaker = new CircuitBreaker("test", 1, Duration.ZERO);
+		breaker.onFailure(breaker.tryAcquire());
+
+		CircuitBreaker.Permit probe = breaker.tryAcquire();
+		breaker.onIgnore(probe);
+
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		CircuitBreaker.Permit next = breaker.tryAcquire();
+		assertThat(next).isNotNull();
+		breaker.onFailure(next);
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+	}
+}
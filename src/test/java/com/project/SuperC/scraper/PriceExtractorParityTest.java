@@ -0,0 +1,127 @@
+package com.project.SuperC.scraper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that the streaming extractor produces exactly what the Jsoup extractor produces
+ * on saved Super C search pages, including markup edge cases and broken HTML.
+ */
+class PriceExtractorParityTest {
+
+	private static final String URL = "https://www.superc.ca/en/search?filter=fixture";
+
+	private final JsoupPriceExtractor jsoupExtractor = new JsoupPriceExtractor();
+	private final StreamingPriceExtractor streamingExtractor = new StreamingPriceExtractor();
+	private final FallbackPriceExtractor fallbackExtractor =
+			new FallbackPriceExtractor(streamingExtractor, jsoupExtractor, "streaming");
+
+	@ParameterizedTest
+	@ValueSource(strings = {"small.html", "medium.html", "large.html", "edge-cases.html", "no-results.html"})
+	void streamingMatchesJsoup(String fixture) throws IOException {
+		byte[] body = fixture(fixture);
+
+		List<ScrapedProduct> expected = jsoupExtractor.extract(body, "UTF-8", URL);
+
+		assertThat(streamingExtractor.extract(body, "UTF-8", URL)).isEqualTo(expected);
+		assertThat(streamingExtractor.extract(body, null, URL)).isEqualTo(expected);
+	}
+
+	@Test
+	void fixturesCoverExpectedTileCounts() throws IOException {
+		assertThat(jsoupExtractor.extract(fixture("small.html"), "UTF-8", URL)).hasSize(3);
+		assertThat(jsoupExtractor.extract(fixture("medium.html"), "UTF-8", URL)).hasSize(24);
+		assertThat(jsoupExtractor.extract(fixture("large.html"), "UTF-8", URL)).hasSize(120);
+		assertThat(jsoupExtractor.extract(fixture("no-results.html"), "UTF-8", URL)).isEmpty();
+	}
+
+	@Test
+	void edgeCasesExtractExpectedValues() throws IOException {
+		List<ScrapedProduct> products = streamingExtractor.extract(fixture("edge-cases.html"), "UTF-8", URL);
+
+		assertThat(products).extracting(ScrapedProduct::getTitle).contains(
+				"Crème glacée Häagen-Dazs®",
+				"Two lines “Second” title & more",
+				"Tabs and newlines");
+		assertThat(products).extracting(ScrapedProduct::getPrice)
+				.containsExactly(12.49, 7.00, 0.0, 0.0, 12345678.90, 4.29, 0.99, 10.50);
+	}
+
+	@Test
+	void malformedPageFallsBackToJsoup() throws IOException {
+		byte[] body = fixture("malformed.html");
+
+		assertThatThrownBy(() -> streamingExtractor.extract(body, "UTF-8", URL))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(fallbackExtractor.extract(body, "UTF-8", URL))
+				.isEqualTo(jsoupExtractor.extract(body, "UTF-8", URL));
+	}
+
+	@Test
+	void nonUtf8PageFallsBackToJsoup() {
+		byte[] body = ("<div class=\"pt__content\"><div class=\"head__title\">Pâté</div>"
+				+ "<div class=\"pricing__sale-price\">$2.50</div></div>").getBytes(StandardCharsets.ISO_8859_1);
+
+		List<ScrapedProduct> products = fallbackExtractor.extract(body, "ISO-8859-1", URL);
+
+		assertThat(products).containsExactly(new ScrapedProduct("Pâté", 2.50));
+		assertThat(products).isEqualTo(jsoupExtractor.extract(body, "ISO-8859-1", URL));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"<meta charset=\"ISO-8859-1\">",
+			"<META HTTP-EQUIV=\"Content-Type\" CONTENT=\"text/html; charset=windows-1252\">"})
+	void undeclaredNonUtf8PageFallsBackToJsoup(String meta) {
+		byte[] body = ("<html><head>" + meta + "</head><body><div class=\"pt__content\"><div class=\"head__title\">Pâté</div>"
+				+ "<div class=\"pricing__sale-price\">$2.50</div></div></body></html>").getBytes(StandardCharsets.ISO_8859_1);
+
+		assertThatThrownBy(() -> streamingExtractor.extract(body, null, URL))
+				.isInstanceOf(UnsupportedCharsetException.class);
+		List<ScrapedProduct> products = fallbackExtractor.extract(body, null, URL);
+
+		assertThat(products).containsExactly(new ScrapedProduct("Pâté", 2.50));
+		assertThat(products).isEqualTo(jsoupExtractor.extract(body, null, URL));
+	}
+
+	@Test
+	void byteOrderMarkDecidesTheCharsetOfAnUndeclaredPage() {
+		String page = "<div class=\"pt__content\"><div class=\"head__title\">Pâté</div>"
+				+ "<div class=\"pricing__sale-price\">$2.50</div></div>";
+		byte[] utf16 = ("\uFEFF" + page).getBytes(StandardCharsets.UTF_16BE);
+		byte[] utf8 = ("\uFEFF<meta charset=\"ISO-8859-1\">" + page).getBytes(StandardCharsets.UTF_8);
+
+		assertThatThrownBy(() -> streamingExtractor.extract(utf16, null, URL))
+				.isInstanceOf(UnsupportedCharsetException.class);
+		assertThat(fallbackExtractor.extract(utf16, null, URL)).containsExactly(new ScrapedProduct("Pâté", 2.50));
+		assertThat(streamingExtractor.extract(utf8, null, URL)).containsExactly(new ScrapedProduct("Pâté", 2.50));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"$4.99", "2 for $7.00", "12.5 then 3.45", "1.2.34", "no price", "99", "0.001",
+			"123456789012345678.99", "$ 1 234.56", "7.", ".99"})
+	void parsePriceMatchesRegex(String text) {
+		Matcher matcher = Pattern.compile("(\\d+\\.\\d{2})").matcher(text);
+		double expected = matcher.find() ? Double.parseDouble(matcher.group(1)) : 0.0;
+
+		assertThat(StreamingPriceExtractor.parsePrice(text)).isEqualTo(expected);
+	}
+
+	private static byte[] fixture(String name) throws IOException {
+		try (InputStream in = PriceExtractorParityTest.class.getResourceAsStream("/fixtures/" + name)) {
+			assertThat(in).as("fixture %s", name).isNotNull();
+			return in.readAllBytes();
+		}
+	}
+}
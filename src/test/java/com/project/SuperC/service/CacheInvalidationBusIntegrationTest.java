@@ -0,0 +1,156 @@
+package com.project.SuperC.service;
+
+import com.project.SuperC.SuperCApplication;
+import com.project.SuperC.models.PriceTrackingRequest;
+import com.project.SuperC.models.Product;
+import com.project.SuperC.models.User;
+import com.project.SuperC.repository.UserRepository;
+import com.project.SuperC.scraper.ScrapedProduct;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two application contexts against the configured database, as two nodes would, and checks that the
+ * writes of one reach the caches and price update streams of the other through Postgres {@code LISTEN/NOTIFY}.
+ * Both nodes listen on a channel of their own, so a run does not disturb other nodes on the same database.
+ * <p>
+ * The test writes to the configured database, so it only runs when asked for, against a scratch database:
+ * <pre>
+ * mvn test -DskipTests=false -Dtest=CacheInvalidationBusIntegrationTest -Dintegration.database=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "integration.database", matches = "true")
+class CacheInvalidationBusIntegrationTest {
+
+	private static final String PREFIX = "bus-test-";
+	private static final String EMAIL = PREFIX + "user@example.invalid";
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	private static ConfigurableApplicationContext nodeA;
+	private static ConfigurableApplicationContext nodeB;
+	private static JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	static void startNodes() {
+		String channel = "cache_invalidation_test_" + UUID.randomUUID().toString().replace("-", "");
+		nodeA = startNode(channel);
+		nodeB = startNode(channel);
+		jdbcTemplate = nodeA.getBean(JdbcTemplate.class);
+		deleteTestRows();
+	}
+
+	@AfterAll
+	static void stopNodes() {
+		deleteTestRows();
+		nodeA.close();
+		nodeB.close();
+	}
+
+	@Test
+	void repricedProductIsEvictedOnTheOtherNode() {
+		String productNumber = PREFIX + "repriced";
+		insertProduct(productNumber, 4.99);
+		assertThat(price(nodeA, productNumber)).contains(4.99);
+		assertThat(price(nodeB, productNumber)).contains(4.99);
+
+		nodeA.getBean(PriceHistoryService.class).record(
+				Map.of(productNumber, List.of(new ScrapedProduct("Bus test repriced", 3.49))), Instant.now());
+
+		assertThat(price(nodeA, productNumber)).contains(3.49);
+		awaitTrue(() -> price(nodeB, productNumber).equals(Optional.of(3.49)));
+	}
+
+	@Test
+	void burstOfWritesIsCoalescedIntoFewNotifications() {
+		List<String> productNumbers = IntStream.range(0, 500).mapToObj(i -> PREFIX + "burst-" + i).toList();
+		insertProduct(productNumbers.get(0), 1.00);
+		assertThat(price(nodeB, productNumbers.get(0))).contains(1.00);
+		jdbcTemplate.update("UPDATE products SET current_price = 2.00 WHERE product_number = ?", productNumbers.get(0));
+		double sentBefore = notifications(nodeA, "sent");
+		double receivedBefore = notifications(nodeB, "received");
+
+		CacheInvalidationBus bus = nodeA.getBean(CacheInvalidationBus.class);
+		productNumbers.forEach(productNumber -> bus.productsWritten(List.of(productNumber)));
+
+		awaitTrue(() -> price(nodeB, productNumbers.get(0)).equals(Optional.of(2.00)));
+		awaitTrue(() -> notifications(nodeB, "received") - receivedBefore == notifications(nodeA, "sent") - sentBefore);
+		assertThat(notifications(nodeA, "sent") - sentBefore).isBetween(1.0, 4.0);
+	}
+
+	@Test
+	void trackingChangeReachesTheUsersStreamOnTheOtherNode() {
+		String productNumber = PREFIX + "tracked";
+		insertProduct(productNumber, 7.99);
+		jdbcTemplate.update("INSERT INTO users (email, password) VALUES (?, '{noop}bus-test')", EMAIL);
+		User user = nodeA.getBean(UserRepository.class).findByEmail(EMAIL).orElseThrow();
+		PriceUpdateBroadcaster broadcasterB = nodeB.getBean(PriceUpdateBroadcaster.class);
+		broadcasterB.subscribe(user.getId(), List.of());
+
+		PriceTrackingRequest request = nodeA.getBean(PriceTrackingService.class).createPriceTrackingRequest(
+				PriceTrackingRequest.builder().productNumber(productNumber).maxPrice(5).build(), user);
+		awaitTrue(() -> broadcasterB.watchedBy(user.getId()).contains(productNumber));
+
+		nodeA.getBean(PriceTrackingService.class).deleteRequest(request.getId(), user.getId());
+		awaitTrue(() -> broadcasterB.watchedBy(user.getId()).isEmpty());
+	}
+
+	private static ConfigurableApplicationContext startNode(String channel) {
+		return new SpringApplicationBuilder(SuperCApplication.class)
+				.properties(
+						"server.port=0",
+						"application.cache.invalidation.channel=" + channel,
+						"application.cache.invalidation.flush-millis=500",
+						"application.price-check.resume-delay-seconds=3600",
+						"application.email.outbox.poll-interval-seconds=3600")
+				.run();
+	}
+
+	private static void insertProduct(String productNumber, double price) {
+		jdbcTemplate.update("INSERT INTO products (id, product_number, name, image_url, html_snippet, created_at, current_price) "
+				+ "VALUES (gen_random_uuid()::text, ?, ?, '', '', now(), ?)", productNumber, "Bus test " + productNumber, price);
+	}
+
+	private static Optional<Double> price(ConfigurableApplicationContext node, String productNumber) {
+		return node.getBean(ProductService.class).getProductByProductNumber(productNumber).map(Product::getCurrentPrice);
+	}
+
+	private static double notifications(ConfigurableApplicationContext node, String direction) {
+		return node.getBean(MeterRegistry.class).get("cache.invalidation.notifications").tag("direction", direction).counter().count();
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TIMEOUT.toNanos();
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition still false after %s", TIMEOUT).isLessThan(deadline);
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private static void deleteTestRows() {
+		jdbcTemplate.update("DELETE FROM price_tracking_requests WHERE product_number LIKE '" + PREFIX + "%'");
+		jdbcTemplate.update("DELETE FROM price_history WHERE product_number LIKE '" + PREFIX + "%'");
+		jdbcTemplate.update("DELETE FROM products WHERE product_number LIKE '" + PREFIX + "%'");
+		jdbcTemplate.update("DELETE FROM users WHERE email = ?", EMAIL);
+	}
+}
@@ -0,0 +1,93 @@
+package com.project.SuperC.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that {@link EmailSenderService} reuses pooled SMTP connections, never opens more than the pool size,
+ * replaces a connection once it reaches its message limit, and keeps to its send budget.
+ */
+class EmailSenderServiceTest {
+
+	private static final int MESSAGES = 40;
+
+	private FakeSmtpServer server;
+	private JavaMailSenderImpl mailSender;
+
+	@BeforeEach
+	void startServer() throws Exception {
+		server = new FakeSmtpServer(0);
+		mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(server.getPort());
+	}
+
+	@AfterEach
+	void stopServer() throws Exception {
+		server.close();
+	}
+
+	@Test
+	void sequentialSendsShareOneConnection() {
+		SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 10_000);
+		sendAll(new EmailSenderService(mailSender, pool, 0), 1);
+		pool.shutdown();
+
+		assertThat(server.getMessages()).isEqualTo(MESSAGES);
+		assertThat(server.getConnections()).isEqualTo(1);
+		assertThat(pool.getConnectionsOpened()).isEqualTo(1);
+	}
+
+	@Test
+	void parallelSendsOpenAtMostPoolSizeConnections() {
+		SmtpTransportPool pool = new SmtpTransportPool(mailSender, 4, 10_000);
+		sendAll(new EmailSenderService(mailSender, pool, 0), 8);
+		pool.shutdown();
+
+		assertThat(server.getMessages()).isEqualTo(MESSAGES);
+		assertThat(server.getConnections()).isBetween(1, 4);
+	}
+
+	@Test
+	void connectionIsReplacedAtMessageLimit() {
+		SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 10);
+		sendAll(new EmailSenderService(mailSender, pool, 0), 1);
+		pool.shutdown();
+
+		assertThat(server.getMessages()).isEqualTo(MESSAGES);
+		assertThat(server.getConnections()).isEqualTo(MESSAGES / 10);
+	}
+
+	@Test
+	void sendBudgetCapsRate() {
+		SmtpTransportPool pool = new SmtpTransportPool(mailSender, 2, 10_000);
+		EmailSenderService sender = new EmailSenderService(mailSender, pool, 600);
+
+		long begin = System.nanoTime();
+		for (int i = 0; i < 12; i++) {
+			sender.sendNotificationsEmail("user" + i + "@example.com", "Price alert", "Body " + i);
+		}
+		long elapsedMillis = (System.nanoTime() - begin) / 1_000_000;
+		pool.shutdown();
+
+		// 600 per minute is 10 per second with a burst of 2, so the last 10 messages need about one second.
+		assertThat(elapsedMillis).isGreaterThanOrEqualTo(900);
+		assertThat(server.getMessages()).isEqualTo(12);
+	}
+
+	private static void sendAll(EmailSenderService sender, int parallelism) {
+		try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+			for (int i = 0; i < MESSAGES; i++) {
+				int n = i;
+				executor.submit(() -> sender.sendNotificationsEmail("user" + n + "@example.com", "Price alert", "Body " + n));
+			}
+		}
+	}
+}
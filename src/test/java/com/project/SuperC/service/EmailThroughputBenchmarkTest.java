@@ -0,0 +1,90 @@
+package com.project.SuperC.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures email throughput against an in-process SMTP stand-in whose greeting is delayed to mimic
+ * real connection setup. Every run sends through {@link EmailSenderService}; the baseline closes each
+ * connection after one message, as the plain {@link JavaMailSenderImpl} does, and the others keep
+ * connections open at different levels of parallelism.
+ * Run with {@code -Dbenchmark.email=true}; the pooling behaviour itself is covered by {@link EmailSenderServiceTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark.email", matches = "true")
+class EmailThroughputBenchmarkTest {
+
+	private static final int MESSAGES = 300;
+	private static final long HANDSHAKE_MILLIS = 10;
+
+	private FakeSmtpServer server;
+	private JavaMailSenderImpl mailSender;
+
+	@BeforeEach
+	void startServer() throws Exception {
+		server = new FakeSmtpServer(HANDSHAKE_MILLIS);
+		mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(server.getPort());
+	}
+
+	@AfterEach
+	void stopServer() throws Exception {
+		server.close();
+	}
+
+	@Test
+	void connectionPerMessageBaseline() {
+		SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 1);
+		long start = System.nanoTime();
+		sendAll(new EmailSenderService(mailSender, pool, 0), 1);
+		pool.shutdown();
+		report("connection per message", start);
+
+		assertThat(server.getMessages()).isEqualTo(MESSAGES);
+	}
+
+	@Test
+	void pooledSingleConnection() {
+		SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 10_000);
+		long start = System.nanoTime();
+		sendAll(new EmailSenderService(mailSender, pool, 0), 1);
+		pool.shutdown();
+		report("pooled, 1 connection", start);
+
+		assertThat(server.getMessages()).isEqualTo(MESSAGES);
+	}
+
+	@Test
+	void pooledParallel() {
+		SmtpTransportPool pool = new SmtpTransportPool(mailSender, 8, 10_000);
+		long start = System.nanoTime();
+		sendAll(new EmailSenderService(mailSender, pool, 0), 8);
+		pool.shutdown();
+		report("pooled, 8 connections", start);
+
+		assertThat(server.getMessages()).isEqualTo(MESSAGES);
+	}
+
+	private static void sendAll(EmailSenderService sender, int parallelism) {
+		try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+			for (int i = 0; i < MESSAGES; i++) {
+				int n = i;
+				executor.submit(() -> sender.sendNotificationsEmail("user" + n + "@example.com", "Price alert", "Body " + n));
+			}
+		}
+	}
+
+	private void report(String label, long startNanos) {
+		double seconds = (System.nanoTime() - startNanos) / 1e9;
+		System.out.printf("%-24s %5d messages in %6.2f s = %8.1f messages/s over %d connections%n",
+				label, server.getMessages(), seconds, server.getMessages() / seconds, server.getConnections());
+	}
+}
@@ -0,0 +1,98 @@
+package com.project.SuperC.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal in-process SMTP server that accepts every message and counts connections and deliveries.
+ * The greeting can be delayed to stand in for the cost of a real connection setup (TCP, TLS and AUTH).
+ */
+class FakeSmtpServer implements AutoCloseable {
+
+	private final ServerSocket serverSocket;
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final long greetingDelayMillis;
+	private final AtomicInteger connections = new AtomicInteger();
+	private final AtomicInteger messages = new AtomicInteger();
+
+	FakeSmtpServer(long greetingDelayMillis) throws IOException {
+		this.greetingDelayMillis = greetingDelayMillis;
+		this.serverSocket = new ServerSocket(0, 200, InetAddress.getLoopbackAddress());
+		executor.submit(this::acceptLoop);
+	}
+
+	int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	int getConnections() {
+		return connections.get();
+	}
+
+	int getMessages() {
+		return messages.get();
+	}
+
+	private void acceptLoop() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				connections.incrementAndGet();
+				executor.submit(() -> handle(socket));
+			} catch (IOException e) {
+				return;
+			}
+		}
+	}
+
+	private void handle(Socket socket) {
+		try (socket;
+			 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+			 OutputStream out = socket.getOutputStream()) {
+			Thread.sleep(greetingDelayMillis);
+			reply(out, "220 localhost fake SMTP");
+			String line;
+			while ((line = in.readLine()) != null) {
+				String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+				switch (command) {
+					case "EHLO", "HELO" -> reply(out, "250 localhost");
+					case "DATA" -> {
+						reply(out, "354 End data with <CR><LF>.<CR><LF>");
+						while ((line = in.readLine()) != null && !line.equals(".")) {
+							// Discard the message content.
+						}
+						messages.incrementAndGet();
+						reply(out, "250 OK");
+					}
+					case "QUIT" -> {
+						reply(out, "221 Bye");
+						return;
+					}
+					default -> reply(out, "250 OK");
+				}
+			}
+		} catch (IOException | InterruptedException e) {
+			// Connection closed by the client.
+		}
+	}
+
+	private static void reply(OutputStream out, String line) throws IOException {
+		out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+		executor.shutdownNow();
+	}
+}
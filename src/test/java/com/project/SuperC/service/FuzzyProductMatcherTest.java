@@ -0,0 +1,72 @@
+package com.project.SuperC.service;
+
+import com.project.SuperC.dto.ProductSuggestion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks accent folding, edit-distance matching and ranking of the {@link FuzzyProductMatcher}, loaded
+ * directly rather than from the database.
+ */
+class FuzzyProductMatcherTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final FuzzyProductMatcher matcher = new FuzzyProductMatcher(null, registry, 15);
+
+	@BeforeEach
+	void loadCatalog() {
+		matcher.load(List.of(
+				new ProductSuggestion("1", "Liberté Yogourt Grec Nature 750 g", 4),
+				new ProductSuggestion("2", "Oikos Greek Yogurt Vanilla", 9),
+				new ProductSuggestion("3", "Black Diamond Fromage Cheddar Fort", 2),
+				new ProductSuggestion("4", "Crème glacée à l'érable", 0),
+				new ProductSuggestion("5", "Œufs gros calibre 12 un.", 1),
+				new ProductSuggestion("6", "Natrel Lait 2% 4 L", 12),
+				new ProductSuggestion("7", "Natrel Lait 1% 4 L", 3)));
+	}
+
+	@Test
+	void foldsAccentsAndLigatures() {
+		assertThat(FuzzyProductMatcher.fold("Crème Glacée à l'Érable")).isEqualTo("creme glacee a l'erable");
+		assertThat(FuzzyProductMatcher.words(FuzzyProductMatcher.fold("Œufs, 12 un."))).containsExactly("oeufs", "12", "un");
+	}
+
+	@Test
+	void toleratesTyposAndMissingAccents() {
+		assertThat(matcher.search("fromag", 500, 0, 10)).containsExactly("3");
+		assertThat(matcher.search("creme glacee erable", 500, 0, 10)).containsExactly("4");
+		assertThat(matcher.search("oeuf", 500, 0, 10)).containsExactly("5");
+		assertThat(matcher.search("chedar frot", 500, 0, 10)).containsExactly("3");
+	}
+
+	@Test
+	void ranksFewerEditsFirstThenMostTracked() {
+		// "yogourt" is exact for 1 and one edit from "yogurt"; "yougourt" is one edit from 1 and two from 2.
+		assertThat(matcher.search("yogourt", 500, 0, 10)).containsExactly("1", "2");
+		assertThat(matcher.search("yougourt", 500, 0, 10)).containsExactly("1", "2");
+		assertThat(matcher.search("yogurt", 500, 0, 10)).containsExactly("2", "1");
+	}
+
+	@Test
+	void shortWordsAndSizesMustMatchExactly() {
+		assertThat(matcher.search("lait 2", 500, 0, 10)).containsExactly("6");
+		assertThat(matcher.search("lait 3", 500, 0, 10)).isEmpty();
+		assertThat(matcher.search("grek", 500, 0, 10)).containsExactly("2", "1");
+		assertThat(matcher.search("gre", 500, 0, 10)).isEmpty();
+		assertThat(matcher.search("fromage xyzzy", 500, 0, 10)).isEmpty();
+	}
+
+	@Test
+	void pagesThroughTheCappedCandidates() {
+		assertThat(matcher.search("natrel lait", 500, 0, 1)).containsExactly("6");
+		assertThat(matcher.search("natrel lait", 500, 1, 1)).containsExactly("7");
+		assertThat(matcher.search("natrel lait", 1, 1, 1)).isEmpty();
+		assertThat(registry.get("product.search.fuzzy.products").gauge().value()).isEqualTo(7);
+		assertThat(registry.get("product.search.fuzzy.words").gauge().value()).isGreaterThan(20);
+	}
+}
@@ -0,0 +1,118 @@
+package com.project.SuperC.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays a full price-check run offline: tracking requests are generated in the database, pages are
+ * served by a {@link StubSuperCServer} and alert emails are delivered to a {@link FakeSmtpServer}, so the
+ * whole fetch, parse, alert and email pipeline runs without touching superc.ca or a real mail server.
+ * Reports wall time, tracking requests per second and the JVM's allocation rate.
+ * <p>
+ * The benchmark writes to the configured database, so it only runs when asked for, against a scratch database:
+ * <pre>
+ * mvn test -DskipTests=false -Dtest=PriceCheckReplayBenchmarkTest -Dbenchmark.replay=true \
+ *     -Dbenchmark.replay.requests=100000 -Dbenchmark.replay.response-delay-millis=20
+ * </pre>
+ * Sizes from 10,000 (the default) up to 1,000,000 requests are supported. Products default to one
+ * per ten requests and users to one per five requests. Existing tracking requests in the database take part
+ * in the run as well.
+ */
+@SpringBootTest(properties = {
+		"application.price-check.resume-delay-seconds=3600",
+		"application.email.outbox.poll-interval-seconds=3600",
+		"application.email.smtp.max-per-minute=0",
+		"application.price-check.fetch.max-in-flight=64",
+		"application.price-check.fetch.rate-limit.permits-per-second=1000000",
+		"application.price-check.fetch.rate-limit.burst=1000"
+})
+@EnabledIfSystemProperty(named = "benchmark.replay", matches = "true")
+class PriceCheckReplayBenchmarkTest {
+
+	private static final int REQUESTS = Integer.getInteger("benchmark.replay.requests", 10_000);
+	private static final int PRODUCTS = Integer.getInteger("benchmark.replay.products", Math.max(1, REQUESTS / 10));
+	private static final int USERS = Integer.getInteger("benchmark.replay.users", Math.max(1, REQUESTS / 5));
+	private static final long RESPONSE_DELAY_MILLIS = Long.getLong("benchmark.replay.response-delay-millis", 0L);
+
+	private static StubSuperCServer site;
+	private static FakeSmtpServer smtp;
+
+	@Autowired
+	private PriceCheckJobService priceCheckJobService;
+
+	@Autowired
+	private EmailOutboxDispatcher emailOutboxDispatcher;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DynamicPropertySource
+	static void stubServers(DynamicPropertyRegistry registry) throws IOException {
+		site = new StubSuperCServer("fixtures/medium.html", RESPONSE_DELAY_MILLIS);
+		smtp = new FakeSmtpServer(0);
+		registry.add("application.price-check.base-url", site::getBaseUrl);
+		registry.add("spring.mail.host", () -> "localhost");
+		registry.add("spring.mail.port", smtp::getPort);
+		registry.add("spring.mail.username", () -> "");
+		registry.add("spring.mail.password", () -> "");
+		registry.add("spring.mail.properties.mail.smtp.auth", () -> "false");
+		registry.add("spring.mail.properties.mail.smtp.starttls.enable", () -> "false");
+	}
+
+	@AfterAll
+	static void stopServers() throws IOException {
+		site.close();
+		smtp.close();
+	}
+
+	@Test
+	void replayFullPriceCheck() {
+		SyntheticTrackingDataGenerator generator = new SyntheticTrackingDataGenerator(jdbcTemplate);
+		Instant scheduledAt = Instant.now();
+		generator.deleteAll();
+		try {
+			long generateStart = System.nanoTime();
+			generator.generate(REQUESTS, PRODUCTS, USERS);
+			System.out.printf("Generated %d requests for %d products and %d users in %.2f s%n",
+					REQUESTS, PRODUCTS, USERS, (System.nanoTime() - generateStart) / 1e9);
+
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+			System.gc();
+			long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+			long start = System.nanoTime();
+
+			priceCheckJobService.runScheduled(scheduledAt);
+			long checked = System.nanoTime();
+			emailOutboxDispatcher.dispatchPending();
+			long end = System.nanoTime();
+
+			long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+			double seconds = (end - start) / 1e9;
+			System.out.printf("Price check      %8.2f s (%d pages fetched)%n", (checked - start) / 1e9, site.getRequests());
+			System.out.printf("Email delivery   %8.2f s (%d emails over %d connections)%n", (end - checked) / 1e9, smtp.getMessages(), smtp.getConnections());
+			System.out.printf("Total            %8.2f s = %10.1f requests/s, %8.1f MB allocated = %8.1f MB/s%n",
+					seconds, REQUESTS / seconds, allocated / 1e6, allocated / 1e6 / seconds);
+
+			assertThat(site.getRequests()).isGreaterThanOrEqualTo(PRODUCTS);
+			assertThat(smtp.getMessages()).isPositive();
+			assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM email_outbox WHERE status = 'PENDING' AND recipient LIKE ?",
+					Long.class, SyntheticTrackingDataGenerator.PREFIX + "%")).isZero();
+		} finally {
+			generator.deleteAll();
+			jdbcTemplate.update("DELETE FROM price_check_checkpoints WHERE scheduled_at = ?", Timestamp.from(scheduledAt));
+		}
+	}
+}
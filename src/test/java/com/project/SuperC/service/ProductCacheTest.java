@@ -0,0 +1,121 @@
+package com.project.SuperC.service;
+
+import com.project.SuperC.dto.ProductSummary;
+import com.project.SuperC.dto.ProductSummaryRow;
+import com.project.SuperC.models.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the {@link ProductCache} serves repeated reads from memory, evicts exactly what a price write
+ * made stale, and publishes its hits and misses.
+ */
+class ProductCacheTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ProductCache cache = new ProductCache(registry, 100, 10, 100, 5);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void servesRepeatedLookupsFromMemoryAndCountsHits() {
+		assertThat(cache.getProduct("1", this::load)).map(Product::getName).contains("Product 1");
+		assertThat(cache.getProduct("1", this::load)).map(Product::getName).contains("Product 1");
+		assertThat(cache.getProduct("missing", number -> {
+			loads.incrementAndGet();
+			return Optional.empty();
+		})).isEmpty();
+		assertThat(cache.getProduct("missing", this::load)).isEmpty();
+
+		assertThat(loads).hasValue(2);
+		assertThat(registry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count()).isEqualTo(2);
+		assertThat(registry.get("cache.gets").tag("cache", "products").tag("result", "miss").functionCounter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void handsOutCopiesCallersCannotCorruptTheCacheWith() {
+		cache.getProduct("1", this::load).orElseThrow().setName("Changed");
+
+		assertThat(cache.getProduct("1", this::load)).map(Product::getName).contains("Product 1");
+	}
+
+	@Test
+	void loadsMissingProductsWithOneBulkRead() {
+		cache.getProduct("1", this::load);
+		AtomicInteger reads = new AtomicInteger();
+
+		Map<String, Product> products = cache.getProducts(List.of("1", "2", "3"), numbers -> {
+			reads.incrementAndGet();
+			assertThat(numbers).containsExactlyInAnyOrder("2", "3");
+			return List.of(product("2", 9.99));
+		});
+
+		assertThat(reads).hasValue(1);
+		assertThat(products).containsOnlyKeys("1", "2");
+		assertThat(cache.getProducts(List.of("2", "3"), numbers -> {
+			throw new AssertionError("Read " + numbers + " again");
+		})).containsOnlyKeys("2");
+	}
+
+	@Test
+	void priceWriteEvictsTheProductAndOnlyThePagesShowingIt() {
+		cache.getProduct("1", this::load);
+		cache.getProduct("2", this::load);
+		cache.getSearch("yogourt", false, PageRequest.of(0, 10), () -> page("1"));
+		cache.getSearch("lait", false, PageRequest.of(0, 10), () -> page("2"));
+
+		cache.invalidate(Set.of("1"));
+
+		assertThat(loads).hasValue(2);
+		cache.getProduct("1", this::load);
+		cache.getProduct("2", this::load);
+		assertThat(loads).hasValue(3);
+		assertThat(cache.getSearch("yogourt", false, PageRequest.of(0, 10), () -> page("1", "3")).getContent()).hasSize(2);
+		assertThat(cache.getSearch("lait", false, PageRequest.of(0, 10), () -> page()).getContent()).hasSize(1);
+	}
+
+	@Test
+	void doesNotStoreALoadThatRacedWithAWrite() {
+		Optional<Product> stale = cache.getProduct("1", number -> {
+			Optional<Product> read = load(number);
+			// Any write while the load runs may have been missed by it, not only one of the same product.
+			cache.invalidate(Set.of("2"));
+			return read;
+		});
+
+		assertThat(stale).isPresent();
+		cache.getProduct("1", this::load);
+		assertThat(loads).hasValue(2);
+	}
+
+	private Optional<Product> load(String productNumber) {
+		loads.incrementAndGet();
+		return Optional.of(product(productNumber, 4.99));
+	}
+
+	private static Product product(String productNumber, double price) {
+		return Product.builder()
+				.productNumber(productNumber)
+				.name("Product " + productNumber)
+				.currentPrice(price)
+				.build();
+	}
+
+	private static Slice<ProductSummary> page(String... productNumbers) {
+		List<ProductSummary> content = Arrays.stream(productNumbers)
+				.map(number -> (ProductSummary) new ProductSummaryRow(number, "Product " + number, "", null, 4.99, 4.99, null, null))
+				.toList();
+		return new SliceImpl<>(content, PageRequest.of(0, 10), false);
+	}
+}
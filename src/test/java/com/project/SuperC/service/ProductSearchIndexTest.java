@@ -0,0 +1,149 @@
+package com.project.SuperC.service;
+
+import com.project.SuperC.dto.ProductSummary;
+import com.project.SuperC.dto.ProductSummaryRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks matching, ranking and live updates of the in-memory {@link ProductSearchIndex}, loaded
+ * directly rather than from the database.
+ */
+class ProductSearchIndexTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ProductSearchIndex index = new ProductSearchIndex(null, registry, true, 15);
+
+	@BeforeEach
+	void loadCatalog() {
+		index.load(List.of(
+				product("1", "Natrel 2% Milk 4 L", 6.49),
+				product("2", "Chocolate Milk", 3.29),
+				product("3", "Milk Chocolate Bar", 1.99),
+				product("4", "Lactantia Buttermilk", 2.79),
+				product("5", "Oasis Orange Juice", 4.99),
+				product("6", "Café Moulu 咖啡", 8.99)));
+	}
+
+	@Test
+	void findsNamesContainingTheTermIgnoringCase() {
+		assertThat(numbers(index.search("milk", 500, 0, 50))).containsExactlyInAnyOrder("1", "2", "3", "4");
+		assertThat(numbers(index.search("orange j", 500, 0, 50))).containsExactly("5");
+		assertThat(index.search("milkshake", 500, 0, 50)).isEmpty();
+	}
+
+	@Test
+	void ranksPrefixThenWordStartThenShorterNames() {
+		// "Milk Chocolate Bar" starts with the term; the others only contain it, mid-word last.
+		assertThat(numbers(index.search("milk", 500, 0, 50))).containsExactly("3", "2", "1", "4");
+	}
+
+	@Test
+	void shortTermsAndNonLatinNamesAreSearchable() {
+		assertThat(numbers(index.search("oa", 500, 0, 50))).containsExactly("5");
+		assertThat(numbers(index.search("咖啡", 500, 0, 50))).containsExactly("6");
+		assertThat(numbers(index.search("café moulu 咖", 500, 0, 50))).containsExactly("6");
+	}
+
+	@Test
+	void pagesThroughTheCappedCandidates() {
+		assertThat(numbers(index.search("milk", 500, 1, 2))).containsExactly("2", "1");
+		assertThat(index.search("milk", 500, 4, 2)).isEmpty();
+		assertThat(numbers(index.search("milk", 2, 0, 50))).containsExactly("3", "2");
+	}
+
+	@Test
+	void keepsTheBestMatchesWhenMoreThanTheCandidatesMatch() {
+		List<ProductSummary> catalog = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			catalog.add(product("c" + i, String.format("Chocolate Milk Drink %03d", i), 2.99));
+		}
+		// Sorts after every other name, but is the only one starting with the term.
+		catalog.add(product("z", "Milk", 4.49));
+		index.load(catalog);
+
+		assertThat(numbers(index.search("milk", 10, 0, 3))).containsExactly("z", "c0", "c1");
+		assertThat(numbers(index.search("m", 10, 0, 1))).containsExactly("z");
+	}
+
+	@Test
+	void wordStartMatchesAloneRankLikeTheFullScan() {
+		List<ProductSummary> catalog = new ArrayList<>();
+		String[] words = {"milk", "mild", "chocolate", "choco-milk", "almond", "oat", "2%", "salsa mild"};
+		for (int i = 0; i < 400; i++) {
+			catalog.add(product("p" + i, words[i % 8] + " " + words[i * 7 % 8] + " " + words[i * 3 % 8] + " " + i, 1.99));
+		}
+		index.load(catalog);
+		index.apply(List.of(product("late", "Milky Way", 1.49), product("p3", "Mild Cheddar", 5.99)));
+
+		for (String term : List.of("m", "mi", "mil", "milk", "choco", "mild ", "2%", "lk", "ilk ch")) {
+			List<String> all = numbers(index.search(term, 10_000, 0, 10_000));
+			assertThat(numbers(index.search(term, 20, 0, 20))).as(term).isEqualTo(all.subList(0, Math.min(20, all.size())));
+		}
+	}
+
+	@Test
+	void nameWithSeveralMatchingWordsIsRankedOnce() {
+		List<ProductSummary> catalog = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			catalog.add(product("m" + i, "Whole Milk Milk " + i, 3.49));
+		}
+		index.load(catalog);
+
+		assertThat(numbers(index.search("milk", 5, 0, 50))).containsExactly("m0", "m1", "m2", "m3", "m4");
+		assertThat(index.search("milk", 50, 0, 50)).hasSize(20);
+	}
+
+	@Test
+	void namesTooLongToPackAreStillRanked() {
+		List<ProductSummary> catalog = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			catalog.add(product("m" + i, "Milk " + i, 3.49));
+		}
+		catalog.add(product("long", "Milk " + "x".repeat(300), 3.49));
+		index.load(catalog);
+
+		assertThat(numbers(index.search("milk", 5, 0, 50))).containsExactly("m0", "m1", "m2", "m3", "m4");
+		assertThat(numbers(index.search("milk x", 5, 0, 50))).containsExactly("long");
+	}
+
+	@Test
+	void appliesRepricedAndInsertedProducts() {
+		index.apply(List.of(product("2", "Chocolate Milk", 2.49), product("7", "Goat Milk", 4.29)));
+
+		List<ProductSummary> results = index.search("milk", 500, 0, 50);
+		assertThat(numbers(results)).containsExactly("3", "7", "2", "1", "4");
+		assertThat(results.get(2).getCurrentPrice()).isEqualTo(2.49);
+		assertThat(registry.get("product.search.index.products").gauge().value()).isEqualTo(7);
+	}
+
+	@Test
+	void renamedProductIsOnlyFoundUnderItsNewName() {
+		index.apply(List.of(product("5", "Oasis Apple Juice", 4.99)));
+
+		assertThat(index.search("orange", 500, 0, 50)).isEmpty();
+		assertThat(numbers(index.search("apple", 500, 0, 50))).containsExactly("5");
+		assertThat(registry.get("product.search.index.products").gauge().value()).isEqualTo(6);
+	}
+
+	@Test
+	void publishesItsSize() {
+		assertThat(registry.get("product.search.index.grams").gauge().value()).isGreaterThan(50);
+		assertThat(registry.get("product.search.index.postings").gauge().value()).isGreaterThan(0);
+		assertThat(registry.get("product.search.index.names").gauge().value()).isGreaterThan(0);
+	}
+
+	private static ProductSummary product(String number, String name, double price) {
+		return new ProductSummaryRow(number, name, "", null, price, price, null, null);
+	}
+
+	private static List<String> numbers(List<ProductSummary> products) {
+		return products.stream().map(ProductSummary::getProductNumber).toList();
+	}
+}
@@ -0,0 +1,90 @@
+package com.project.SuperC.service;
+
+import com.project.SuperC.dto.ProductSuggestion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks prefix matching and tracker-count ranking of the {@link ProductSuggester} trie, loaded
+ * directly rather than from the database.
+ */
+class ProductSuggesterTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ProductSuggester suggester = new ProductSuggester(null, registry, 3, 5);
+
+	@BeforeEach
+	void loadCatalog() {
+		suggester.load(List.of(
+				new ProductSuggestion("1", "Natrel 2% Milk 4 L", 12),
+				new ProductSuggestion("2", "Chocolate Milk", 3),
+				new ProductSuggestion("3", "Milk Chocolate Bar", 7),
+				new ProductSuggestion("4", "Lactantia Buttermilk", 40),
+				new ProductSuggestion("5", "Milkis Soda", 0),
+				new ProductSuggestion("6", "Natrel Lactose Free Milk", 12),
+				new ProductSuggestion("7", "Mild Cheddar", 1)));
+	}
+
+	@Test
+	void suggestsNamesAndWordsStartingWithThePrefixMostTrackedFirst() {
+		assertThat(numbers(suggester.suggest("milk", 10))).containsExactly("1", "6", "3");
+		assertThat(numbers(suggester.suggest("natrel", 10))).containsExactly("1", "6");
+		assertThat(numbers(suggester.suggest("MIL", 2))).containsExactly("1", "6");
+	}
+
+	@Test
+	void doesNotMatchInsideWords() {
+		assertThat(numbers(suggester.suggest("butter", 10))).containsExactly("4");
+		assertThat(suggester.suggest("ermilk", 10)).isEmpty();
+		assertThat(suggester.suggest("milkshake", 10)).isEmpty();
+	}
+
+	@Test
+	void matchesAcrossWordsAndEdgeSplits() {
+		assertThat(numbers(suggester.suggest("milk c", 10))).containsExactly("3");
+		assertThat(numbers(suggester.suggest("  Natrel   lac", 10))).containsExactly("6");
+		assertThat(numbers(suggester.suggest("mild", 10))).containsExactly("7");
+		assertThat(numbers(suggester.suggest("milki", 10))).containsExactly("5");
+	}
+
+	@Test
+	void confirmsPrefixesLongerThanTheKeys() {
+		suggester.load(List.of(
+				new ProductSuggestion("1", "Compliments Organic Unsweetened Almond Beverage Vanilla", 1),
+				new ProductSuggestion("2", "Compliments Organic Unsweetened Almond Beverage Original", 2)));
+
+		assertThat(numbers(suggester.suggest("compliments organic unsweetened almond beverage van", 10))).containsExactly("1");
+	}
+
+	@Test
+	void findsLongPrefixesBeyondTheBestProductsOfTheCutKey() {
+		// All five names share their first 32 characters, and the three best-ranked ones fill the node's list.
+		suggester.load(List.of(
+				new ProductSuggestion("1", "Compliments Organic Unsweetened Almond Beverage Original", 50),
+				new ProductSuggestion("2", "Compliments Organic Unsweetened Almond Beverage Chocolate", 40),
+				new ProductSuggestion("3", "Compliments Organic Unsweetened Almond Beverage Barista", 30),
+				new ProductSuggestion("4", "Compliments Organic Unsweetened Almond Beverage Vanilla", 20),
+				new ProductSuggestion("5", "Compliments Organic Unsweetened Almond Beverage Vanilla Light", 10)));
+
+		assertThat(numbers(suggester.suggest("compliments organic unsweetened almond beverage vanilla", 10)))
+				.containsExactly("4", "5");
+		assertThat(numbers(suggester.suggest("organic unsweetened almond beverage vanilla light", 10))).containsExactly("5");
+		assertThat(numbers(suggester.suggest("compliments organic unsweetened", 10))).containsExactly("1", "2", "3");
+	}
+
+	@Test
+	void blankPrefixSuggestsNothing() {
+		assertThat(suggester.suggest(" ", 10)).isEmpty();
+		assertThat(suggester.suggest(null, 10)).isEmpty();
+		assertThat(registry.get("product.suggest.products").gauge().value()).isEqualTo(7);
+	}
+
+	private static List<String> numbers(List<ProductSuggestion> suggestions) {
+		return suggestions.stream().map(ProductSuggestion::getProductNumber).toList();
+	}
+}
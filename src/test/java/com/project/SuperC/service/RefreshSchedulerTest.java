@@ -0,0 +1,86 @@
+package com.project.SuperC.service;
+
+import com.project.SuperC.models.PriceVolatility;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the next-check times computed by {@link RefreshScheduler} for products with different
+ * price histories and flyer dates. The flyer rolls over on Thursdays at 06:00 in Toronto, and
+ * "now" is Monday 2026-10-12 at noon in Toronto, so the next rollover is 2026-10-15T10:00Z.
+ */
+class RefreshSchedulerTest {
+
+	private static final Instant NOW = Instant.parse("2026-10-12T16:00:00Z");
+	private static final Instant NEXT_ROLLOVER = Instant.parse("2026-10-15T10:00:00Z");
+
+	private final RefreshScheduler scheduler = new RefreshScheduler(null, null, 24, 2, 336, 120, 60,
+			DayOfWeek.THURSDAY, LocalTime.of(6, 0), ZoneId.of("America/Toronto"));
+
+	@Test
+	void productWithoutHistoryIsCheckedAfterTheBaseInterval() {
+		assertThat(scheduler.nextCheckAt(NOW, null, null)).isEqualTo(NOW.plus(Duration.ofHours(24)));
+	}
+
+	@Test
+	void volatileProductIsCheckedMoreOften() {
+		PriceVolatility volatility = new PriceVolatility("1", NOW.minus(Duration.ofDays(28)), NOW.minus(Duration.ofDays(1)), 8);
+
+		assertThat(scheduler.nextCheckAt(NOW, null, volatility)).isEqualTo(NOW.plus(Duration.ofHours(8)));
+	}
+
+	@Test
+	void stableProductIsCheckedLessOftenAndSkipsTheRollover() {
+		PriceVolatility volatility = new PriceVolatility("1", NOW.minus(Duration.ofDays(120)), null, 0);
+
+		assertThat(scheduler.nextCheckAt(NOW, null, volatility)).isEqualTo(NOW.plus(Duration.ofDays(8)));
+	}
+
+	@Test
+	void checkIsMovedUpToTheFlyerRollover() {
+		Instant wednesdayNoon = Instant.parse("2026-10-14T16:00:00Z");
+
+		assertThat(scheduler.nextCheckAt(wednesdayNoon, null, null)).isEqualTo(NEXT_ROLLOVER);
+	}
+
+	@Test
+	void checkIsNeverSoonerThanTheMinimumInterval() {
+		Instant justBeforeRollover = NEXT_ROLLOVER.minus(Duration.ofHours(1));
+
+		assertThat(scheduler.nextCheckAt(justBeforeRollover, null, null)).isEqualTo(justBeforeRollover.plus(Duration.ofHours(2)));
+	}
+
+	@Test
+	void stableProductIsCheckedWhenItsFlyerPriceEnds() {
+		PriceVolatility volatility = new PriceVolatility("1", NOW.minus(Duration.ofDays(120)), null, 0);
+
+		assertThat(scheduler.nextCheckAt(NOW, "2026-10-16", volatility)).isEqualTo(Instant.parse("2026-10-17T10:00:00Z"));
+		assertThat(scheduler.nextCheckAt(NOW, "Valid until Oct. 16", volatility)).isEqualTo(Instant.parse("2026-10-17T10:00:00Z"));
+	}
+
+	@Test
+	void pastValidityDateIsIgnored() {
+		assertThat(scheduler.nextCheckAt(NOW, "2026-10-01", null)).isEqualTo(NOW.plus(Duration.ofHours(24)));
+	}
+
+	@Test
+	void parsesValidityDates() {
+		LocalDate today = LocalDate.of(2026, 12, 20);
+
+		assertThat(RefreshScheduler.parseValidityDate("2026-12-24", today)).contains(LocalDate.of(2026, 12, 24));
+		assertThat(RefreshScheduler.parseValidityDate("Valid until Dec. 24", today)).contains(LocalDate.of(2026, 12, 24));
+		assertThat(RefreshScheduler.parseValidityDate("valid until January 3", today)).contains(LocalDate.of(2027, 1, 3));
+		assertThat(RefreshScheduler.parseValidityDate("Feb. 30", today)).isEqualTo(Optional.empty());
+		assertThat(RefreshScheduler.parseValidityDate("while supplies last", today)).isEqualTo(Optional.empty());
+		assertThat(RefreshScheduler.parseValidityDate(null, today)).isEqualTo(Optional.empty());
+	}
+}
@@ -0,0 +1,123 @@
+package com.project.SuperC.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An in-process stand-in for the Super C site that serves a recorded search results page for every
+ * {@code /en/search?filter=} request. The price of the first tile is rewritten per product number and
+ * per round, so consecutive runs see price changes and the scraper parses every page instead of
+ * short-circuiting on an unchanged body. Responses can be delayed to stand in for network latency.
+ */
+class StubSuperCServer implements AutoCloseable {
+
+	private static final Pattern FIRST_PRICE = Pattern.compile(
+			"data-main-price=\"[0-9.]+\">(\\s*)<span class=\"price-update\">\\$[0-9.]+</span>");
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final String before;
+	private final String between;
+	private final String after;
+	private final long responseDelayMillis;
+	private final AtomicInteger requests = new AtomicInteger();
+	private volatile int round;
+
+	/**
+	 * Starts a stub server on a free loopback port.
+	 *
+	 * @param recording The classpath resource of the recorded page to serve, e.g. {@code fixtures/small.html}.
+	 * @param responseDelayMillis How long to wait before answering each request.
+	 */
+	StubSuperCServer(String recording, long responseDelayMillis) throws IOException {
+		String page;
+		try (InputStream in = StubSuperCServer.class.getClassLoader().getResourceAsStream(recording)) {
+			if (in == null) {
+				throw new IOException("Recording not found on the classpath: " + recording);
+			}
+			page = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		Matcher matcher = FIRST_PRICE.matcher(page);
+		if (!matcher.find()) {
+			throw new IOException("Recording has no priced product tile: " + recording);
+		}
+		this.before = page.substring(0, matcher.start()) + "data-main-price=\"";
+		this.between = "\">" + matcher.group(1) + "<span class=\"price-update\">$";
+		this.after = "</span>" + page.substring(matcher.end());
+		this.responseDelayMillis = responseDelayMillis;
+
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1000);
+		server.setExecutor(executor);
+		server.createContext("/en/search", this::handle);
+		server.start();
+	}
+
+	String getBaseUrl() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+	int getRequests() {
+		return requests.get();
+	}
+
+	/**
+	 * Moves on to the next round of prices, as if a new flyer had been published.
+	 */
+	void nextRound() {
+		round++;
+	}
+
+	/**
+	 * Returns the price served for a product in the current round: a stable base price between
+	 * $1.00 and $20.99 that drops by up to $0.75 depending on the round.
+	 *
+	 * @param productNumber The product number.
+	 * @return The price in dollars.
+	 */
+	double priceOf(String productNumber) {
+		int hash = productNumber.hashCode() & Integer.MAX_VALUE;
+		return 1 + (hash % 2000) / 100.0 - 0.25 * ((hash + round) % 4);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		try (exchange) {
+			String query = exchange.getRequestURI().getQuery();
+			if (query == null || !query.startsWith("filter=")) {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+			if (responseDelayMillis > 0) {
+				Thread.sleep(responseDelayMillis);
+			}
+			String price = String.format(Locale.ROOT, "%.2f", Math.max(0.5, priceOf(query.substring("filter=".length()))));
+			byte[] body = (before + price + between + price + after).getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+}
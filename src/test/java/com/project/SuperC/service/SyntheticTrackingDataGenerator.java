@@ -0,0 +1,58 @@
+package com.project.SuperC.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Generates synthetic users, products and price tracking requests directly in the database with
+ * set-based inserts, so catalogs of a million requests can be created in seconds. Every generated row
+ * is recognisable by its {@code replay-} prefix, and {@link #deleteAll()} removes them together with
+ * the prices, cache entries and emails a run produced for them.
+ */
+class SyntheticTrackingDataGenerator {
+
+	static final String PREFIX = "replay-";
+	private static final String EMAIL_DOMAIN = "@example.invalid";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	SyntheticTrackingDataGenerator(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * Creates the given number of users and products, and spreads the requests across them: request
+	 * {@code g} belongs to user {@code g mod users} and tracks a product picked by a multiplicative hash
+	 * of {@code g}, with a desired maximum price between $5 and $19.
+	 *
+	 * @param requests The number of price tracking requests to create.
+	 * @param products The number of distinct products tracked.
+	 * @param users The number of users owning the requests.
+	 */
+	void generate(int requests, int products, int users) {
+		jdbcTemplate.update("INSERT INTO users (email, password) "
+				+ "SELECT '" + PREFIX + "' || g || '" + EMAIL_DOMAIN + "', '{noop}replay' FROM generate_series(1, ?) g", users);
+		jdbcTemplate.update("INSERT INTO products (id, product_number, name, image_url, html_snippet, created_at) "
+				+ "SELECT gen_random_uuid()::text, '" + PREFIX + "' || lpad(g::text, 7, '0'), 'Replay product ' || g, '', '', now() "
+				+ "FROM generate_series(1, ?) g", products);
+		jdbcTemplate.update("INSERT INTO price_tracking_requests (product_number, max_price, user_id, alert_state) "
+				+ "SELECT '" + PREFIX + "' || lpad(((g::bigint * 7919) % ? + 1)::text, 7, '0'), 5 + g % 15, u.id, 'ARMED' "
+				+ "FROM generate_series(1, ?) g "
+				+ "JOIN users u ON u.email = '" + PREFIX + "' || ((g - 1) % ? + 1) || '" + EMAIL_DOMAIN + "'",
+				products, requests, users);
+		jdbcTemplate.execute("ANALYZE users");
+		jdbcTemplate.execute("ANALYZE products");
+		jdbcTemplate.execute("ANALYZE price_tracking_requests");
+	}
+
+	/**
+	 * Deletes every generated row and everything a run derived from them.
+	 */
+	void deleteAll() {
+		jdbcTemplate.update("DELETE FROM price_tracking_requests WHERE product_number LIKE '" + PREFIX + "%'");
+		jdbcTemplate.update("DELETE FROM price_history WHERE product_number LIKE '" + PREFIX + "%'");
+		jdbcTemplate.update("DELETE FROM product_page_cache WHERE url LIKE '%filter=" + PREFIX + "%'");
+		jdbcTemplate.update("DELETE FROM email_outbox WHERE recipient LIKE '" + PREFIX + "%" + EMAIL_DOMAIN + "'");
+		jdbcTemplate.update("DELETE FROM products WHERE product_number LIKE '" + PREFIX + "%'");
+		jdbcTemplate.update("DELETE FROM users WHERE email LIKE '" + PREFIX + "%" + EMAIL_DOMAIN + "'");
+	}
+}